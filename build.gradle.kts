@@ -1,6 +1,7 @@
 plugins {
     `java-library`
     `maven-publish`
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "eu.fogas"
@@ -46,6 +47,7 @@ dependencies {
     // testing
     testImplementation("org.junit.jupiter:junit-jupiter:$junitVersion")
     testAnnotationProcessor("org.projectlombok:lombok")
+    testAnnotationProcessor(project(":processor"))
 
     // lombok
     compileOnly("org.projectlombok:lombok:$lombokVersion")
@@ -54,6 +56,16 @@ dependencies {
     testAnnotationProcessor("org.projectlombok:lombok:$lombokVersion")
 }
 
+jmh {
+    val jmhVersion: String by project
+
+    this.jmhVersion = jmhVersion
+    profilers = listOf("gc")
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+}
+
 tasks {
     named<Test>("test") {
         useJUnitPlatform()
@@ -0,0 +1,48 @@
+plugins {
+    `java-library`
+    `maven-publish`
+}
+
+group = "eu.fogas"
+version = rootProject.version
+
+publishing {
+    publications {
+        create<MavenPublication>("reflectionUtilProcessor") {
+            artifactId = "reflection-util-processor"
+            from(components["java"])
+        }
+    }
+}
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(17)
+        vendor = JvmVendorSpec.ADOPTIUM
+    }
+
+    withJavadocJar()
+    withSourcesJar()
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    val junitVersion: String by project
+
+    // testing
+    testImplementation("org.junit.jupiter:junit-jupiter:$junitVersion")
+}
+
+tasks {
+    named<Test>("test") {
+        useJUnitPlatform()
+    }
+
+    named<JavaCompile>("compileJava") {
+        options.compilerArgs.add("-Xlint:unchecked")
+        options.release.set(17)
+    }
+}
@@ -0,0 +1,176 @@
+package eu.fogas.reflection.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Generates the metadata index of the classes annotated with {@code eu.fogas.reflection.Indexed}.
+ * The index of a class is written to {@code META-INF/reflection-util/<binary name>.index} and holds the name,
+ * modifiers and type of the declared fields and the parameter types of the declared constructors, in declaration
+ * order. ReflectionUtil reads it instead of listing the declared members of the class at runtime.
+ */
+@SupportedAnnotationTypes(MetadataIndexProcessor.ANNOTATION)
+public class MetadataIndexProcessor extends AbstractProcessor {
+
+	static final String ANNOTATION = "eu.fogas.reflection.Indexed";
+	static final String LOCATION = "META-INF/reflection-util/";
+	static final String HEADER = "# reflection-util metadata index v1";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element instanceof TypeElement) {
+					write((TypeElement) element);
+				}
+			}
+		}
+		return false;
+	}
+
+	private void write(TypeElement type) {
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		try {
+			FileObject file = processingEnv.getFiler()
+					.createResource(StandardLocation.CLASS_OUTPUT, "", LOCATION + binaryName + ".index", type);
+			try (Writer writer = file.openWriter()) {
+				writer.write(index(type));
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Could not write the metadata index of " + binaryName + " because " + e.getMessage(), type);
+		}
+	}
+
+	/**
+	 * Return the content of the index, one member per line.
+	 */
+	String index(TypeElement type) {
+		List<String> lines = new ArrayList<>();
+		lines.add(HEADER);
+		lines.add("class " + processingEnv.getElementUtils().getBinaryName(type) + " " + modifiers(type.getModifiers()));
+		if (type.getSuperclass().getKind() == TypeKind.DECLARED) {
+			lines.add("super " + typeName(type.getSuperclass()));
+		}
+		for (Element member : type.getEnclosedElements()) {
+			if (member.getKind().isField()) {
+				VariableElement field = (VariableElement) member;
+				lines.add("field " + field.getSimpleName() + " " + modifiers(field.getModifiers()) + " "
+						+ typeName(field.asType()));
+			} else if (member.getKind() == ElementKind.CONSTRUCTOR) {
+				ExecutableElement constructor = (ExecutableElement) member;
+				StringJoiner parameters = new StringJoiner(",");
+				for (VariableElement parameter : constructor.getParameters()) {
+					parameters.add(typeName(parameter.asType()));
+				}
+				lines.add("constructor " + modifiers(constructor.getModifiers()) + " " + parameters);
+			}
+		}
+		return String.join("\n", lines) + "\n";
+	}
+
+	/**
+	 * Return the name of the erased type in the format of {@link Class#getName()}.
+	 */
+	private String typeName(TypeMirror type) {
+		TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+		if (erased.getKind().isPrimitive()) {
+			return erased.getKind().name().toLowerCase();
+		}
+		if (erased.getKind() == TypeKind.ARRAY) {
+			return "[" + descriptor(((ArrayType) erased).getComponentType());
+		}
+		TypeElement element = (TypeElement) ((DeclaredType) erased).asElement();
+		return processingEnv.getElementUtils().getBinaryName(element).toString();
+	}
+
+	private String descriptor(TypeMirror type) {
+		switch (type.getKind()) {
+			case BOOLEAN:
+				return "Z";
+			case BYTE:
+				return "B";
+			case CHAR:
+				return "C";
+			case SHORT:
+				return "S";
+			case INT:
+				return "I";
+			case LONG:
+				return "J";
+			case FLOAT:
+				return "F";
+			case DOUBLE:
+				return "D";
+			case ARRAY:
+				return "[" + descriptor(((ArrayType) type).getComponentType());
+			default:
+				return "L" + typeName(type) + ";";
+		}
+	}
+
+	/**
+	 * Return the modifiers in the format of {@link java.lang.reflect.Modifier}.
+	 */
+	private static int modifiers(Set<Modifier> modifiers) {
+		int result = 0;
+		for (Modifier modifier : modifiers) {
+			switch (modifier) {
+				case PUBLIC:
+					result |= java.lang.reflect.Modifier.PUBLIC;
+					break;
+				case PRIVATE:
+					result |= java.lang.reflect.Modifier.PRIVATE;
+					break;
+				case PROTECTED:
+					result |= java.lang.reflect.Modifier.PROTECTED;
+					break;
+				case STATIC:
+					result |= java.lang.reflect.Modifier.STATIC;
+					break;
+				case FINAL:
+					result |= java.lang.reflect.Modifier.FINAL;
+					break;
+				case TRANSIENT:
+					result |= java.lang.reflect.Modifier.TRANSIENT;
+					break;
+				case VOLATILE:
+					result |= java.lang.reflect.Modifier.VOLATILE;
+					break;
+				case ABSTRACT:
+					result |= java.lang.reflect.Modifier.ABSTRACT;
+					break;
+				default:
+					break;
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,89 @@
+package eu.fogas.reflection.processor;
+
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetadataIndexProcessorTest {
+
+	private static final String ANNOTATION_SOURCE = "package eu.fogas.reflection;\n"
+			+ "public @interface Indexed {}\n";
+
+	private static final String INDEXED_SOURCE = "package sample;\n"
+			+ "import java.util.List;\n"
+			+ "@eu.fogas.reflection.Indexed\n"
+			+ "public class Sample extends Base {\n"
+			+ "  private static final long serialVersionUID = 1L;\n"
+			+ "  protected List<String> names;\n"
+			+ "  transient volatile int[][] matrix;\n"
+			+ "  Nested nested;\n"
+			+ "  public Sample() {}\n"
+			+ "  private Sample(String name, int count, List<String> names) {}\n"
+			+ "  static class Nested {}\n"
+			+ "}\n"
+			+ "class Base {}\n"
+			+ "class NotIndexed {}\n";
+
+	@Test
+	void process_shouldWriteTheIndexOfTheAnnotatedClass() throws IOException {
+		Path output = Files.createTempDirectory("processor-test");
+		try {
+			boolean compiled = compile(output);
+
+			assertTrue(compiled);
+			Path index = output.resolve("META-INF/reflection-util/sample.Sample.index");
+			assertEquals(List.of(
+					MetadataIndexProcessor.HEADER,
+					"class sample.Sample 1",
+					"super sample.Base",
+					"field serialVersionUID 26 long",
+					"field names 4 java.util.List",
+					"field matrix 192 [[I",
+					"field nested 0 sample.Sample$Nested",
+					"constructor 1 ",
+					"constructor 2 java.lang.String,int,java.util.List"), Files.readAllLines(index, StandardCharsets.UTF_8));
+			assertFalse(Files.exists(output.resolve("META-INF/reflection-util/sample.NotIndexed.index")));
+		} finally {
+			try (Stream<Path> files = Files.walk(output)) {
+				files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+			}
+		}
+	}
+
+	private static boolean compile(Path output) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+			fileManager.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(output));
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, List.of("-proc:only"), null,
+					List.of(source("eu/fogas/reflection/Indexed", ANNOTATION_SOURCE), source("sample/Sample", INDEXED_SOURCE)));
+			task.setProcessors(List.of(new MetadataIndexProcessor()));
+			return task.call();
+		}
+	}
+
+	private static JavaFileObject source(String path, String content) {
+		return new SimpleJavaFileObject(URI.create("string:///" + path + ".java"), JavaFileObject.Kind.SOURCE) {
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+				return content;
+			}
+		};
+	}
+}
@@ -1 +1,3 @@
 rootProject.name = "reflection-util"
+
+include("processor")
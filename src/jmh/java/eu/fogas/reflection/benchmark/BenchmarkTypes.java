@@ -0,0 +1,80 @@
+package eu.fogas.reflection.benchmark;
+
+/**
+ * Classes used by the benchmarks.
+ */
+public final class BenchmarkTypes {
+
+	private BenchmarkTypes() {
+	}
+
+	/**
+	 * Class without super class fields.
+	 */
+	public static class Shallow {
+		public int value;
+		public String name;
+
+		public Shallow() {
+		}
+
+		public Shallow(String name) {
+			this.name = name;
+		}
+	}
+
+	/**
+	 * Root of a twelve level deep hierarchy, the benchmarked fields are declared here.
+	 */
+	public static class Level0 {
+		public int value;
+		public String name;
+	}
+
+	public static class Level1 extends Level0 {
+		public int field1;
+	}
+
+	public static class Level2 extends Level1 {
+		public int field2;
+	}
+
+	public static class Level3 extends Level2 {
+		public int field3;
+	}
+
+	public static class Level4 extends Level3 {
+		public int field4;
+	}
+
+	public static class Level5 extends Level4 {
+		public int field5;
+	}
+
+	public static class Level6 extends Level5 {
+		public int field6;
+	}
+
+	public static class Level7 extends Level6 {
+		public int field7;
+	}
+
+	public static class Level8 extends Level7 {
+		public int field8;
+	}
+
+	public static class Level9 extends Level8 {
+		public int field9;
+	}
+
+	public static class Level10 extends Level9 {
+		public int field10;
+	}
+
+	/**
+	 * Leaf of the hierarchy.
+	 */
+	public static class Deep extends Level10 {
+		public int field11;
+	}
+}
@@ -0,0 +1,200 @@
+package eu.fogas.reflection.benchmark;
+
+import eu.fogas.reflection.FieldAccessor;
+import eu.fogas.reflection.ReflectionUtil;
+import eu.fogas.reflection.benchmark.BenchmarkTypes.Deep;
+import eu.fogas.reflection.benchmark.BenchmarkTypes.Level0;
+import eu.fogas.reflection.benchmark.BenchmarkTypes.Shallow;
+import eu.fogas.reflection.exception.field.FieldNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Field reads and writes through ReflectionUtil compared to direct access, raw Field and MethodHandle baselines,
+ * on a shallow class and on a twelve level deep hierarchy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FieldAccessBenchmark {
+
+	private static final MethodHandle SHALLOW_GETTER;
+	private static final MethodHandle SHALLOW_SETTER;
+	private static final MethodHandle DEEP_GETTER;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			SHALLOW_GETTER = lookup.findGetter(Shallow.class, "name", String.class);
+			SHALLOW_SETTER = lookup.findSetter(Shallow.class, "name", String.class);
+			DEEP_GETTER = lookup.findGetter(Level0.class, "name", String.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private Shallow shallow;
+	private Deep deep;
+	private Field shallowField;
+	private Field deepField;
+	private FieldAccessor<Shallow, String> shallowAccessor;
+	private FieldAccessor<Deep, String> deepAccessor;
+	private FieldAccessor<Shallow, Integer> intAccessor;
+	private String value;
+
+	@Setup
+	public void setUp() throws NoSuchFieldException {
+		shallow = new Shallow("shallow");
+		deep = new Deep();
+		deep.name = "deep";
+		shallowField = Shallow.class.getDeclaredField("name");
+		deepField = Level0.class.getDeclaredField("name");
+		shallowAccessor = ReflectionUtil.accessor(Shallow.class, "name");
+		deepAccessor = ReflectionUtil.accessor(Deep.class, "name");
+		intAccessor = ReflectionUtil.accessor(Shallow.class, "value");
+		value = "value";
+	}
+
+	@Benchmark
+	public String shallowGetDirect() {
+		return shallow.name;
+	}
+
+	@Benchmark
+	public Object shallowGetField() throws IllegalAccessException {
+		return shallowField.get(shallow);
+	}
+
+	@Benchmark
+	public String shallowGetMethodHandle() throws Throwable {
+		return (String) SHALLOW_GETTER.invokeExact(shallow);
+	}
+
+	@Benchmark
+	public String shallowGetFieldValue() {
+		return ReflectionUtil.getFieldValue(shallow, "name");
+	}
+
+	@Benchmark
+	public String shallowGetAccessor() {
+		return shallowAccessor.get(shallow);
+	}
+
+	@Benchmark
+	public int shallowGetIntFieldValue() {
+		return ReflectionUtil.getFieldValue(shallow, "value");
+	}
+
+	@Benchmark
+	public int shallowGetInt() {
+		return ReflectionUtil.getInt(shallow, "value");
+	}
+
+	@Benchmark
+	public int shallowGetIntAccessor() {
+		return intAccessor.getInt(shallow);
+	}
+
+	@Benchmark
+	public void shallowSetDirect() {
+		shallow.name = value;
+	}
+
+	@Benchmark
+	public void shallowSetField() throws IllegalAccessException {
+		shallowField.set(shallow, value);
+	}
+
+	@Benchmark
+	public void shallowSetMethodHandle() throws Throwable {
+		SHALLOW_SETTER.invokeExact(shallow, value);
+	}
+
+	@Benchmark
+	public void shallowSetFieldValue() {
+		ReflectionUtil.setFieldValue(shallow, "name", value);
+	}
+
+	@Benchmark
+	public void shallowSetAccessor() {
+		shallowAccessor.set(shallow, value);
+	}
+
+	@Benchmark
+	public String deepGetDirect() {
+		return deep.name;
+	}
+
+	@Benchmark
+	public Object deepGetField() throws IllegalAccessException {
+		return deepField.get(deep);
+	}
+
+	@Benchmark
+	public String deepGetMethodHandle() throws Throwable {
+		return (String) DEEP_GETTER.invokeExact((Level0) deep);
+	}
+
+	@Benchmark
+	public String deepGetFieldValue() {
+		return ReflectionUtil.getFieldValue(deep, "name");
+	}
+
+	@Benchmark
+	public String deepGetAccessor() {
+		return deepAccessor.get(deep);
+	}
+
+	@Benchmark
+	public void deepSetFieldValue() {
+		ReflectionUtil.setFieldValue(deep, "name", value);
+	}
+
+	@Benchmark
+	public Field deepGetDeclaredField() {
+		return ReflectionUtil.getDeclaredField(Deep.class, "name");
+	}
+
+	@Benchmark
+	public Field deepGetDeclaredFieldRaw() {
+		for (Class<?> type = Deep.class; type != null; type = type.getSuperclass()) {
+			try {
+				return type.getDeclaredField("name");
+			} catch (NoSuchFieldException e) {
+				// continue with the super class
+			}
+		}
+		return null;
+	}
+
+	@Benchmark
+	public Object deepMissingField() {
+		try {
+			return ReflectionUtil.getDeclaredField(Deep.class, "missing");
+		} catch (FieldNotFoundException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object deepMissingFieldRaw() {
+		for (Class<?> type = Deep.class; type != null; type = type.getSuperclass()) {
+			try {
+				return type.getDeclaredField("missing");
+			} catch (NoSuchFieldException e) {
+				// continue with the super class
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,47 @@
+package eu.fogas.reflection.benchmark;
+
+import eu.fogas.reflection.ReflectionUtil;
+import eu.fogas.reflection.benchmark.BenchmarkTypes.Deep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collecting the fields of a twelve level deep hierarchy.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GetAllFieldsBenchmark {
+
+	@Benchmark
+	public List<Field> getAllFieldsRaw() {
+		List<Field> fields = new ArrayList<>();
+		for (Class<?> type = Deep.class; type != null; type = type.getSuperclass()) {
+			fields.addAll(Arrays.asList(type.getDeclaredFields()));
+		}
+		return fields;
+	}
+
+	@Benchmark
+	public List<Field> getAllFields() {
+		return ReflectionUtil.getAllFields(Deep.class);
+	}
+
+	@Benchmark
+	public void iterateFieldTable(Blackhole blackhole) {
+		for (Field field : ReflectionUtil.getFieldTable(Deep.class).getAllFields()) {
+			blackhole.consume(field);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package eu.fogas.reflection.benchmark;
+
+import eu.fogas.reflection.ReflectionUtil;
+import eu.fogas.reflection.benchmark.BenchmarkTypes.Deep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of a field lookup in a twelve level deep hierarchy, with and without a loaded metadata cache. Every
+ * invocation looks up the field of a fresh copy of the hierarchy, defined by a new class loader, so nothing is
+ * resolved yet, as on the first lookup after a restart.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MetadataCacheBenchmark {
+
+	@Param({"false", "true"})
+	public boolean cached;
+
+	private Path file;
+	private Class<?> type;
+
+	@Setup(Level.Trial)
+	public void saveCache() throws IOException {
+		file = Files.createTempFile("metadata", ".cache");
+		ReflectionUtil.recordMetadataCache();
+		ReflectionUtil.getDeclaredField(Deep.class, "name");
+		ReflectionUtil.saveMetadataCache(file);
+		if (cached) {
+			ReflectionUtil.loadMetadataCache(file);
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void defineTypes() throws ClassNotFoundException {
+		type = new FreshLoader().loadClass(Deep.class.getName());
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteCache() throws IOException {
+		Files.delete(file);
+	}
+
+	@Benchmark
+	public Field coldGetDeclaredField() {
+		return ReflectionUtil.getDeclaredField(type, "name");
+	}
+
+	/**
+	 * Defines the classes of {@link BenchmarkTypes} again, from the same jar, so their stamps match the cache.
+	 */
+	private static final class FreshLoader extends ClassLoader {
+		private static final String PREFIX = BenchmarkTypes.class.getName() + "$";
+
+		private FreshLoader() {
+			super(BenchmarkTypes.class.getClassLoader());
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!name.startsWith(PREFIX)) {
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> loaded = findLoadedClass(name);
+				if (loaded != null) {
+					return loaded;
+				}
+				try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+					byte[] bytes = in.readAllBytes();
+					return defineClass(name, bytes, 0, bytes.length, BenchmarkTypes.class.getProtectionDomain());
+				} catch (IOException e) {
+					throw new ClassNotFoundException(name, e);
+				}
+			}
+		}
+	}
+}
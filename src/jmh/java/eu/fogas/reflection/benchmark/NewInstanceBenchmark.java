@@ -0,0 +1,98 @@
+package eu.fogas.reflection.benchmark;
+
+import eu.fogas.reflection.InstanceFactory;
+import eu.fogas.reflection.ReflectionUtil;
+import eu.fogas.reflection.benchmark.BenchmarkTypes.Shallow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Object creation through both newInstance overloads compared to direct, raw Constructor and MethodHandle baselines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NewInstanceBenchmark {
+
+	private static final MethodHandle DEFAULT_CONSTRUCTOR;
+	private static final MethodHandle NAME_CONSTRUCTOR;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			DEFAULT_CONSTRUCTOR = lookup.findConstructor(Shallow.class, MethodType.methodType(void.class));
+			NAME_CONSTRUCTOR = lookup.findConstructor(Shallow.class, MethodType.methodType(void.class, String.class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private Constructor<Shallow> defaultConstructor;
+	private Constructor<Shallow> nameConstructor;
+	private InstanceFactory<Shallow> factory;
+	private String name;
+
+	@Setup
+	public void setUp() throws NoSuchMethodException {
+		defaultConstructor = Shallow.class.getDeclaredConstructor();
+		nameConstructor = Shallow.class.getDeclaredConstructor(String.class);
+		factory = ReflectionUtil.instanceFactory(Shallow.class);
+		name = "name";
+	}
+
+	@Benchmark
+	public Shallow defaultDirect() {
+		return new Shallow();
+	}
+
+	@Benchmark
+	public Shallow defaultConstructor() throws ReflectiveOperationException {
+		return defaultConstructor.newInstance();
+	}
+
+	@Benchmark
+	public Shallow defaultMethodHandle() throws Throwable {
+		return (Shallow) DEFAULT_CONSTRUCTOR.invokeExact();
+	}
+
+	@Benchmark
+	public Shallow defaultNewInstance() {
+		return ReflectionUtil.newInstance(Shallow.class);
+	}
+
+	@Benchmark
+	public Shallow defaultInstanceFactory() {
+		return factory.newInstance();
+	}
+
+	@Benchmark
+	public Shallow argumentDirect() {
+		return new Shallow(name);
+	}
+
+	@Benchmark
+	public Shallow argumentConstructor() throws ReflectiveOperationException {
+		return nameConstructor.newInstance(name);
+	}
+
+	@Benchmark
+	public Shallow argumentMethodHandle() throws Throwable {
+		return (Shallow) NAME_CONSTRUCTOR.invokeExact(name);
+	}
+
+	@Benchmark
+	public Shallow argumentNewInstance() {
+		return ReflectionUtil.newInstance(Shallow.class, name);
+	}
+}
@@ -0,0 +1,67 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.spi.AccessStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+/**
+ * Selects the {@link AccessStrategy} used by {@link ReflectionUtil}.
+ */
+final class AccessStrategies {
+
+	/**
+	 * System property holding the name of the access strategy.
+	 */
+	static final String PROPERTY = "eu.fogas.reflection.accessStrategy";
+
+	private static final AccessStrategy CURRENT =
+			select(System.getProperty(PROPERTY), ServiceLoader.load(AccessStrategy.class));
+
+	private AccessStrategies() {
+	}
+
+	/**
+	 * Return the selected access strategy.
+	 *
+	 * @return the access strategy
+	 */
+	static AccessStrategy current() {
+		return CURRENT;
+	}
+
+	/**
+	 * Return the built-in access strategies, the first one is the default.
+	 *
+	 * @return the built-in access strategies
+	 */
+	static List<AccessStrategy> builtIns() {
+		return List.of(new GeneratedAccessStrategy(), new MethodHandleAccessStrategy(), new ReflectionAccessStrategy());
+	}
+
+	/**
+	 * Selects the strategy with the given name, or the first provided strategy when no name is given, or the default.
+	 *
+	 * @param name      name of the strategy or null
+	 * @param providers the strategies registered with the ServiceLoader
+	 * @return the selected access strategy
+	 * @throws IllegalArgumentException if there is no strategy with the given name.
+	 */
+	static AccessStrategy select(String name, Iterable<AccessStrategy> providers) {
+		List<AccessStrategy> candidates = new ArrayList<>();
+		providers.forEach(candidates::add);
+		if (name == null) {
+			return candidates.isEmpty() ? builtIns().get(0) : candidates.get(0);
+		}
+		candidates.addAll(builtIns());
+		for (AccessStrategy strategy : candidates) {
+			if (strategy.getName().equals(name)) {
+				return strategy;
+			}
+		}
+		throw new IllegalArgumentException("Unknown access strategy '" + name + "' in " + PROPERTY + ", available: "
+				+ candidates.stream().map(AccessStrategy::getName).collect(Collectors.joining(", ")));
+	}
+}
@@ -0,0 +1,24 @@
+package eu.fogas.reflection;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a field or constructor which could not be made accessible, emitted while {@link ReflectionMetrics}
+ * are enabled.
+ */
+@Name("eu.fogas.reflection.AccessibilityFailure")
+@Label("Accessibility Failure")
+@Category("Reflection Util")
+@Description("Member could not be made accessible")
+final class AccessibilityFailureEvent extends Event {
+
+	@Label("Type")
+	Class<?> type;
+
+	@Label("Member")
+	String member;
+}
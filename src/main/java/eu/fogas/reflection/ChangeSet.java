@@ -0,0 +1,143 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.field.FieldNotFoundException;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The fields which differ between two objects of the same class, see {@link ReflectionUtil#diff(Object, Object)}.
+ * The changed fields are stored as a bitset of field indices, the index of a field is its position in
+ * {@link #getFieldNames()}. The old and new values are not copied, they are read from the compared objects when they
+ * are requested, so they reflect the state of the objects at the time of the call.
+ *
+ * @param <T> the type of the compared objects
+ */
+public final class ChangeSet<T> {
+
+	private final DiffPlan plan;
+	private final T oldValue;
+	private final T newValue;
+	private final BitSet changed;
+
+	ChangeSet(DiffPlan plan, T oldValue, T newValue, BitSet changed) {
+		this.plan = plan;
+		this.oldValue = oldValue;
+		this.newValue = newValue;
+		this.changed = changed;
+	}
+
+	/**
+	 * Return true when no field differs.
+	 *
+	 * @return true when the objects are equal field by field
+	 */
+	public boolean isEmpty() {
+		return changed.isEmpty();
+	}
+
+	/**
+	 * Return the number of changed fields.
+	 *
+	 * @return the number of changed fields
+	 */
+	public int size() {
+		return changed.cardinality();
+	}
+
+	/**
+	 * Return the indices of the changed fields.
+	 *
+	 * @return a copy of the bitset of the changed field indices
+	 */
+	public BitSet getChangedIndices() {
+		return (BitSet) changed.clone();
+	}
+
+	/**
+	 * Return the names of all the compared fields of the class, the index of a name is the index of the field.
+	 *
+	 * @return unmodifiable list of the field names
+	 */
+	public List<String> getFieldNames() {
+		return plan.getNames();
+	}
+
+	/**
+	 * Return the names of the changed fields, in index order.
+	 *
+	 * @return modifiable list of the changed field names
+	 */
+	public List<String> getChangedFields() {
+		List<String> result = new ArrayList<>(changed.cardinality());
+		for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+			result.add(plan.getNames().get(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Return true when the field with the given name has changed.
+	 *
+	 * @param fieldName the name of the field
+	 * @return true when the field has changed
+	 * @throws FieldNotFoundException if the class has no such field.
+	 */
+	public boolean isChanged(final String fieldName) {
+		return changed.get(indexOf(fieldName));
+	}
+
+	/**
+	 * Return the old object.
+	 *
+	 * @return the old object
+	 */
+	public T getOldObject() {
+		return oldValue;
+	}
+
+	/**
+	 * Return the new object.
+	 *
+	 * @return the new object
+	 */
+	public T getNewObject() {
+		return newValue;
+	}
+
+	/**
+	 * Reads the value of the field from the old object.
+	 *
+	 * @param fieldName the name of the field
+	 * @return the value of the field in the old object
+	 * @throws FieldNotFoundException if the class has no such field.
+	 */
+	public Object getOldValue(final String fieldName) {
+		return plan.get(indexOf(fieldName), oldValue);
+	}
+
+	/**
+	 * Reads the value of the field from the new object.
+	 *
+	 * @param fieldName the name of the field
+	 * @return the value of the field in the new object
+	 * @throws FieldNotFoundException if the class has no such field.
+	 */
+	public Object getNewValue(final String fieldName) {
+		return plan.get(indexOf(fieldName), newValue);
+	}
+
+	private int indexOf(String fieldName) {
+		int index = plan.indexOf(fieldName);
+		if (index < 0) {
+			throw new FieldNotFoundException(oldValue.getClass(), fieldName);
+		}
+		return index;
+	}
+
+	@Override
+	public String toString() {
+		return "ChangeSet" + getChangedFields();
+	}
+}
@@ -0,0 +1,386 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.operation.InitializationException;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Reflection metadata of a single class, resolved lazily and cached for the lifetime of the class.
+ * The metadata is attached to the class with a {@link ClassValue}, so it never keeps a class loader from unloading.
+ * The name and signature keyed entries are held in caches bounded by the {@code eu.fogas.reflection.cacheSize}
+ * system property (256 entries per class by default), so lookups of arbitrary names cannot grow them without limit.
+ */
+final class ClassMetadata {
+
+	/**
+	 * System property holding the maximum number of field names and of constructor signatures cached per class.
+	 */
+	static final String CACHE_SIZE_PROPERTY = "eu.fogas.reflection.cacheSize";
+
+	static final int CACHE_SIZE = Integer.getInteger(CACHE_SIZE_PROPERTY, 256);
+
+	private static final ClassValue<ClassMetadata> METADATA = new ClassValue<>() {
+		@Override
+		protected ClassMetadata computeValue(Class<?> type) {
+			return new ClassMetadata(type);
+		}
+	};
+
+	private final Class<?> type;
+	private final ClockCache<Optional<Field>> fields = new ClockCache<>(CACHE_SIZE);
+	private final ClockCache<FieldAccessor<?, ?>> accessors = new ClockCache<>(CACHE_SIZE);
+	private final ConstructorCache constructors = new ConstructorCache(CACHE_SIZE);
+	private final MetadataIndex index;
+	private volatile Map<String, Field> declaredFields;
+	private volatile InstanceFactory<?> instanceFactory;
+	private volatile FieldTable fieldTable;
+	private volatile List<WarmConstructor> warmConstructors = List.of();
+
+	private ClassMetadata(Class<?> type) {
+		this.type = type;
+		MetadataStore.resolved(type);
+		MetadataIndex generated = MetadataIndex.load(type);
+		this.index = generated != null ? generated : MetadataStore.index(type);
+	}
+
+	/**
+	 * Return the metadata of the given class.
+	 *
+	 * @param type Class object
+	 * @return the cached metadata of the class
+	 */
+	static ClassMetadata of(Class<?> type) {
+		return METADATA.get(type);
+	}
+
+	/**
+	 * Return the field with the given name from the class or from the closest super class declaring it.
+	 * Both found and missing fields are cached, so repeated lookups of the recently used names do not touch the
+	 * reflection API.
+	 *
+	 * @param fieldName the simple name of the field
+	 * @return the field or null when neither the class nor its super classes declare it
+	 */
+	Field getField(String fieldName) {
+		Optional<Field> field = fields.get(fieldName);
+		if (field == null) {
+			ReflectionMetrics.cacheMiss();
+			field = fields.computeIfAbsent(fieldName, this::resolveField);
+		} else {
+			ReflectionMetrics.cacheHit();
+		}
+		ReflectionMetrics.fieldLookup(field.isPresent());
+		return field.orElse(null);
+	}
+
+	/**
+	 * Return the cached table of the fields of the class and of its super classes.
+	 *
+	 * @return the field table
+	 */
+	FieldTable getFieldTable() {
+		FieldTable table = fieldTable;
+		if (table == null) {
+			List<Field> fields = new ArrayList<>(getDeclaredFields().values());
+			Class<?> superType = type.getSuperclass();
+			if (superType != null) {
+				fields.addAll(of(superType).getFieldTable().getAllFields());
+			}
+			table = new FieldTable(fields);
+			fieldTable = table;
+		}
+		return table;
+	}
+
+	/**
+	 * Return the cached accessor of the field with the given name. The lookup is counted once in the metrics, the
+	 * field is resolved through the field cache without counting it again.
+	 *
+	 * @param fieldName the simple name of the field
+	 * @return the accessor or null when neither the class nor its super classes declare the field
+	 */
+	FieldAccessor<?, ?> getAccessor(String fieldName) {
+		FieldAccessor<?, ?> accessor = accessors.get(fieldName);
+		if (accessor == null) {
+			ReflectionMetrics.cacheMiss();
+			Optional<Field> field = fields.computeIfAbsent(fieldName, this::resolveField);
+			if (field.isEmpty()) {
+				return null;
+			}
+			long start = ReflectionMetrics.start();
+			accessor = accessors.computeIfAbsent(fieldName,
+					name -> AccessStrategies.current().fieldAccessor(field.get()));
+			ReflectionMetrics.resolved(start);
+		} else {
+			ReflectionMetrics.cacheHit();
+		}
+		return accessor;
+	}
+
+	/**
+	 * Return the cached factory which creates instances with the default constructor.
+	 *
+	 * @return the instance factory
+	 * @throws InitializationException when the class is abstract or has no default constructor.
+	 */
+	InstanceFactory<?> getInstanceFactory() {
+		InstanceFactory<?> factory = instanceFactory;
+		if (factory == null) {
+			ReflectionMetrics.cacheMiss();
+			long start = ReflectionMetrics.start();
+			factory = createInstanceFactory();
+			instanceFactory = factory;
+			ReflectionMetrics.resolved(start);
+		} else {
+			ReflectionMetrics.cacheHit();
+		}
+		return factory;
+	}
+
+	private InstanceFactory<?> createInstanceFactory() {
+		if (Modifier.isAbstract(type.getModifiers())) {
+			throw new InitializationException(
+					String.format("Could not create instance of %s because it is abstract", type.getCanonicalName()));
+		}
+		Constructor<?> constructor = findDefaultConstructor();
+		if (constructor == null || constructor.getParameterCount() != 0) {
+			throw new InitializationException(
+					String.format("Could not create instance of %s because no default constructor was found",
+							type.getCanonicalName()));
+		}
+		return AccessStrategies.current().instanceFactory(constructor);
+	}
+
+	/**
+	 * Return the invoker of the first declared constructor accepting the arguments. The constructor is resolved once
+	 * per runtime class signature of the arguments. A null argument matches any non-primitive parameter, a boxed
+	 * argument matches the corresponding primitive parameter. After {@link #warmUp()} a new signature is matched
+	 * against the warmed-up constructors, so arguments of sub types of the parameter types are served without
+	 * reflection too.
+	 *
+	 * @param args the constructor arguments
+	 * @return the constructor invoker or null when no declared constructor accepts the arguments
+	 */
+	Function<Object[], ?> getConstructorInvoker(Object[] args) {
+		ConstructorCache.Entry entry = constructors.get(args);
+		if (entry == null) {
+			Class<?>[] argTypes = ConstructorCache.argTypes(args);
+			WarmConstructor warm = findWarmConstructor(argTypes);
+			if (warm != null && warm.invoker() != null) {
+				ReflectionMetrics.cacheHit();
+				return constructors.put(argTypes, warm.invoker()).getInvoker();
+			}
+			ReflectionMetrics.cacheMiss();
+			long start = ReflectionMetrics.start();
+			entry = constructors.put(argTypes, resolveConstructor(argTypes));
+			ReflectionMetrics.resolved(start);
+		} else {
+			ReflectionMetrics.cacheHit();
+		}
+		return entry.getInvoker();
+	}
+
+	/**
+	 * Resolves the fields, the field accessors, the default constructor and the declared constructors of the class,
+	 * so later lookups are served from the caches. Constructors which cannot be invoked are skipped.
+	 */
+	void warmUp() {
+		if (type.isPrimitive() || type.isArray()) {
+			return;
+		}
+		for (Field field : getFieldTable().getAllFields()) {
+			getAccessor(field.getName());
+		}
+		if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+			try {
+				getInstanceFactory();
+			} catch (InitializationException e) {
+				// the class can still be created with the other constructors
+			}
+			warmUpConstructors();
+		}
+		if (type.isRecord()) {
+			RecordPlan.of(type);
+		}
+	}
+
+	/**
+	 * Creates the invokers of the declared constructors and caches them under their wrapped parameter types. The
+	 * invokers are also kept in declaration order, to serve the argument signatures which are not cached yet.
+	 */
+	private void warmUpConstructors() {
+		Constructor<?>[] declared = type.getDeclaredConstructors();
+		List<WarmConstructor> warm = new ArrayList<>(declared.length);
+		for (Constructor<?> constructor : declared) {
+			Function<Object[], ?> invoker;
+			try {
+				invoker = AccessStrategies.current().constructorInvoker(constructor);
+			} catch (InitializationException e) {
+				// the constructor is resolved again, and fails, when it is invoked
+				invoker = null;
+			}
+			warm.add(new WarmConstructor(constructor.getParameterTypes(), invoker));
+		}
+		warmConstructors = List.copyOf(warm);
+		for (Constructor<?> constructor : declared) {
+			Class<?>[] argTypes = MethodType.methodType(void.class, constructor.getParameterTypes())
+					.wrap().parameterArray();
+			WarmConstructor match = findWarmConstructor(argTypes);
+			if (match != null && match.invoker() != null && constructors.find(argTypes) == null) {
+				constructors.put(argTypes, match.invoker());
+			}
+		}
+	}
+
+	/**
+	 * Return the first warmed-up constructor accepting the argument classes, the one {@link #resolveConstructor}
+	 * would resolve, or null when the class is not warmed up or no constructor accepts them.
+	 */
+	private WarmConstructor findWarmConstructor(Class<?>[] argTypes) {
+		for (WarmConstructor warm : warmConstructors) {
+			if (allMatches(warm.parameterTypes(), argTypes)) {
+				return warm;
+			}
+		}
+		return null;
+	}
+
+	private Function<Object[], ?> resolveConstructor(Class<?>[] argTypes) {
+		for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+			if (allMatches(constructor.getParameterTypes(), argTypes)) {
+				return AccessStrategies.current().constructorInvoker(constructor);
+			}
+		}
+		return null;
+	}
+
+	private static boolean allMatches(Class<?>[] parameterTypes, Class<?>[] argTypes) {
+		if (parameterTypes.length != argTypes.length) {
+			return false;
+		}
+		for (int i = 0; i < argTypes.length; i++) {
+			if (!isAssignable(parameterTypes[i], argTypes[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isAssignable(Class<?> parameterType, Class<?> argType) {
+		if (argType == null) {
+			return !parameterType.isPrimitive();
+		}
+		if (parameterType.isPrimitive()) {
+			return MethodType.methodType(parameterType).wrap().returnType() == argType;
+		}
+		return parameterType.isAssignableFrom(argType);
+	}
+
+	private Optional<Field> resolveField(String fieldName) {
+		long start = ReflectionMetrics.start();
+		Field member = findMember(fieldName);
+		if (member != null) {
+			ReflectionMetrics.fieldResolved(type, fieldName, 1, true, start);
+			return Optional.of(member);
+		}
+		int depth = 0;
+		for (Class<?> t = type; t != null; t = t.getSuperclass()) {
+			depth++;
+			Field field = of(t).findDeclaredField(fieldName);
+			if (field != null) {
+				ReflectionMetrics.fieldResolved(type, fieldName, depth, true, start);
+				return Optional.of(field);
+			}
+		}
+		ReflectionMetrics.fieldResolved(type, fieldName, depth, false, start);
+		return Optional.empty();
+	}
+
+	/**
+	 * Return the field of the class or of a super class whose declaring class is recorded in the index of the class,
+	 * looked up directly on the declaring class, without resolving the classes in between. Return null when the index
+	 * records no such member, or it is not declared there anymore.
+	 */
+	private Field findMember(String fieldName) {
+		int depth = index == null ? -1 : index.getMemberDepth(fieldName);
+		if (depth < 0) {
+			return null;
+		}
+		Class<?> declaring = type;
+		for (int i = 0; i < depth && declaring != null; i++) {
+			declaring = declaring.getSuperclass();
+		}
+		if (declaring == null) {
+			return null;
+		}
+		try {
+			return declaring.getDeclaredField(fieldName);
+		} catch (NoSuchFieldException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Return the field declared by the class with the given name. When the class has a metadata index, generated or
+	 * loaded from the persisted metadata cache, a field present in the index is looked up directly, without listing
+	 * the declared fields. The index only knows the fields of the source, so the other names are always checked
+	 * against the declared fields: synthetic fields added by the compiler and fields injected by an agent are found
+	 * the same way with or without an index.
+	 */
+	private Field findDeclaredField(String fieldName) {
+		if (index != null && declaredFields == null && index.hasField(fieldName)) {
+			try {
+				return type.getDeclaredField(fieldName);
+			} catch (NoSuchFieldException e) {
+				// stale index, fall back to the declared fields
+			}
+		}
+		return getDeclaredFields().get(fieldName);
+	}
+
+	/**
+	 * Return the constructor with the least parameters, as {@link ReflectionUtil#getDefaultConstructor}. When the
+	 * class has a metadata index, the constructor without parameters is looked up directly.
+	 */
+	private Constructor<?> findDefaultConstructor() {
+		if (index != null) {
+			if (!index.hasDefaultConstructor()) {
+				return null;
+			}
+			try {
+				return type.getDeclaredConstructor();
+			} catch (NoSuchMethodException e) {
+				// implicit constructor parameters of inner classes and enums, fall back to the declared constructors
+			}
+		}
+		return ReflectionUtil.getDefaultConstructor(type);
+	}
+
+	private Map<String, Field> getDeclaredFields() {
+		Map<String, Field> result = declaredFields;
+		if (result == null) {
+			Field[] declared = type.getDeclaredFields();
+			result = new LinkedHashMap<>(declared.length * 2);
+			for (Field field : declared) {
+				result.put(field.getName(), field);
+			}
+			declaredFields = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Invoker of a declared constructor created by {@link #warmUp()}, null when it cannot be invoked.
+	 */
+	private record WarmConstructor(Class<?>[] parameterTypes, Function<Object[], ?> invoker) {
+	}
+}
@@ -0,0 +1,94 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.operation.ClassScanException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Lists the classes of a package and of its sub packages from the directories and jar files of a class loader.
+ */
+final class ClassScanner {
+
+	private static final String CLASS_SUFFIX = ".class";
+
+	private ClassScanner() {
+	}
+
+	/**
+	 * Return the classes of the package and of its sub packages. The classes are loaded without initialization,
+	 * the classes which cannot be loaded are skipped.
+	 *
+	 * @param packageName the name of the package
+	 * @param classLoader the class loader to load the classes with
+	 * @return the classes of the package
+	 * @throws ClassScanException when a directory or a jar file of the package cannot be read.
+	 */
+	static List<Class<?>> scan(String packageName, ClassLoader classLoader) {
+		String path = packageName.replace('.', '/');
+		List<String> classNames = new ArrayList<>();
+		try {
+			Enumeration<URL> resources = classLoader.getResources(path);
+			for (URL resource : Collections.list(resources)) {
+				if ("file".equals(resource.getProtocol())) {
+					scanDirectory(Path.of(resource.toURI()), packageName, classNames);
+				} else if ("jar".equals(resource.getProtocol())) {
+					scanJar(resource, path, classNames);
+				}
+			}
+		} catch (IOException | UncheckedIOException | URISyntaxException e) {
+			throw new ClassScanException("Could not scan package " + packageName + " because " + e.getMessage(), e);
+		}
+		List<Class<?>> result = new ArrayList<>(classNames.size());
+		for (String className : classNames) {
+			try {
+				result.add(Class.forName(className, false, classLoader));
+			} catch (ClassNotFoundException | LinkageError e) {
+				// not loadable in this runtime, e.g. a missing optional dependency
+			}
+		}
+		return result;
+	}
+
+	private static void scanDirectory(Path directory, String packageName, List<String> classNames) throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.filter(file -> isClassFile(file.getFileName().toString()))
+					.forEach(file -> {
+						String relative = directory.relativize(file).toString()
+								.replace(file.getFileSystem().getSeparator(), ".");
+						String simpleName = relative.substring(0, relative.length() - CLASS_SUFFIX.length());
+						classNames.add(packageName + "." + simpleName);
+					});
+		}
+	}
+
+	private static void scanJar(URL resource, String path, List<String> classNames) throws IOException {
+		var connection = (JarURLConnection) resource.openConnection();
+		connection.setUseCaches(false);
+		try (JarFile jar = connection.getJarFile()) {
+			for (JarEntry entry : Collections.list(jar.entries())) {
+				String name = entry.getName();
+				if (name.startsWith(path + "/") && isClassFile(name.substring(name.lastIndexOf('/') + 1))) {
+					classNames.add(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+				}
+			}
+		}
+	}
+
+	private static boolean isClassFile(String fileName) {
+		return fileName.endsWith(CLASS_SUFFIX) && !fileName.equals("module-info.class")
+				&& !fileName.equals("package-info.class");
+	}
+}
@@ -0,0 +1,108 @@
+package eu.fogas.reflection;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of string keyed values with CLOCK (second chance) eviction, an approximation of LRU which needs no
+ * bookkeeping on reads but setting a flag. Lookups are lock free, inserts and evictions are serialized.
+ *
+ * @param <V> the type of the cached values
+ */
+final class ClockCache<V> {
+
+	private final ConcurrentMap<String, Node<V>> map = new ConcurrentHashMap<>();
+	private final Node<V>[] ring;
+	private int hand;
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	ClockCache(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Cache capacity must be positive but was " + capacity);
+		}
+		this.ring = new Node[capacity];
+	}
+
+	/**
+	 * Return the cached value of the key and marks it as recently used.
+	 *
+	 * @param key the key
+	 * @return the cached value or null when the key is not cached
+	 */
+	V get(String key) {
+		Node<V> node = map.get(key);
+		if (node == null) {
+			return null;
+		}
+		if (!node.referenced) {
+			node.referenced = true;
+		}
+		return node.value;
+	}
+
+	/**
+	 * Return the cached value of the key or computes and caches it. When the cache is full, the first entry which was
+	 * not used since the clock hand passed it last time is evicted.
+	 *
+	 * @param key    the key
+	 * @param loader computes the value of the key, it must not return null
+	 * @return the cached value
+	 */
+	V computeIfAbsent(String key, Function<String, ? extends V> loader) {
+		V value = get(key);
+		if (value != null) {
+			return value;
+		}
+		synchronized (this) {
+			Node<V> node = map.get(key);
+			if (node != null) {
+				return node.value;
+			}
+			node = new Node<>(key, loader.apply(key));
+			if (size == ring.length) {
+				evict();
+			} else {
+				hand = size++;
+			}
+			ring[hand] = node;
+			hand = (hand + 1) % ring.length;
+			map.put(key, node);
+			return node.value;
+		}
+	}
+
+	/**
+	 * Return the number of cached entries.
+	 *
+	 * @return the number of cached entries
+	 */
+	int size() {
+		return map.size();
+	}
+
+	/**
+	 * Moves the hand to the first entry not referenced since the last pass and removes it, the referenced entries
+	 * passed by the hand get their second chance.
+	 */
+	private void evict() {
+		while (ring[hand].referenced) {
+			ring[hand].referenced = false;
+			hand = (hand + 1) % ring.length;
+		}
+		map.remove(ring[hand].key);
+		ReflectionMetrics.cacheEviction();
+	}
+
+	private static final class Node<V> {
+		private final String key;
+		private final V value;
+		private volatile boolean referenced;
+
+		private Node(String key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+}
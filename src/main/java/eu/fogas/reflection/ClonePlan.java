@@ -0,0 +1,650 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.operation.InitializationException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.io.File;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled plan creating deep copies of the objects of a class.
+ * Immutable objects (strings, boxed primitives, enums, java.time values, records of immutables, ...) are shared
+ * instead of copied. Primitive arrays are copied with {@link System#arraycopy}, the primitive fields of an object are
+ * copied by a single composed method handle without boxing. Objects reachable on more paths, cycles included, are
+ * copied once.
+ * <p>
+ * The fields of JDK classes which are not open to this library cannot be copied: their objects are copied with their
+ * public clone method or a copy constructor, {@link Optional} and {@link AtomicReference} are copied with a copy of
+ * their value, known immutable ones and objects without instance fields are shared, and the others cannot be cloned.
+ */
+final class ClonePlan {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType COPY_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodType COMPARATOR_FACTORY_TYPE = MethodType.methodType(Object.class, Comparator.class);
+
+	private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(String.class, Boolean.class, Byte.class,
+			Character.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigInteger.class,
+			BigDecimal.class, UUID.class, Class.class, Locale.class, Pattern.class, URI.class, URL.class, File.class,
+			Currency.class, OptionalInt.class, OptionalLong.class, OptionalDouble.class);
+
+	/**
+	 * Immutable JDK types whose implementation classes are not open to this library.
+	 */
+	private static final List<Class<?>> IMMUTABLE_SUPER_TYPES = List.of(Path.class, Charset.class, InetAddress.class);
+
+	/**
+	 * Copy constructors of mutable JDK types which are neither open to this library nor cloneable.
+	 */
+	private static final Map<Class<?>, UnaryOperator<Object>> COPIERS = Map.of(
+			StringBuilder.class, src -> new StringBuilder((StringBuilder) src),
+			StringBuffer.class, src -> new StringBuffer((StringBuffer) src),
+			AtomicBoolean.class, src -> new AtomicBoolean(((AtomicBoolean) src).get()),
+			AtomicInteger.class, src -> new AtomicInteger(((AtomicInteger) src).get()),
+			AtomicLong.class, src -> new AtomicLong(((AtomicLong) src).get()));
+
+	private static final Class<?> ARRAYS_LIST = Arrays.asList().getClass();
+
+	private static final ClassValue<ClonePlan> PLANS = new ClassValue<>() {
+		@Override
+		protected ClonePlan computeValue(Class<?> type) {
+			return new ClonePlan(type);
+		}
+	};
+
+	/**
+	 * Marks a record or an optional whose components are being copied, they cannot be created before their
+	 * components.
+	 */
+	private static final Object IN_PROGRESS = new Object();
+
+	/**
+	 * Marks an object whose copy needs its elements to be copied first.
+	 */
+	private static final Object NOT_REACHED = new Object();
+
+	/**
+	 * How the objects of a class are copied.
+	 */
+	private enum Kind {
+		SHARED, PRIMITIVE_ARRAY, ARRAY, RECORD, OPTIONAL, REFERENCE, COLLECTION, MAP, FIELDS, SHALLOW, COPIED, OPAQUE
+	}
+
+	private final Class<?> type;
+	private final Kind kind;
+	private boolean sharedElements;
+	private InstanceFactory<?> factory;
+	private String failure;
+	private MethodHandle comparatorFactory;
+	private MethodHandle primitiveCopy;
+	private MethodHandle[] getters;
+	private MethodHandle[] setters;
+	private MethodHandle cloneMethod;
+
+	private ClonePlan(Class<?> type) {
+		this.type = type;
+		this.kind = kind(type);
+		switch (kind) {
+			case ARRAY:
+				Class<?> componentType = type.getComponentType();
+				sharedElements = Modifier.isFinal(componentType.getModifiers())
+						&& isImmutable(componentType, new HashSet<>());
+				break;
+			case COLLECTION:
+				factory = instanceFactory(type);
+				comparatorFactory = comparatorFactory(type);
+				break;
+			case MAP:
+				factory = instanceFactory(type);
+				comparatorFactory = comparatorFactory(type);
+				if (type == LinkedHashMap.class) {
+					// the clone keeps the access order of the map, which cannot be read otherwise
+					cloneMethod = cloneMethod(type);
+				}
+				break;
+			case FIELDS:
+				factory = instanceFactory(type);
+				if (factory != null) {
+					initFields();
+				}
+				break;
+			case SHALLOW:
+				cloneMethod = cloneMethod(type);
+				break;
+			case OPAQUE:
+				failure = "Can not clone " + type.getCanonicalName()
+						+ " because it is neither immutable, open to reflection nor cloneable";
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Creates a deep copy of the object.
+	 *
+	 * @param obj the object to copy
+	 * @return the copy or the object itself when it is immutable, null when the object is null
+	 * @throws InitializationException when an object of the graph cannot be created or its fields cannot be copied.
+	 */
+	static Object deepClone(Object obj) {
+		return new Cloning().copy(obj);
+	}
+
+	/**
+	 * Creates the copy of the object when it has no elements to copy, otherwise returns NOT_REACHED.
+	 */
+	private Object copyLeaf(Object src, Cloning cloning) {
+		switch (kind) {
+			case PRIMITIVE_ARRAY:
+				return copyPrimitiveArray(src, cloning);
+			case ARRAY:
+				return sharedElements ? copySharedArray((Object[]) src, cloning) : NOT_REACHED;
+			case SHALLOW:
+				return copyShallow(src, cloning);
+			case COPIED:
+				Object copy = COPIERS.get(type).apply(src);
+				cloning.clones.put(src, copy);
+				return copy;
+			case OPAQUE:
+				throw new InitializationException(failure);
+			case SHARED:
+				return src;
+			default:
+				return NOT_REACHED;
+		}
+	}
+
+	/**
+	 * Creates the empty copy of the object when it can be created before its elements, and returns the frame of the
+	 * elements to copy.
+	 */
+	private Frame open(Object src, Cloning cloning) {
+		switch (kind) {
+			case ARRAY:
+				return openArray((Object[]) src, cloning);
+			case RECORD:
+				return openRecord(src, cloning);
+			case OPTIONAL:
+				cloning.clones.put(src, IN_PROGRESS);
+				return new Frame(this, src, null, null, new Object[]{((Optional<?>) src).orElse(null)}, new Object[1]);
+			case REFERENCE:
+				AtomicReference<Object> reference = new AtomicReference<>();
+				cloning.clones.put(src, reference);
+				return new Frame(this, src, reference, reference, new Object[]{((AtomicReference<?>) src).get()},
+						new Object[1]);
+			case COLLECTION:
+				return openCollection((Collection<?>) src, cloning);
+			case MAP:
+				return openMap((Map<?, ?>) src, cloning);
+			default:
+				return openFields(src, cloning);
+		}
+	}
+
+	/**
+	 * Fills the copy with the copied elements of the frame and returns it.
+	 */
+	@SuppressWarnings("unchecked")
+	private Object close(Frame frame, Cloning cloning) {
+		Object[] copies = frame.copies;
+		switch (kind) {
+			case RECORD:
+				Object copy = RecordPlan.of(type).newRecord(copies);
+				cloning.clones.put(frame.src, copy);
+				return copy;
+			case OPTIONAL:
+				Object optional = Optional.ofNullable(copies[0]);
+				cloning.clones.put(frame.src, optional);
+				return optional;
+			case REFERENCE:
+				((AtomicReference<Object>) frame.target).set(copies[0]);
+				return frame.copy;
+			case COLLECTION:
+				if (type == ARRAYS_LIST) {
+					List<Object> list = (List<Object>) frame.target;
+					for (int i = 0; i < copies.length; i++) {
+						list.set(i, copies[i]);
+					}
+					return frame.copy;
+				}
+				Collection<Object> collection = (Collection<Object>) frame.target;
+				for (Object element : copies) {
+					collection.add(element);
+				}
+				return frame.copy;
+			case MAP:
+				closeMap(frame);
+				return frame.copy;
+			case FIELDS:
+				try {
+					for (int i = 0; i < setters.length; i++) {
+						setters[i].invokeExact(frame.copy, copies[i]);
+					}
+				} catch (Throwable e) {
+					throw MethodHandleFieldAccessor.rethrow(e);
+				}
+				return frame.copy;
+			default:
+				return frame.copy;
+		}
+	}
+
+	private Object copyPrimitiveArray(Object src, Cloning cloning) {
+		int length = Array.getLength(src);
+		Object copy = Array.newInstance(type.getComponentType(), length);
+		System.arraycopy(src, 0, copy, 0, length);
+		cloning.clones.put(src, copy);
+		return copy;
+	}
+
+	private Object copySharedArray(Object[] src, Cloning cloning) {
+		Object[] copy = (Object[]) Array.newInstance(type.getComponentType(), src.length);
+		System.arraycopy(src, 0, copy, 0, src.length);
+		cloning.clones.put(src, copy);
+		return copy;
+	}
+
+	private Frame openArray(Object[] src, Cloning cloning) {
+		Object[] copy = (Object[]) Array.newInstance(type.getComponentType(), src.length);
+		cloning.clones.put(src, copy);
+		return new Frame(this, src, copy, copy, src, copy);
+	}
+
+	private Frame openRecord(Object src, Cloning cloning) {
+		cloning.clones.put(src, IN_PROGRESS);
+		Object[] components = RecordPlan.of(type).getComponents(src);
+		return new Frame(this, src, null, null, components, new Object[components.length]);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Frame openCollection(Collection<?> src, Cloning cloning) {
+		Collection<Object> target;
+		Object copy;
+		Comparator<?> comparator = comparator(src);
+		if (comparator != null && comparatorFactory != null) {
+			copy = target = (Collection<Object>) newInstance(comparatorFactory, comparator);
+		} else if (factory != null) {
+			copy = target = (Collection<Object>) factory.newInstance();
+		} else if (type == ARRAYS_LIST) {
+			copy = target = Arrays.asList(new Object[src.size()]);
+		} else if (src instanceof List) {
+			target = new ArrayList<>(src.size());
+			copy = Collections.unmodifiableList((List<Object>) target);
+		} else if (src instanceof Set) {
+			target = new LinkedHashSet<>();
+			copy = Collections.unmodifiableSet((Set<Object>) target);
+		} else {
+			target = new ArrayList<>(src.size());
+			copy = Collections.unmodifiableCollection(target);
+		}
+		cloning.clones.put(src, copy);
+		Object[] elements = src.toArray();
+		return new Frame(this, src, copy, target, elements, new Object[elements.length]);
+	}
+
+	/**
+	 * Opens the frame of a map, its elements are the keys and the values in turns, only the values for enum maps.
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private Frame openMap(Map<?, ?> src, Cloning cloning) {
+		if (src instanceof EnumMap) {
+			EnumMap<?, Object> copy = new EnumMap<>((EnumMap) src);
+			cloning.clones.put(src, copy);
+			Object[] values = src.values().toArray();
+			return new Frame(this, src, copy, copy, values, new Object[values.length]);
+		}
+		Map<Object, Object> target;
+		Object copy;
+		Comparator<?> comparator = src instanceof SortedMap ? ((SortedMap<?, ?>) src).comparator() : null;
+		if (comparator != null && comparatorFactory != null) {
+			copy = target = (Map<Object, Object>) newInstance(comparatorFactory, comparator);
+		} else if (cloneMethod != null) {
+			copy = target = (Map<Object, Object>) copyShallow(src, cloning);
+			target.clear();
+		} else if (factory != null) {
+			copy = target = (Map<Object, Object>) factory.newInstance();
+		} else {
+			target = new LinkedHashMap<>();
+			copy = Collections.unmodifiableMap(target);
+		}
+		cloning.clones.put(src, copy);
+		Object[] elements = new Object[src.size() * 2];
+		int i = 0;
+		for (Map.Entry<?, ?> entry : src.entrySet()) {
+			elements[i++] = entry.getKey();
+			elements[i++] = entry.getValue();
+		}
+		return new Frame(this, src, copy, target, elements, new Object[elements.length]);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void closeMap(Frame frame) {
+		Map<Object, Object> target = (Map<Object, Object>) frame.target;
+		Object[] copies = frame.copies;
+		if (target instanceof EnumMap) {
+			int i = 0;
+			for (Map.Entry<?, Object> entry : target.entrySet()) {
+				entry.setValue(copies[i++]);
+			}
+			return;
+		}
+		for (int i = 0; i < copies.length; i += 2) {
+			target.put(copies[i], copies[i + 1]);
+		}
+	}
+
+	private Frame openFields(Object src, Cloning cloning) {
+		if (failure != null) {
+			throw new InitializationException(failure);
+		}
+		Object copy = factory.newInstance();
+		cloning.clones.put(src, copy);
+		Object[] values = new Object[getters.length];
+		try {
+			primitiveCopy.invokeExact(copy, src);
+			for (int i = 0; i < getters.length; i++) {
+				values[i] = (Object) getters[i].invokeExact(src);
+			}
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+		return new Frame(this, src, copy, copy, values, new Object[values.length]);
+	}
+
+	private Object copyShallow(Object src, Cloning cloning) {
+		try {
+			Object copy = (Object) cloneMethod.invokeExact(src);
+			cloning.clones.put(src, copy);
+			return copy;
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+	}
+
+	private void initFields() {
+		MethodHandle copy = MethodHandles.empty(COPY_TYPE);
+		List<MethodHandle> fieldGetters = new ArrayList<>();
+		List<MethodHandle> fieldSetters = new ArrayList<>();
+		for (Field field : ClassMetadata.of(type).getFieldTable().getInstanceFields()) {
+			if (field.getType().isPrimitive()) {
+				MethodHandle fieldCopy = CopyPlan.fieldCopy(field, field);
+				if (fieldCopy == null) {
+					failure = inaccessible(field);
+					return;
+				}
+				copy = MethodHandles.foldArguments(copy, fieldCopy);
+			} else {
+				MethodHandle getter = MethodHandleFieldAccessor.getter(field);
+				MethodHandle setter = MethodHandleFieldAccessor.setter(field);
+				if (getter == null || setter == null) {
+					failure = inaccessible(field);
+					return;
+				}
+				fieldGetters.add(getter.asType(GETTER_TYPE));
+				fieldSetters.add(setter.asType(SETTER_TYPE));
+			}
+		}
+		primitiveCopy = copy;
+		getters = fieldGetters.toArray(MethodHandle[]::new);
+		setters = fieldSetters.toArray(MethodHandle[]::new);
+	}
+
+	private static String inaccessible(Field field) {
+		return "Can not clone " + field.getDeclaringClass().getCanonicalName() + " because its field "
+				+ field.getName() + " is not accessible";
+	}
+
+	private InstanceFactory<?> instanceFactory(Class<?> type) {
+		try {
+			return ClassMetadata.of(type).getInstanceFactory();
+		} catch (InitializationException e) {
+			failure = e.getMessage();
+			return null;
+		}
+	}
+
+	private static Kind kind(Class<?> type) {
+		if (isImmutable(type, new HashSet<>())) {
+			return Kind.SHARED;
+		}
+		if (type.isArray()) {
+			return type.getComponentType().isPrimitive() ? Kind.PRIMITIVE_ARRAY : Kind.ARRAY;
+		}
+		if (type.isRecord()) {
+			return Kind.RECORD;
+		}
+		if (type == Optional.class) {
+			return Kind.OPTIONAL;
+		}
+		if (type == AtomicReference.class) {
+			return Kind.REFERENCE;
+		}
+		if (EnumSet.class.isAssignableFrom(type)) {
+			return Kind.SHALLOW;
+		}
+		if (Collection.class.isAssignableFrom(type)) {
+			return Kind.COLLECTION;
+		}
+		if (Map.class.isAssignableFrom(type)) {
+			return Kind.MAP;
+		}
+		if (type.getModule().isOpen(type.getPackageName(), ClonePlan.class.getModule())) {
+			return Kind.FIELDS;
+		}
+		if (cloneMethod(type) != null) {
+			return Kind.SHALLOW;
+		}
+		if (COPIERS.containsKey(type)) {
+			return Kind.COPIED;
+		}
+		for (Class<?> superType : IMMUTABLE_SUPER_TYPES) {
+			if (superType.isAssignableFrom(type)) {
+				return Kind.SHARED;
+			}
+		}
+		return ClassMetadata.of(type).getFieldTable().getInstanceFields().isEmpty() ? Kind.SHARED : Kind.OPAQUE;
+	}
+
+	/**
+	 * Return whether the objects of the type are immutable. The records are immutable when the declared types of
+	 * their components are immutable.
+	 */
+	private static boolean isImmutable(Class<?> type, Set<Class<?>> visiting) {
+		if (type.isPrimitive() || type.isEnum() || type.isHidden() || IMMUTABLE_TYPES.contains(type)) {
+			return true;
+		}
+		Class<?> superType = type.getSuperclass();
+		if (superType != null && superType.isEnum()) {
+			return true;
+		}
+		if (type.getPackageName().startsWith("java.time") && Modifier.isFinal(type.getModifiers())) {
+			return true;
+		}
+		if (type.isRecord()) {
+			if (!visiting.add(type)) {
+				return true;
+			}
+			for (RecordComponent component : type.getRecordComponents()) {
+				if (!isImmutable(component.getType(), visiting)) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Return a (Comparator)Object handle of the public comparator constructor of sorted collections and maps.
+	 */
+	private static MethodHandle comparatorFactory(Class<?> type) {
+		if (!SortedSet.class.isAssignableFrom(type) && !SortedMap.class.isAssignableFrom(type)
+				&& !PriorityQueue.class.isAssignableFrom(type)) {
+			return null;
+		}
+		try {
+			return MethodHandles.publicLookup()
+					.unreflectConstructor(type.getConstructor(Comparator.class))
+					.asType(COMPARATOR_FACTORY_TYPE);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Return a (Object)Object handle of the public clone method of the type.
+	 */
+	private static MethodHandle cloneMethod(Class<?> type) {
+		if (!Cloneable.class.isAssignableFrom(type)) {
+			return null;
+		}
+		try {
+			Method method = type.getMethod("clone");
+			return MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	private static Comparator<?> comparator(Collection<?> src) {
+		if (src instanceof SortedSet) {
+			return ((SortedSet<?>) src).comparator();
+		}
+		if (src instanceof PriorityQueue) {
+			return ((PriorityQueue<?>) src).comparator();
+		}
+		return null;
+	}
+
+	private static Object newInstance(MethodHandle comparatorFactory, Comparator<?> comparator) {
+		try {
+			return (Object) comparatorFactory.invokeExact(comparator);
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+	}
+
+	/**
+	 * An object being copied: its elements to copy and the copies of the elements already copied. The copy of the
+	 * object is created when the frame is opened, a record's when it is closed, and target is the modifiable view of
+	 * the copy the elements are added to.
+	 */
+	private static final class Frame {
+		private final ClonePlan plan;
+		private final Object src;
+		private final Object copy;
+		private final Object target;
+		private final Object[] elements;
+		private final Object[] copies;
+		private int index;
+
+		private Frame(ClonePlan plan, Object src, Object copy, Object target, Object[] elements, Object[] copies) {
+			this.plan = plan;
+			this.src = src;
+			this.copy = copy;
+			this.target = target;
+			this.elements = elements;
+			this.copies = copies;
+		}
+	}
+
+	/**
+	 * State of one deep copy: the copies of the objects already reached and the frames of the objects being copied.
+	 * The frames are kept on an explicit stack, so deep graphs do not overflow the call stack.
+	 */
+	private static final class Cloning {
+		private final IdentityMap clones = new IdentityMap();
+		private final ArrayDeque<Frame> stack = new ArrayDeque<>();
+
+		private Object copy(Object root) {
+			Object copy = reached(root);
+			if (copy != NOT_REACHED) {
+				return copy;
+			}
+			Frame frame = PLANS.get(root.getClass()).open(root, this);
+			while (true) {
+				if (frame.index < frame.elements.length) {
+					Object src = frame.elements[frame.index];
+					copy = reached(src);
+					if (copy == NOT_REACHED) {
+						stack.push(frame);
+						frame = PLANS.get(src.getClass()).open(src, this);
+					} else {
+						frame.copies[frame.index++] = copy;
+					}
+					continue;
+				}
+				copy = frame.plan.close(frame, this);
+				if (stack.isEmpty()) {
+					return copy;
+				}
+				frame = stack.pop();
+				frame.copies[frame.index++] = copy;
+			}
+		}
+
+		/**
+		 * Return the copy of the object when it can be made without copying its elements, otherwise NOT_REACHED.
+		 */
+		private Object reached(Object src) {
+			if (src == null) {
+				return null;
+			}
+			ClonePlan plan = PLANS.get(src.getClass());
+			if (plan.kind == Kind.SHARED) {
+				return src;
+			}
+			Object copy = clones.get(src);
+			if (copy == IN_PROGRESS) {
+				throw new IllegalArgumentException("Can not clone " + src.getClass().getCanonicalName()
+						+ " because it references itself through its components");
+			}
+			return copy != null ? copy : plan.copyLeaf(src, this);
+		}
+	}
+}
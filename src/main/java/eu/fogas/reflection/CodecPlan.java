@@ -0,0 +1,617 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.field.FieldValueCannotChangedException;
+import eu.fogas.reflection.exception.field.FieldValueCannotReadException;
+import eu.fogas.reflection.exception.operation.CodecException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Precompiled plan encoding the objects of a class to a {@link ByteBuffer} and decoding them back.
+ * The non-static, non-transient, non-synthetic fields of the class and of its super classes are written one after
+ * the other in field table order, records in component order, with no type information:
+ * <ul>
+ *     <li>primitives with their fixed size, in the byte order of the buffer, through exact typed method handles</li>
+ *     <li>boxed primitives as a presence byte followed by the primitive value</li>
+ *     <li>strings as the int number of chars, -1 for null, followed by the chars</li>
+ *     <li>enums as the int ordinal, -1 for null</li>
+ *     <li>primitive arrays as the int length, -1 for null, followed by the elements</li>
+ *     <li>other objects as a presence byte followed by their fields, the class of the value must be the declared
+ *     type of the field and the value cannot reference the object being written</li>
+ * </ul>
+ * Other field types, like collections, maps, object arrays and the classes not open to this library, are not
+ * supported. Decoded objects are created with {@link ReflectionUtil#newInstance(Class)}, records with their canonical
+ * constructor.
+ */
+final class CodecPlan {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final Set<Class<?>> BOXED_TYPES = Set.of(Boolean.class, Byte.class, Character.class, Short.class,
+			Integer.class, Long.class, Float.class, Double.class);
+
+	private static final ClassValue<CodecPlan> PLANS = new ClassValue<>() {
+		@Override
+		protected CodecPlan computeValue(Class<?> type) {
+			return new CodecPlan(type);
+		}
+	};
+
+	/**
+	 * How a field is encoded.
+	 */
+	private enum Kind {
+		BOOLEAN, BYTE, CHAR, SHORT, INT, LONG, FLOAT, DOUBLE, BOXED, STRING, ENUM, PRIMITIVE_ARRAY, OBJECT
+	}
+
+	private final Class<?> type;
+	private final FieldCodec[] codecs;
+
+	private CodecPlan(Class<?> type) {
+		if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isArray() || type.isEnum()
+				|| !type.getModule().isOpen(type.getPackageName(), CodecPlan.class.getModule())) {
+			throw new CodecException("Cannot encode objects of " + type.getCanonicalName());
+		}
+		this.type = type;
+		List<FieldCodec> result = new ArrayList<>();
+		for (Field field : fields(type)) {
+			result.add(new FieldCodec(field, type.isRecord()));
+		}
+		this.codecs = result.toArray(FieldCodec[]::new);
+	}
+
+	/**
+	 * Return the plan of the given class.
+	 *
+	 * @param type Class object
+	 * @return the cached plan of the class
+	 * @throws CodecException when a field type is not supported.
+	 */
+	static CodecPlan of(Class<?> type) {
+		return PLANS.get(type);
+	}
+
+	/**
+	 * Writes the fields of the object at the position of the buffer. The nested objects are written from an explicit
+	 * stack, so the nesting depth is not limited by the call stack.
+	 *
+	 * @param obj    the object to encode, an instance of the class of the plan
+	 * @param buffer the buffer to write to
+	 * @throws CodecException                   when the object references itself through its fields.
+	 * @throws java.nio.BufferOverflowException when the buffer is too small, the position is then undefined.
+	 */
+	void encode(Object obj, ByteBuffer buffer) {
+		IdentityMap path = new IdentityMap();
+		ArrayDeque<Frame> stack = new ArrayDeque<>();
+		Frame frame = new Frame(this, obj, null);
+		path.put(obj, frame);
+		try {
+			while (true) {
+				if (frame.index < frame.plan.codecs.length) {
+					FieldCodec codec = frame.plan.codecs[frame.index++];
+					if (codec.kind != Kind.OBJECT) {
+						codec.write(frame.obj, buffer);
+						continue;
+					}
+					Object value = codec.writeObject(frame.obj, buffer);
+					if (value != null) {
+						if (path.get(value) != null) {
+							throw new CodecException(String.format("Cannot encode %s because it references itself "
+									+ "through %s", value.getClass().getCanonicalName(), codec.field));
+						}
+						stack.push(frame);
+						frame = new Frame(PLANS.get(value.getClass()), value, null);
+						path.put(value, frame);
+					}
+					continue;
+				}
+				path.put(frame.obj, null);
+				if (stack.isEmpty()) {
+					return;
+				}
+				frame = stack.pop();
+			}
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+	}
+
+	/**
+	 * Reads an object from the position of the buffer. The nested objects are read from an explicit stack, so the
+	 * nesting depth is not limited by the call stack.
+	 *
+	 * @param buffer the buffer to read from
+	 * @return the decoded object
+	 * @throws java.nio.BufferUnderflowException when the buffer holds less than an object.
+	 */
+	Object decode(ByteBuffer buffer) {
+		ArrayDeque<Frame> stack = new ArrayDeque<>();
+		Frame frame = open();
+		try {
+			while (true) {
+				if (frame.index < frame.plan.codecs.length) {
+					FieldCodec codec = frame.plan.codecs[frame.index];
+					if (codec.kind != Kind.OBJECT) {
+						frame.read(codec, buffer);
+					} else if (buffer.get() == 0) {
+						frame.set(codec, null);
+					} else {
+						stack.push(frame);
+						frame = PLANS.get(codec.field.getType()).open();
+					}
+					continue;
+				}
+				Object result = frame.close();
+				if (stack.isEmpty()) {
+					return result;
+				}
+				frame = stack.pop();
+				frame.set(frame.plan.codecs[frame.index], result);
+			}
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+	}
+
+	/**
+	 * Return the frame of a decoded object, records collect their components before they are created.
+	 */
+	private Frame open() {
+		if (type.isRecord()) {
+			return new Frame(this, null, new Object[codecs.length]);
+		}
+		return new Frame(this, ReflectionUtil.newInstance(type), null);
+	}
+
+	private static List<Field> fields(Class<?> type) {
+		List<Field> result = new ArrayList<>();
+		if (type.isRecord()) {
+			for (RecordComponent component : type.getRecordComponents()) {
+				result.add(ReflectionUtil.getDeclaredField(type, component.getName()));
+			}
+			return result;
+		}
+		for (Field field : ClassMetadata.of(type).getFieldTable().getInstanceFields()) {
+			if (!field.isSynthetic() && !Modifier.isTransient(field.getModifiers())) {
+				result.add(field);
+			}
+		}
+		return result;
+	}
+
+	private static Kind kind(Class<?> type) {
+		if (type.isPrimitive()) {
+			return Kind.valueOf(type.getName().toUpperCase());
+		}
+		if (BOXED_TYPES.contains(type)) {
+			return Kind.BOXED;
+		}
+		if (type == String.class) {
+			return Kind.STRING;
+		}
+		if (type.isEnum()) {
+			return Kind.ENUM;
+		}
+		if (type.isArray() && type.getComponentType().isPrimitive()) {
+			return Kind.PRIMITIVE_ARRAY;
+		}
+		if (type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())
+				|| !type.getModule().isOpen(type.getPackageName(), CodecPlan.class.getModule())) {
+			return null;
+		}
+		return Kind.OBJECT;
+	}
+
+	/**
+	 * Encodes and decodes one field.
+	 */
+	private static final class FieldCodec {
+		private final Field field;
+		private final Kind kind;
+		private final Kind valueKind;
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+		private final Object[] constants;
+
+		FieldCodec(Field field, boolean record) {
+			this.field = field;
+			Class<?> fieldType = field.getType();
+			this.kind = kind(fieldType);
+			if (kind == null) {
+				throw new CodecException(String.format("Cannot encode %s of type %s", field,
+						fieldType.getCanonicalName()));
+			}
+			if (kind == Kind.BOXED) {
+				this.valueKind = kind(MethodType.methodType(fieldType).unwrap().returnType());
+			} else if (kind == Kind.PRIMITIVE_ARRAY) {
+				this.valueKind = kind(fieldType.getComponentType());
+			} else {
+				this.valueKind = kind;
+			}
+			this.constants = kind == Kind.ENUM ? fieldType.getEnumConstants() : null;
+			MethodHandle typedGetter = MethodHandleFieldAccessor.getter(field);
+			if (typedGetter == null) {
+				throw new FieldValueCannotReadException(field);
+			}
+			MethodHandle typedSetter = record ? null : MethodHandleFieldAccessor.setter(field);
+			if (fieldType.isPrimitive()) {
+				this.getter = typedGetter;
+				this.setter = typedSetter;
+			} else {
+				this.getter = typedGetter.asType(GETTER_TYPE);
+				this.setter = typedSetter == null ? null : typedSetter.asType(SETTER_TYPE);
+			}
+		}
+
+		void write(Object obj, ByteBuffer buffer) throws Throwable {
+			switch (kind) {
+				case BOOLEAN:
+					buffer.put((boolean) getter.invokeExact(obj) ? (byte) 1 : (byte) 0);
+					break;
+				case BYTE:
+					buffer.put((byte) getter.invokeExact(obj));
+					break;
+				case CHAR:
+					buffer.putChar((char) getter.invokeExact(obj));
+					break;
+				case SHORT:
+					buffer.putShort((short) getter.invokeExact(obj));
+					break;
+				case INT:
+					buffer.putInt((int) getter.invokeExact(obj));
+					break;
+				case LONG:
+					buffer.putLong((long) getter.invokeExact(obj));
+					break;
+				case FLOAT:
+					buffer.putFloat((float) getter.invokeExact(obj));
+					break;
+				case DOUBLE:
+					buffer.putDouble((double) getter.invokeExact(obj));
+					break;
+				default:
+					writeReference((Object) getter.invokeExact(obj), buffer);
+					break;
+			}
+		}
+
+		void read(Object obj, ByteBuffer buffer) throws Throwable {
+			if (setter == null) {
+				throw new FieldValueCannotChangedException(field, null);
+			}
+			switch (kind) {
+				case BOOLEAN:
+					setter.invokeExact(obj, buffer.get() != 0);
+					break;
+				case BYTE:
+					setter.invokeExact(obj, buffer.get());
+					break;
+				case CHAR:
+					setter.invokeExact(obj, buffer.getChar());
+					break;
+				case SHORT:
+					setter.invokeExact(obj, buffer.getShort());
+					break;
+				case INT:
+					setter.invokeExact(obj, buffer.getInt());
+					break;
+				case LONG:
+					setter.invokeExact(obj, buffer.getLong());
+					break;
+				case FLOAT:
+					setter.invokeExact(obj, buffer.getFloat());
+					break;
+				case DOUBLE:
+					setter.invokeExact(obj, buffer.getDouble());
+					break;
+				default:
+					setter.invokeExact(obj, readReference(buffer));
+					break;
+			}
+		}
+
+		/**
+		 * Reads the value of the field boxed, for the record components.
+		 */
+		Object readValue(ByteBuffer buffer) {
+			return kind.ordinal() <= Kind.DOUBLE.ordinal() ? readPrimitive(kind, buffer) : readReference(buffer);
+		}
+
+		private void writeReference(Object value, ByteBuffer buffer) {
+			switch (kind) {
+				case STRING:
+					writeString((String) value, buffer);
+					break;
+				case ENUM:
+					buffer.putInt(value == null ? -1 : ((Enum<?>) value).ordinal());
+					break;
+				case PRIMITIVE_ARRAY:
+					writeArray(valueKind, value, buffer);
+					break;
+				default:
+					buffer.put(value == null ? (byte) 0 : (byte) 1);
+					if (value != null) {
+						writePrimitive(valueKind, value, buffer);
+					}
+					break;
+			}
+		}
+
+		/**
+		 * Writes the presence byte of an object field and returns the value to encode next, null when it is null.
+		 */
+		Object writeObject(Object obj, ByteBuffer buffer) throws Throwable {
+			Object value = (Object) getter.invokeExact(obj);
+			buffer.put(value == null ? (byte) 0 : (byte) 1);
+			if (value != null && value.getClass() != field.getType()) {
+				throw new CodecException(String.format("Cannot encode %s of %s, only %s is supported",
+						value.getClass().getCanonicalName(), field, field.getType().getCanonicalName()));
+			}
+			return value;
+		}
+
+		/**
+		 * Sets the decoded value of an object field.
+		 */
+		void set(Object obj, Object value) throws Throwable {
+			if (setter == null) {
+				throw new FieldValueCannotChangedException(field, null);
+			}
+			setter.invokeExact(obj, value);
+		}
+
+		private Object readReference(ByteBuffer buffer) {
+			switch (kind) {
+				case STRING:
+					return readString(buffer);
+				case ENUM:
+					int ordinal = buffer.getInt();
+					return ordinal < 0 ? null : constants[ordinal];
+				case PRIMITIVE_ARRAY:
+					return readArray(valueKind, buffer);
+				default:
+					return buffer.get() == 0 ? null : readPrimitive(valueKind, buffer);
+			}
+		}
+	}
+
+	/**
+	 * An object being encoded or decoded and the index of its next field. A decoded record collects its components
+	 * and is created when it is closed.
+	 */
+	private static final class Frame {
+		private final CodecPlan plan;
+		private final Object obj;
+		private final Object[] components;
+		private int index;
+
+		private Frame(CodecPlan plan, Object obj, Object[] components) {
+			this.plan = plan;
+			this.obj = obj;
+			this.components = components;
+		}
+
+		private void read(FieldCodec codec, ByteBuffer buffer) throws Throwable {
+			if (components != null) {
+				components[index] = codec.readValue(buffer);
+			} else {
+				codec.read(obj, buffer);
+			}
+			index++;
+		}
+
+		private void set(FieldCodec codec, Object value) throws Throwable {
+			if (components != null) {
+				components[index] = value;
+			} else {
+				codec.set(obj, value);
+			}
+			index++;
+		}
+
+		private Object close() {
+			return components != null ? RecordPlan.of(plan.type).newRecord(components) : obj;
+		}
+	}
+
+	private static void writePrimitive(Kind kind, Object value, ByteBuffer buffer) {
+		switch (kind) {
+			case BOOLEAN:
+				buffer.put((Boolean) value ? (byte) 1 : (byte) 0);
+				break;
+			case BYTE:
+				buffer.put((Byte) value);
+				break;
+			case CHAR:
+				buffer.putChar((Character) value);
+				break;
+			case SHORT:
+				buffer.putShort((Short) value);
+				break;
+			case INT:
+				buffer.putInt((Integer) value);
+				break;
+			case LONG:
+				buffer.putLong((Long) value);
+				break;
+			case FLOAT:
+				buffer.putFloat((Float) value);
+				break;
+			default:
+				buffer.putDouble((Double) value);
+				break;
+		}
+	}
+
+	private static Object readPrimitive(Kind kind, ByteBuffer buffer) {
+		switch (kind) {
+			case BOOLEAN:
+				return buffer.get() != 0;
+			case BYTE:
+				return buffer.get();
+			case CHAR:
+				return buffer.getChar();
+			case SHORT:
+				return buffer.getShort();
+			case INT:
+				return buffer.getInt();
+			case LONG:
+				return buffer.getLong();
+			case FLOAT:
+				return buffer.getFloat();
+			default:
+				return buffer.getDouble();
+		}
+	}
+
+	private static void writeString(String value, ByteBuffer buffer) {
+		if (value == null) {
+			buffer.putInt(-1);
+			return;
+		}
+		int length = value.length();
+		buffer.putInt(length);
+		for (int i = 0; i < length; i++) {
+			buffer.putChar(value.charAt(i));
+		}
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = buffer.getChar();
+		}
+		return new String(chars);
+	}
+
+	private static void writeArray(Kind kind, Object array, ByteBuffer buffer) {
+		if (array == null) {
+			buffer.putInt(-1);
+			return;
+		}
+		switch (kind) {
+			case BOOLEAN:
+				boolean[] booleans = (boolean[]) array;
+				buffer.putInt(booleans.length);
+				for (boolean value : booleans) {
+					buffer.put(value ? (byte) 1 : (byte) 0);
+				}
+				break;
+			case BYTE:
+				byte[] bytes = (byte[]) array;
+				buffer.putInt(bytes.length);
+				buffer.put(bytes);
+				break;
+			case CHAR:
+				char[] chars = (char[]) array;
+				buffer.putInt(chars.length);
+				for (char value : chars) {
+					buffer.putChar(value);
+				}
+				break;
+			case SHORT:
+				short[] shorts = (short[]) array;
+				buffer.putInt(shorts.length);
+				for (short value : shorts) {
+					buffer.putShort(value);
+				}
+				break;
+			case INT:
+				int[] ints = (int[]) array;
+				buffer.putInt(ints.length);
+				for (int value : ints) {
+					buffer.putInt(value);
+				}
+				break;
+			case LONG:
+				long[] longs = (long[]) array;
+				buffer.putInt(longs.length);
+				for (long value : longs) {
+					buffer.putLong(value);
+				}
+				break;
+			case FLOAT:
+				float[] floats = (float[]) array;
+				buffer.putInt(floats.length);
+				for (float value : floats) {
+					buffer.putFloat(value);
+				}
+				break;
+			default:
+				double[] doubles = (double[]) array;
+				buffer.putInt(doubles.length);
+				for (double value : doubles) {
+					buffer.putDouble(value);
+				}
+				break;
+		}
+	}
+
+	private static Object readArray(Kind kind, ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		switch (kind) {
+			case BOOLEAN:
+				boolean[] booleans = new boolean[length];
+				for (int i = 0; i < length; i++) {
+					booleans[i] = buffer.get() != 0;
+				}
+				return booleans;
+			case BYTE:
+				byte[] bytes = new byte[length];
+				buffer.get(bytes);
+				return bytes;
+			case CHAR:
+				char[] chars = new char[length];
+				for (int i = 0; i < length; i++) {
+					chars[i] = buffer.getChar();
+				}
+				return chars;
+			case SHORT:
+				short[] shorts = new short[length];
+				for (int i = 0; i < length; i++) {
+					shorts[i] = buffer.getShort();
+				}
+				return shorts;
+			case INT:
+				int[] ints = new int[length];
+				for (int i = 0; i < length; i++) {
+					ints[i] = buffer.getInt();
+				}
+				return ints;
+			case LONG:
+				long[] longs = new long[length];
+				for (int i = 0; i < length; i++) {
+					longs[i] = buffer.getLong();
+				}
+				return longs;
+			case FLOAT:
+				float[] floats = new float[length];
+				for (int i = 0; i < length; i++) {
+					floats[i] = buffer.getFloat();
+				}
+				return floats;
+			default:
+				double[] doubles = new double[length];
+				for (int i = 0; i < length; i++) {
+					doubles[i] = buffer.getDouble();
+				}
+				return doubles;
+		}
+	}
+}
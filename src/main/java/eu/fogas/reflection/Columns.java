@@ -0,0 +1,188 @@
+package eu.fogas.reflection;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Reads and writes one field of many objects with a single resolved {@link FieldAccessor}.
+ * Primitive fields are copied through the typed accessor methods into and from primitive arrays, so the values are
+ * not boxed. In parallel mode the objects are split into ranges processed on the common ForkJoinPool.
+ */
+final class Columns {
+
+	/**
+	 * The minimum number of objects per parallel range, smaller inputs are processed on the calling thread.
+	 */
+	static final int PARALLEL_THRESHOLD = 8192;
+
+	private Columns() {
+	}
+
+	/**
+	 * Reads the field of every object into a new array of the field type.
+	 *
+	 * @param objects  the objects to read, all of them holding the field of the accessor
+	 * @param accessor the accessor of the field
+	 * @param parallel true to split large inputs across cores
+	 * @return array of the field type with the values in list order
+	 */
+	static Object read(List<?> objects, FieldAccessor<Object, Object> accessor, boolean parallel) {
+		List<?> items = randomAccess(objects);
+		Class<?> type = accessor.getField().getType();
+		Object column = Array.newInstance(type, items.size());
+		forEachRange(items.size(), parallel, (from, to) -> read(items, accessor, type, column, from, to));
+		return column;
+	}
+
+	/**
+	 * Sets the field of every object from the array of values.
+	 *
+	 * @param objects  the objects to modify, all of them holding the field of the accessor
+	 * @param accessor the accessor of the field
+	 * @param values   array of values in list order, a primitive array of the field type for primitive fields
+	 * @param parallel true to split large inputs across cores
+	 * @throws IllegalArgumentException if the values are not an array of the right type and length.
+	 */
+	static void write(List<?> objects, FieldAccessor<Object, Object> accessor, Object values, boolean parallel) {
+		List<?> items = randomAccess(objects);
+		Class<?> type = accessor.getField().getType();
+		Class<?> valuesType = values.getClass();
+		if (!valuesType.isArray() || (type.isPrimitive() || valuesType.getComponentType().isPrimitive())
+				&& valuesType.getComponentType() != type) {
+			throw new IllegalArgumentException(String.format("Cannot write %s values to %s",
+					valuesType.getCanonicalName(), accessor.getField()));
+		}
+		if (Array.getLength(values) != items.size()) {
+			throw new IllegalArgumentException(String.format("Cannot write %d values to %d objects",
+					Array.getLength(values), items.size()));
+		}
+		forEachRange(items.size(), parallel, (from, to) -> write(items, accessor, type, values, from, to));
+	}
+
+	private static void read(List<?> items, FieldAccessor<Object, Object> accessor, Class<?> type, Object column,
+			int from, int to) {
+		if (type == int.class) {
+			int[] values = (int[]) column;
+			for (int i = from; i < to; i++) {
+				values[i] = accessor.getInt(items.get(i));
+			}
+		} else if (type == long.class) {
+			long[] values = (long[]) column;
+			for (int i = from; i < to; i++) {
+				values[i] = accessor.getLong(items.get(i));
+			}
+		} else if (type == double.class) {
+			double[] values = (double[]) column;
+			for (int i = from; i < to; i++) {
+				values[i] = accessor.getDouble(items.get(i));
+			}
+		} else if (type == boolean.class) {
+			boolean[] values = (boolean[]) column;
+			for (int i = from; i < to; i++) {
+				values[i] = accessor.getBoolean(items.get(i));
+			}
+		} else if (type == byte.class) {
+			byte[] values = (byte[]) column;
+			for (int i = from; i < to; i++) {
+				values[i] = accessor.getByte(items.get(i));
+			}
+		} else if (type == char.class) {
+			char[] values = (char[]) column;
+			for (int i = from; i < to; i++) {
+				values[i] = accessor.getChar(items.get(i));
+			}
+		} else if (type == short.class) {
+			short[] values = (short[]) column;
+			for (int i = from; i < to; i++) {
+				values[i] = accessor.getShort(items.get(i));
+			}
+		} else if (type == float.class) {
+			float[] values = (float[]) column;
+			for (int i = from; i < to; i++) {
+				values[i] = accessor.getFloat(items.get(i));
+			}
+		} else {
+			Object[] values = (Object[]) column;
+			for (int i = from; i < to; i++) {
+				values[i] = accessor.get(items.get(i));
+			}
+		}
+	}
+
+	private static void write(List<?> items, FieldAccessor<Object, Object> accessor, Class<?> type, Object column,
+			int from, int to) {
+		if (type == int.class) {
+			int[] values = (int[]) column;
+			for (int i = from; i < to; i++) {
+				accessor.setInt(items.get(i), values[i]);
+			}
+		} else if (type == long.class) {
+			long[] values = (long[]) column;
+			for (int i = from; i < to; i++) {
+				accessor.setLong(items.get(i), values[i]);
+			}
+		} else if (type == double.class) {
+			double[] values = (double[]) column;
+			for (int i = from; i < to; i++) {
+				accessor.setDouble(items.get(i), values[i]);
+			}
+		} else if (type == boolean.class) {
+			boolean[] values = (boolean[]) column;
+			for (int i = from; i < to; i++) {
+				accessor.setBoolean(items.get(i), values[i]);
+			}
+		} else if (type == byte.class) {
+			byte[] values = (byte[]) column;
+			for (int i = from; i < to; i++) {
+				accessor.setByte(items.get(i), values[i]);
+			}
+		} else if (type == char.class) {
+			char[] values = (char[]) column;
+			for (int i = from; i < to; i++) {
+				accessor.setChar(items.get(i), values[i]);
+			}
+		} else if (type == short.class) {
+			short[] values = (short[]) column;
+			for (int i = from; i < to; i++) {
+				accessor.setShort(items.get(i), values[i]);
+			}
+		} else if (type == float.class) {
+			float[] values = (float[]) column;
+			for (int i = from; i < to; i++) {
+				accessor.setFloat(items.get(i), values[i]);
+			}
+		} else {
+			Object[] values = (Object[]) column;
+			for (int i = from; i < to; i++) {
+				accessor.set(items.get(i), values[i]);
+			}
+		}
+	}
+
+	/**
+	 * Runs the task on the whole range, or on ranges of at least {@link #PARALLEL_THRESHOLD} elements in parallel.
+	 */
+	private static void forEachRange(int size, boolean parallel, RangeTask task) {
+		int ranges = parallel ? Math.min(size / PARALLEL_THRESHOLD, ForkJoinPool.getCommonPoolParallelism() * 4) : 1;
+		if (ranges <= 1) {
+			task.run(0, size);
+		} else {
+			IntStream.range(0, ranges).parallel()
+					.forEach(range -> task.run((int) ((long) size * range / ranges),
+							(int) ((long) size * (range + 1) / ranges)));
+		}
+	}
+
+	private static List<?> randomAccess(List<?> objects) {
+		return objects instanceof RandomAccess ? objects : Arrays.asList(objects.toArray());
+	}
+
+	@FunctionalInterface
+	private interface RangeTask {
+		void run(int from, int to);
+	}
+}
@@ -0,0 +1,224 @@
+package eu.fogas.reflection;
+
+import java.lang.ref.WeakReference;
+import java.util.function.Function;
+
+/**
+ * Constructor invokers of a class keyed by the runtime classes of the constructor arguments.
+ * The table is an open addressing hash table which is replaced on every insert, so lookups need neither locking
+ * nor a key object: the runtime classes of the arguments are hashed and compared in place.
+ * The argument classes are weakly referenced, so the cache does not keep their class loaders from unloading.
+ * The number of entries is bounded: when the cache is full, an entry is evicted with the CLOCK policy of
+ * {@link ClockCache}.
+ */
+final class ConstructorCache {
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	private final int maxSize;
+	private volatile Entry[] table = new Entry[INITIAL_CAPACITY];
+	private int size;
+	private int hand;
+
+	ConstructorCache(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Cache capacity must be positive but was " + maxSize);
+		}
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Return the cached entry matching the runtime classes of the arguments.
+	 *
+	 * @param args the constructor arguments
+	 * @return the cached entry or null when the argument classes were not resolved yet
+	 */
+	Entry get(Object[] args) {
+		int hash = hash(args);
+		Entry[] tab = table;
+		int mask = tab.length - 1;
+		for (int i = hash & mask; ; i = (i + 1) & mask) {
+			Entry entry = tab[i];
+			if (entry == null) {
+				return null;
+			}
+			if (entry.hash == hash && entry.matches(args)) {
+				if (!entry.referenced) {
+					entry.referenced = true;
+				}
+				return entry;
+			}
+		}
+	}
+
+	/**
+	 * Stores the resolved constructor invoker for the runtime classes of the arguments.
+	 *
+	 * @param argTypes the runtime classes of the constructor arguments, null for null arguments
+	 * @param invoker  the invoker of the matching constructor or null when no constructor matches
+	 * @return the stored entry
+	 */
+	synchronized Entry put(Class<?>[] argTypes, Function<Object[], ?> invoker) {
+		Entry existing = find(argTypes);
+		if (existing != null) {
+			return existing;
+		}
+		Entry entry = new Entry(argTypes, invoker);
+		Entry[] tab = table;
+		Entry victim = null;
+		if (size == maxSize) {
+			victim = victim(tab);
+			size--;
+			ReflectionMetrics.cacheEviction();
+		}
+		int capacity = (size + 1) * 2 > tab.length ? tab.length * 2 : tab.length;
+		Entry[] newTable = new Entry[capacity];
+		for (Entry e : tab) {
+			if (e != null && e != victim) {
+				insert(newTable, e);
+			}
+		}
+		insert(newTable, entry);
+		size++;
+		table = newTable;
+		return entry;
+	}
+
+	/**
+	 * Return the number of cached entries.
+	 *
+	 * @return the number of cached entries
+	 */
+	synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Return the cached entry of the argument classes.
+	 *
+	 * @param argTypes the runtime classes of the constructor arguments, null for null arguments
+	 * @return the cached entry or null when the argument classes were not resolved yet
+	 */
+	synchronized Entry find(Class<?>[] argTypes) {
+		int hash = hash(argTypes);
+		Entry[] tab = table;
+		int mask = tab.length - 1;
+		for (int i = hash & mask; ; i = (i + 1) & mask) {
+			Entry entry = tab[i];
+			if (entry == null || entry.hash == hash && entry.matches(argTypes)) {
+				return entry;
+			}
+		}
+	}
+
+	/**
+	 * Return the runtime classes of the arguments.
+	 *
+	 * @param args the constructor arguments
+	 * @return the runtime classes of the arguments, null for null arguments
+	 */
+	static Class<?>[] argTypes(Object[] args) {
+		Class<?>[] argTypes = new Class<?>[args.length];
+		for (int i = 0; i < args.length; i++) {
+			argTypes[i] = args[i] == null ? null : args[i].getClass();
+		}
+		return argTypes;
+	}
+
+	/**
+	 * Moves the clock hand to the first entry not used since the hand passed it last time, the used entries passed
+	 * by the hand get their second chance.
+	 */
+	private Entry victim(Entry[] tab) {
+		while (true) {
+			Entry e = tab[hand % tab.length];
+			hand = (hand + 1) % tab.length;
+			if (e != null) {
+				if (!e.referenced) {
+					return e;
+				}
+				e.referenced = false;
+			}
+		}
+	}
+
+	private static void insert(Entry[] tab, Entry entry) {
+		int mask = tab.length - 1;
+		int i = entry.hash & mask;
+		while (tab[i] != null) {
+			i = (i + 1) & mask;
+		}
+		tab[i] = entry;
+	}
+
+	private static int hash(Object[] args) {
+		int h = args.length;
+		for (Object arg : args) {
+			h = 31 * h + (arg == null ? 0 : arg.getClass().hashCode());
+		}
+		return h ^ (h >>> 16);
+	}
+
+	private static int hash(Class<?>[] argTypes) {
+		int h = argTypes.length;
+		for (Class<?> argType : argTypes) {
+			h = 31 * h + (argType == null ? 0 : argType.hashCode());
+		}
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Resolved constructor of an argument class signature, null argument classes stand for null arguments.
+	 * An entry whose argument class was unloaded matches no arguments any more.
+	 */
+	static final class Entry {
+		private final WeakReference<?>[] argTypes;
+		private final int hash;
+		private final Function<Object[], ?> invoker;
+		private volatile boolean referenced;
+
+		private Entry(Class<?>[] types, Function<Object[], ?> invoker) {
+			this.argTypes = new WeakReference<?>[types.length];
+			for (int i = 0; i < types.length; i++) {
+				argTypes[i] = types[i] == null ? null : new WeakReference<>(types[i]);
+			}
+			this.hash = hash(types);
+			this.invoker = invoker;
+		}
+
+		/**
+		 * Return the invoker of the matching constructor.
+		 *
+		 * @return the constructor invoker or null when no constructor matches the argument classes
+		 */
+		Function<Object[], ?> getInvoker() {
+			return invoker;
+		}
+
+		private boolean matches(Object[] args) {
+			if (argTypes.length != args.length) {
+				return false;
+			}
+			for (int i = 0; i < args.length; i++) {
+				Object arg = args[i];
+				WeakReference<?> argType = argTypes[i];
+				if (argType == null ? arg != null : arg == null || argType.get() != arg.getClass()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean matches(Class<?>[] types) {
+			if (argTypes.length != types.length) {
+				return false;
+			}
+			for (int i = 0; i < types.length; i++) {
+				if ((argTypes[i] == null ? null : argTypes[i].get()) != types[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
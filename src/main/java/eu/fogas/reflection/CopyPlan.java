@@ -0,0 +1,159 @@
+package eu.fogas.reflection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precompiled plan copying the matching fields of a source class to a target class.
+ * The field copies are composed into a single method handle, so a copy runs as straight-line code without boxing
+ * once the JIT has compiled it.
+ */
+final class CopyPlan {
+
+	private static final MethodType COPY_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	/**
+	 * Plans of the class as the source, keyed by the targets its class loader sees.
+	 */
+	private static final ClassValue<Map<Class<?>, CopyPlan>> BY_SOURCE = new ClassValue<>() {
+		@Override
+		protected Map<Class<?>, CopyPlan> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/**
+	 * Plans of the class as the target, keyed by the sources its class loader sees.
+	 */
+	private static final ClassValue<Map<Class<?>, CopyPlan>> BY_TARGET = new ClassValue<>() {
+		@Override
+		protected Map<Class<?>, CopyPlan> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/**
+	 * Plans of the class as the source, keyed by the targets of unrelated class loaders. Both the targets and the
+	 * plans are weakly referenced, as a plan references its target.
+	 */
+	private static final ClassValue<Map<Class<?>, WeakReference<CopyPlan>>> UNRELATED = new ClassValue<>() {
+		@Override
+		protected Map<Class<?>, WeakReference<CopyPlan>> computeValue(Class<?> type) {
+			return Collections.synchronizedMap(new WeakHashMap<>());
+		}
+	};
+
+	private final MethodHandle copy;
+
+	private CopyPlan(Class<?> sourceType, Class<?> targetType) {
+		Map<String, Field> sourceFields = fieldsByName(sourceType);
+		MethodHandle result = MethodHandles.empty(COPY_TYPE);
+		for (Field targetField : fieldsByName(targetType).values()) {
+			Field sourceField = sourceFields.get(targetField.getName());
+			if (ReflectionUtil.isFinal(targetField) || sourceField == null || !matches(sourceField, targetField)) {
+				continue;
+			}
+			MethodHandle fieldCopy = fieldCopy(sourceField, targetField);
+			if (fieldCopy != null) {
+				result = MethodHandles.foldArguments(result, fieldCopy);
+			}
+		}
+		this.copy = result;
+	}
+
+	/**
+	 * Return the plan of the given source and target classes. A plan references both classes, so it is attached to
+	 * the class whose class loader sees the other one, and never keeps a class of a child or unrelated class loader,
+	 * like a plugin class, from unloading.
+	 *
+	 * @param sourceType Class object of the source
+	 * @param targetType Class object of the target
+	 * @return the cached plan
+	 */
+	static CopyPlan of(Class<?> sourceType, Class<?> targetType) {
+		if (sees(sourceType, targetType)) {
+			return BY_SOURCE.get(sourceType).computeIfAbsent(targetType, type -> new CopyPlan(sourceType, type));
+		}
+		if (sees(targetType, sourceType)) {
+			return BY_TARGET.get(targetType).computeIfAbsent(sourceType, type -> new CopyPlan(type, targetType));
+		}
+		Map<Class<?>, WeakReference<CopyPlan>> plans = UNRELATED.get(sourceType);
+		WeakReference<CopyPlan> cached = plans.get(targetType);
+		CopyPlan plan = cached == null ? null : cached.get();
+		if (plan == null) {
+			plan = new CopyPlan(sourceType, targetType);
+			plans.put(targetType, new WeakReference<>(plan));
+		}
+		return plan;
+	}
+
+	/**
+	 * Return true when the class loader of the other class is the class loader of the type or one of its ancestors.
+	 */
+	private static boolean sees(Class<?> type, Class<?> other) {
+		ClassLoader otherLoader = other.getClassLoader();
+		if (otherLoader == null) {
+			return true;
+		}
+		for (ClassLoader loader = type.getClassLoader(); loader != null; loader = loader.getParent()) {
+			if (loader == otherLoader) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Copies the matching fields of the source object to the target object.
+	 *
+	 * @param source the object to copy from
+	 * @param target the object to copy to
+	 */
+	void copy(Object source, Object target) {
+		try {
+			copy.invokeExact(target, source);
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+	}
+
+	private static Map<String, Field> fieldsByName(Class<?> type) {
+		Map<String, Field> result = new LinkedHashMap<>();
+		for (Field field : ClassMetadata.of(type).getFieldTable().getInstanceFields()) {
+			if (!field.isSynthetic()) {
+				result.putIfAbsent(field.getName(), field);
+			}
+		}
+		return result;
+	}
+
+	private static boolean matches(Field sourceField, Field targetField) {
+		Class<?> sourceType = sourceField.getType();
+		Class<?> targetType = targetField.getType();
+		if (sourceType.isPrimitive() || targetType.isPrimitive()) {
+			return sourceType == targetType;
+		}
+		return targetType.isAssignableFrom(sourceType);
+	}
+
+	/**
+	 * Return a (target, source)void handle copying one field or null when either field is not accessible.
+	 */
+	static MethodHandle fieldCopy(Field sourceField, Field targetField) {
+		MethodHandle getter = MethodHandleFieldAccessor.getter(sourceField);
+		MethodHandle setter = MethodHandleFieldAccessor.setter(targetField);
+		if (getter == null || setter == null) {
+			return null;
+		}
+		setter = setter.asType(MethodType.methodType(void.class, Object.class, sourceField.getType()));
+		return MethodHandles.collectArguments(setter, 1, getter);
+	}
+}
@@ -0,0 +1,127 @@
+package eu.fogas.reflection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Precompiled plan comparing two objects of a class field by field.
+ * The plan covers the non-static, non-synthetic fields of the class and of its super classes, in field table order,
+ * the index of a field in the plan is its index in the {@link ChangeSet}. When a field hides a field of a super class
+ * only the field of the subclass is compared, as with {@link ReflectionUtil#getDeclaredField}.
+ * Primitive fields are compared through method handles without boxing, reference fields with
+ * {@link Objects#deepEquals(Object, Object)}.
+ */
+final class DiffPlan {
+
+	private static final ClassValue<DiffPlan> PLANS = new ClassValue<>() {
+		@Override
+		protected DiffPlan computeValue(Class<?> type) {
+			return new DiffPlan(type);
+		}
+	};
+
+	private final List<String> names;
+	private final FieldAccessor<Object, Object>[] accessors;
+	private final MethodHandle[] primitiveEquals;
+
+	@SuppressWarnings("unchecked")
+	private DiffPlan(Class<?> type) {
+		List<Field> fields = new ArrayList<>();
+		Set<String> seen = new HashSet<>();
+		for (Field field : ClassMetadata.of(type).getFieldTable().getInstanceFields()) {
+			if (!field.isSynthetic() && seen.add(field.getName())) {
+				fields.add(field);
+			}
+		}
+		List<String> fieldNames = new ArrayList<>(fields.size());
+		this.accessors = new FieldAccessor[fields.size()];
+		this.primitiveEquals = new MethodHandle[fields.size()];
+		for (int i = 0; i < fields.size(); i++) {
+			Field field = fields.get(i);
+			fieldNames.add(field.getName());
+			accessors[i] = ReflectionUtil.accessor(type, field.getName());
+			if (field.getType().isPrimitive()) {
+				MethodHandle getter = MethodHandleFieldAccessor.getter(field);
+				if (getter != null) {
+					primitiveEquals[i] = EqualsPlan.primitiveEquals(field.getType(), getter);
+				}
+			}
+		}
+		this.names = List.copyOf(fieldNames);
+	}
+
+	/**
+	 * Return the plan of the given class.
+	 *
+	 * @param type Class object
+	 * @return the cached plan of the class
+	 */
+	static DiffPlan of(Class<?> type) {
+		return PLANS.get(type);
+	}
+
+	/**
+	 * Compares the fields of the two objects.
+	 *
+	 * @param oldValue the old snapshot
+	 * @param newValue the new snapshot
+	 * @return the indices of the fields which differ
+	 */
+	BitSet diff(Object oldValue, Object newValue) {
+		BitSet changed = new BitSet(names.size());
+		for (int i = 0; i < accessors.length; i++) {
+			if (!equal(i, oldValue, newValue)) {
+				changed.set(i);
+			}
+		}
+		return changed;
+	}
+
+	private boolean equal(int index, Object oldValue, Object newValue) {
+		MethodHandle equals = primitiveEquals[index];
+		if (equals == null) {
+			return Objects.deepEquals(accessors[index].get(oldValue), accessors[index].get(newValue));
+		}
+		try {
+			return (boolean) equals.invokeExact(oldValue, newValue);
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+	}
+
+	/**
+	 * Return the names of the compared fields, in index order.
+	 *
+	 * @return unmodifiable list of the field names
+	 */
+	List<String> getNames() {
+		return names;
+	}
+
+	/**
+	 * Return the index of the field with the given name.
+	 *
+	 * @param fieldName the name of the field
+	 * @return the index of the field, -1 when the plan has no such field
+	 */
+	int indexOf(String fieldName) {
+		return names.indexOf(fieldName);
+	}
+
+	/**
+	 * Reads the value of the field with the given index.
+	 *
+	 * @param index the index of the field
+	 * @param obj   the object to read
+	 * @return the value of the field
+	 */
+	Object get(int index, Object obj) {
+		return accessors[index].get(obj);
+	}
+}
@@ -0,0 +1,176 @@
+package eu.fogas.reflection;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lookup index of the constants of an enum type, created once per enum type.
+ * Exact, case-insensitive and ordinal lookups are constant time and do not allocate.
+ *
+ * @param <E> the enum type
+ */
+public final class EnumIndex<E extends Enum<E>> {
+
+	private static final ClassValue<EnumIndex<?>> INDEXES = new ClassValue<>() {
+		@Override
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		protected EnumIndex<?> computeValue(Class<?> type) {
+			return new EnumIndex(type);
+		}
+	};
+
+	private final Class<E> type;
+	private final E[] constants;
+	private final List<E> constantList;
+	private final Set<E> constantSet;
+	private final Map<String, E> byName;
+	private final E[] byNameIgnoreCase;
+
+	@SuppressWarnings("unchecked")
+	private EnumIndex(Class<E> type) {
+		E[] values = type.getEnumConstants();
+		if (values == null) {
+			throw new IllegalArgumentException(type.getCanonicalName() + " is not an enum type");
+		}
+		this.type = type;
+		this.constants = values;
+		this.constantList = List.of(values);
+		this.constantSet = Collections.unmodifiableSet(EnumSet.allOf(type));
+		this.byName = new HashMap<>(values.length * 2);
+		int capacity = Integer.highestOneBit(Math.max(values.length, 1) * 4);
+		this.byNameIgnoreCase = (E[]) new Enum<?>[capacity];
+		for (E constant : values) {
+			byName.put(constant.name(), constant);
+			int mask = capacity - 1;
+			int i = hashIgnoreCase(constant.name()) & mask;
+			while (byNameIgnoreCase[i] != null) {
+				i = (i + 1) & mask;
+			}
+			byNameIgnoreCase[i] = constant;
+		}
+	}
+
+	/**
+	 * Return the index of the given enum type.
+	 *
+	 * @param type Class object of an enum
+	 * @param <E>  the enum type
+	 * @return the cached index of the enum type
+	 * @throws IllegalArgumentException if the type is not an enum.
+	 */
+	@SuppressWarnings("unchecked")
+	static <E extends Enum<E>> EnumIndex<E> of(Class<E> type) {
+		return (EnumIndex<E>) INDEXES.get(type);
+	}
+
+	/**
+	 * Return the constant with the given name.
+	 *
+	 * @param name the exact name of the constant
+	 * @return the constant or null when there is no constant with the name
+	 */
+	public E find(String name) {
+		return byName.get(name);
+	}
+
+	/**
+	 * Return the constant with the given name ignoring case. When more constants match, the one with the lowest
+	 * ordinal is returned.
+	 *
+	 * @param name the name of the constant
+	 * @return the constant or null when there is no constant with the name
+	 */
+	public E findIgnoreCase(String name) {
+		int mask = byNameIgnoreCase.length - 1;
+		for (int i = hashIgnoreCase(name) & mask; ; i = (i + 1) & mask) {
+			E constant = byNameIgnoreCase[i];
+			if (constant == null || constant.name().equalsIgnoreCase(name)) {
+				return constant;
+			}
+		}
+	}
+
+	/**
+	 * Return the constant with the given name.
+	 *
+	 * @param name the exact name of the constant
+	 * @return the constant
+	 * @throws IllegalArgumentException if there is no constant with the name.
+	 */
+	public E valueOf(String name) {
+		E constant = find(name);
+		if (constant == null) {
+			throw noConstant(name);
+		}
+		return constant;
+	}
+
+	/**
+	 * Return the constant with the given name ignoring case.
+	 *
+	 * @param name the name of the constant
+	 * @return the constant
+	 * @throws IllegalArgumentException if there is no constant with the name.
+	 */
+	public E valueOfIgnoreCase(String name) {
+		E constant = findIgnoreCase(name);
+		if (constant == null) {
+			throw noConstant(name);
+		}
+		return constant;
+	}
+
+	/**
+	 * Return the constant with the given ordinal.
+	 *
+	 * @param ordinal the ordinal of the constant
+	 * @return the constant
+	 * @throws ArrayIndexOutOfBoundsException if there is no constant with the ordinal.
+	 */
+	public E get(int ordinal) {
+		return constants[ordinal];
+	}
+
+	/**
+	 * Return the number of constants.
+	 *
+	 * @return the number of constants
+	 */
+	public int size() {
+		return constants.length;
+	}
+
+	/**
+	 * Return the constants in ordinal order without cloning the array of the constants.
+	 *
+	 * @return unmodifiable list of the constants
+	 */
+	public List<E> getConstants() {
+		return constantList;
+	}
+
+	/**
+	 * Return all the constants as a set backed by an EnumSet.
+	 *
+	 * @return unmodifiable set of the constants
+	 */
+	public Set<E> getConstantSet() {
+		return constantSet;
+	}
+
+	private IllegalArgumentException noConstant(String name) {
+		return new IllegalArgumentException("No enum constant " + type.getCanonicalName() + "." + name);
+	}
+
+	private static int hashIgnoreCase(String name) {
+		int h = 0;
+		for (int i = 0; i < name.length(); i++) {
+			h = 31 * h + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+		}
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,616 @@
+package eu.fogas.reflection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precompiled plan comparing and hashing the objects of a class by value.
+ * The non-static, non-transient, non-synthetic fields of the class and of its super classes are compared, the
+ * primitive fields first through method handles without boxing, then the reference fields, the cheap ones (boxed
+ * primitives, strings, enums) first. The comparison stops at the first mismatch.
+ * Arrays, lists, sets and maps are compared by their elements, regardless of the list, set or map implementation,
+ * records by their components. The classes which are not open to this library, like the JDK value types, are compared
+ * with their own equals and hashCode.
+ * Two graphs with cycles are equal when they cannot be told apart by following their references, so a node referencing
+ * itself equals a cycle of two such nodes. The hash code therefore only covers the objects up to {@link #HASH_DEPTH}
+ * references deep, the same for both graphs however their cycles are laid out.
+ */
+final class EqualsPlan {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType EQUALS_TYPE = MethodType.methodType(boolean.class, Object.class, Object.class);
+	private static final MethodType HASH_TYPE = MethodType.methodType(int.class, Object.class);
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	/**
+	 * Number of reference levels below an object included in its hash code.
+	 */
+	private static final int HASH_DEPTH = 32;
+
+	private static final ClassValue<EqualsPlan> PLANS = new ClassValue<>() {
+		@Override
+		protected EqualsPlan computeValue(Class<?> type) {
+			return new EqualsPlan(type);
+		}
+	};
+
+	/**
+	 * How the objects of a class are compared.
+	 */
+	private enum Kind {
+		VALUE, PRIMITIVE_ARRAY, ARRAY, LIST, SET, MAP, COLLECTION, RECORD, FIELDS
+	}
+
+	private final Kind kind;
+	private final MethodHandle[] primitiveEquals;
+	private final MethodHandle[] primitiveHashes;
+	private final MethodHandle[] getters;
+
+	private EqualsPlan(Class<?> type) {
+		this.kind = kind(type);
+		List<MethodHandle> equalsHandles = new ArrayList<>();
+		List<MethodHandle> hashHandles = new ArrayList<>();
+		List<MethodHandle> getterHandles = new ArrayList<>();
+		if (kind == Kind.FIELDS) {
+			List<Field> references = new ArrayList<>();
+			for (Field field : ClassMetadata.of(type).getFieldTable().getInstanceFields()) {
+				if (field.isSynthetic() || Modifier.isTransient(field.getModifiers())) {
+					continue;
+				}
+				MethodHandle getter = MethodHandleFieldAccessor.getter(field);
+				if (getter == null) {
+					continue;
+				}
+				if (field.getType().isPrimitive()) {
+					equalsHandles.add(primitiveEquals(field.getType(), getter));
+					hashHandles.add(primitiveHash(field.getType(), getter));
+				} else {
+					references.add(field);
+				}
+			}
+			references.sort(Comparator.comparingInt(field -> cost(field.getType())));
+			for (Field field : references) {
+				getterHandles.add(MethodHandleFieldAccessor.getter(field).asType(GETTER_TYPE));
+			}
+		}
+		this.primitiveEquals = equalsHandles.toArray(MethodHandle[]::new);
+		this.primitiveHashes = hashHandles.toArray(MethodHandle[]::new);
+		this.getters = getterHandles.toArray(MethodHandle[]::new);
+	}
+
+	/**
+	 * Compares two objects by value.
+	 *
+	 * @param a an object or null
+	 * @param b an object or null
+	 * @return true when the objects are equal by value
+	 */
+	static boolean deepEquals(Object a, Object b) {
+		return new Comparison().equals(a, b);
+	}
+
+	/**
+	 * Return the hash code of the object by value, consistent with {@link #deepEquals(Object, Object)}, covering the
+	 * objects up to {@link #HASH_DEPTH} references deep.
+	 *
+	 * @param obj an object or null
+	 * @return the hash code, 0 for null
+	 */
+	static int deepHashCode(Object obj) {
+		return new Hashing().hash(obj);
+	}
+
+	/**
+	 * Return true when objects of different classes are equal if their elements are equal, like lists and sets.
+	 */
+	private boolean isInterfaceKind() {
+		return kind == Kind.LIST || kind == Kind.SET || kind == Kind.MAP;
+	}
+
+	private static Kind kind(Class<?> type) {
+		if (type.isArray()) {
+			return type.getComponentType().isPrimitive() ? Kind.PRIMITIVE_ARRAY : Kind.ARRAY;
+		}
+		if (List.class.isAssignableFrom(type)) {
+			return Kind.LIST;
+		}
+		if (Set.class.isAssignableFrom(type)) {
+			return Kind.SET;
+		}
+		if (Map.class.isAssignableFrom(type)) {
+			return Kind.MAP;
+		}
+		if (Collection.class.isAssignableFrom(type)) {
+			return Kind.COLLECTION;
+		}
+		if (type.isRecord()) {
+			return Kind.RECORD;
+		}
+		if (type.isEnum() || !type.getModule().isOpen(type.getPackageName(), EqualsPlan.class.getModule())) {
+			return Kind.VALUE;
+		}
+		return Kind.FIELDS;
+	}
+
+	/**
+	 * Return the relative cost of comparing values of the type, lower costs are compared first.
+	 */
+	private static int cost(Class<?> type) {
+		if (type.isEnum() || Number.class.isAssignableFrom(type) && type.getPackageName().equals("java.lang")
+				|| type == Boolean.class || type == Character.class) {
+			return 0;
+		}
+		if (type == String.class) {
+			return 1;
+		}
+		if (type.isArray() || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+			return 3;
+		}
+		return 2;
+	}
+
+	/**
+	 * Return a (Object, Object)boolean handle comparing a primitive field of two objects.
+	 */
+	static MethodHandle primitiveEquals(Class<?> type, MethodHandle getter) {
+		try {
+			MethodHandle equals = LOOKUP.findStatic(EqualsPlan.class, "equal",
+					MethodType.methodType(boolean.class, type, type));
+			return MethodHandles.filterArguments(equals, 0, getter, getter).asType(EQUALS_TYPE);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Return an (Object)int handle hashing a primitive field of an object.
+	 */
+	private static MethodHandle primitiveHash(Class<?> type, MethodHandle getter) {
+		try {
+			Class<?> wrapper = MethodType.methodType(type).wrap().returnType();
+			MethodHandle hash = LOOKUP.findStatic(wrapper, "hashCode", MethodType.methodType(int.class, type));
+			return MethodHandles.filterReturnValue(getter, hash).asType(HASH_TYPE);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static boolean equal(boolean a, boolean b) {
+		return a == b;
+	}
+
+	private static boolean equal(byte a, byte b) {
+		return a == b;
+	}
+
+	private static boolean equal(char a, char b) {
+		return a == b;
+	}
+
+	private static boolean equal(short a, short b) {
+		return a == b;
+	}
+
+	private static boolean equal(int a, int b) {
+		return a == b;
+	}
+
+	private static boolean equal(long a, long b) {
+		return a == b;
+	}
+
+	private static boolean equal(float a, float b) {
+		return Float.floatToIntBits(a) == Float.floatToIntBits(b);
+	}
+
+	private static boolean equal(double a, double b) {
+		return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+	}
+
+	private static Object get(MethodHandle getter, Object obj) {
+		try {
+			return (Object) getter.invokeExact(obj);
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+	}
+
+	/**
+	 * State of one comparison. The pairs waiting to be compared are kept on an explicit stack, so deep graphs do not
+	 * overflow the call stack. The pairs under comparison are assumed to be equal when they are reached again, e.g.
+	 * through a cycle. An object may be paired with several others, e.g. a node referencing itself with both nodes of a
+	 * two-node cycle, so the assumptions are kept per pair, and the comparison ends because every pair is compared
+	 * once. A trial comparison, used to match the elements of sets, shares these assumptions with its parent and takes back
+	 * the ones it added when it fails.
+	 */
+	private static final class Comparison {
+		private final IdentityMap comparing;
+		private final List<Object> undo;
+		private Object[] stack = new Object[32];
+		private int size;
+
+		private Comparison() {
+			this(new IdentityMap(), null);
+		}
+
+		private Comparison(IdentityMap comparing, List<Object> undo) {
+			this.comparing = comparing;
+			this.undo = undo;
+		}
+
+		private boolean equals(Object a, Object b) {
+			push(a, b);
+			while (size > 0) {
+				Object right = stack[--size];
+				Object left = stack[--size];
+				if (!compare(left, right)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Compares the pair as far as it can be done without descending, and pushes the pairs of its children.
+		 */
+		private boolean compare(Object a, Object b) {
+			if (a == b) {
+				return true;
+			}
+			if (a == null || b == null) {
+				return false;
+			}
+			EqualsPlan plan = PLANS.get(a.getClass());
+			if (a.getClass() != b.getClass()
+					&& !(plan.isInterfaceKind() && plan.kind == PLANS.get(b.getClass()).kind)) {
+				return false;
+			}
+			if (plan.kind == Kind.VALUE) {
+				return a.equals(b);
+			}
+			if (plan.kind == Kind.PRIMITIVE_ARRAY) {
+				return primitiveArrayEquals(a, b);
+			}
+			Object previous = comparing.get(a);
+			if (Partners.contains(previous, b)) {
+				return true;
+			}
+			if (undo != null) {
+				undo.add(a);
+				undo.add(previous);
+			}
+			comparing.put(a, Partners.add(previous, b));
+			switch (plan.kind) {
+				case ARRAY:
+					return pushAll((Object[]) a, (Object[]) b);
+				case LIST:
+				case COLLECTION:
+					return ((Collection<?>) a).size() == ((Collection<?>) b).size()
+							&& pushAll(((Collection<?>) a).toArray(), ((Collection<?>) b).toArray());
+				case SET:
+					return setEquals((Set<?>) a, (Set<?>) b);
+				case MAP:
+					return pushValues((Map<?, ?>) a, (Map<?, ?>) b);
+				case RECORD:
+					return pushAll(RecordPlan.of(a.getClass()).getComponents(a),
+							RecordPlan.of(b.getClass()).getComponents(b));
+				default:
+					return pushFields(plan, a, b);
+			}
+		}
+
+		private boolean pushFields(EqualsPlan plan, Object a, Object b) {
+			try {
+				for (MethodHandle equals : plan.primitiveEquals) {
+					if (!(boolean) equals.invokeExact(a, b)) {
+						return false;
+					}
+				}
+			} catch (Throwable e) {
+				throw MethodHandleFieldAccessor.rethrow(e);
+			}
+			for (int i = plan.getters.length - 1; i >= 0; i--) {
+				push(get(plan.getters[i], a), get(plan.getters[i], b));
+			}
+			return true;
+		}
+
+		private boolean pushAll(Object[] a, Object[] b) {
+			if (a.length != b.length) {
+				return false;
+			}
+			for (int i = a.length - 1; i >= 0; i--) {
+				push(a[i], b[i]);
+			}
+			return true;
+		}
+
+		private boolean pushValues(Map<?, ?> a, Map<?, ?> b) {
+			if (a.size() != b.size()) {
+				return false;
+			}
+			for (Map.Entry<?, ?> entry : a.entrySet()) {
+				Object other = b.get(entry.getKey());
+				if (other == null && (entry.getValue() != null || !b.containsKey(entry.getKey()))) {
+					return false;
+				}
+				push(entry.getValue(), other);
+			}
+			return true;
+		}
+
+		private boolean setEquals(Set<?> a, Set<?> b) {
+			if (a.size() != b.size()) {
+				return false;
+			}
+			Map<Integer, List<Object>> buckets = new HashMap<>();
+			for (Object element : b) {
+				buckets.computeIfAbsent(deepHashCode(element), hash -> new ArrayList<>()).add(element);
+			}
+			for (Object element : a) {
+				List<Object> bucket = buckets.get(deepHashCode(element));
+				if (bucket == null || !removeEqual(bucket, element)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean removeEqual(List<Object> bucket, Object element) {
+			for (Iterator<Object> it = bucket.iterator(); it.hasNext(); ) {
+				Object candidate = it.next();
+				List<Object> added = new ArrayList<>();
+				if (new Comparison(comparing, added).equals(element, candidate)) {
+					if (undo != null) {
+						undo.addAll(added);
+					}
+					it.remove();
+					return true;
+				}
+				for (int i = added.size() - 2; i >= 0; i -= 2) {
+					comparing.put(added.get(i), added.get(i + 1));
+				}
+			}
+			return false;
+		}
+
+		private void push(Object a, Object b) {
+			if (size + 2 > stack.length) {
+				stack = Arrays.copyOf(stack, stack.length * 2);
+			}
+			stack[size++] = a;
+			stack[size++] = b;
+		}
+	}
+
+	/**
+	 * The right objects assumed to be equal to a left object, when there are more than one. A single right object is
+	 * stored as it is. The partners are copied on write, so the undo log can restore the previous ones.
+	 */
+	private static final class Partners {
+		private final Object[] objects;
+
+		private Partners(Object[] objects) {
+			this.objects = objects;
+		}
+
+		private static boolean contains(Object partners, Object b) {
+			if (partners instanceof Partners) {
+				for (Object partner : ((Partners) partners).objects) {
+					if (partner == b) {
+						return true;
+					}
+				}
+				return false;
+			}
+			return partners == b;
+		}
+
+		private static Object add(Object partners, Object b) {
+			if (partners == null) {
+				return b;
+			}
+			if (partners instanceof Partners) {
+				Object[] objects = ((Partners) partners).objects;
+				Object[] result = Arrays.copyOf(objects, objects.length + 1);
+				result[objects.length] = b;
+				return new Partners(result);
+			}
+			return new Partners(new Object[]{partners, b});
+		}
+	}
+
+	/**
+	 * State of one hash code computation. The objects are hashed in post-order from an explicit stack of frames. The
+	 * hash of an object combines the hashes of its children down to {@link #HASH_DEPTH} levels, the objects below
+	 * contribute 0, so a cycle is unrolled the same number of times whatever its length. The hash of an object is
+	 * memoized per depth, so an object reached again through shared references at the same depth is hashed once.
+	 */
+	private static final class Hashing {
+		private final IdentityMap[] hashes = new IdentityMap[HASH_DEPTH + 1];
+		private Frame[] stack = new Frame[16];
+		private int size;
+
+		private int hash(Object root) {
+			Integer known = known(root, HASH_DEPTH);
+			if (known != null) {
+				return known;
+			}
+			open(root, HASH_DEPTH);
+			while (true) {
+				Frame top = stack[size - 1];
+				if (top.index < top.children.length) {
+					Object child = top.children[top.index];
+					known = known(child, top.depth - 1);
+					if (known == null) {
+						open(child, top.depth - 1);
+					} else {
+						top.add(known);
+					}
+					continue;
+				}
+				stack[--size] = null;
+				hashes[top.depth].put(top.obj, top.result);
+				if (size == 0) {
+					return top.result;
+				}
+				stack[size - 1].add(top.result);
+			}
+		}
+
+		/**
+		 * Return the hash of the object at the given depth when it is known without descending, null otherwise.
+		 */
+		private Integer known(Object obj, int depth) {
+			if (obj == null) {
+				return 0;
+			}
+			EqualsPlan plan = PLANS.get(obj.getClass());
+			if (plan.kind == Kind.VALUE) {
+				return obj.hashCode();
+			}
+			if (plan.kind == Kind.PRIMITIVE_ARRAY) {
+				return primitiveArrayHash(obj);
+			}
+			if (depth == 0) {
+				return 0;
+			}
+			IdentityMap memo = hashes[depth];
+			return memo == null ? null : (Integer) memo.get(obj);
+		}
+
+		private void open(Object obj, int depth) {
+			if (hashes[depth] == null) {
+				hashes[depth] = new IdentityMap();
+			}
+			if (size == stack.length) {
+				stack = Arrays.copyOf(stack, size * 2);
+			}
+			stack[size++] = frame(obj, depth);
+		}
+
+		private static Frame frame(Object obj, int depth) {
+			EqualsPlan plan = PLANS.get(obj.getClass());
+			switch (plan.kind) {
+				case ARRAY:
+					return new Frame(obj, depth, (Object[]) obj, null, 1, Kind.LIST);
+				case LIST:
+				case COLLECTION:
+					return new Frame(obj, depth, ((Collection<?>) obj).toArray(), null, 1, Kind.LIST);
+				case SET:
+					return new Frame(obj, depth, ((Set<?>) obj).toArray(), null, 0, Kind.SET);
+				case MAP:
+					Map<?, ?> map = (Map<?, ?>) obj;
+					Object[] values = new Object[map.size()];
+					int[] keyHashes = new int[map.size()];
+					int i = 0;
+					for (Map.Entry<?, ?> entry : map.entrySet()) {
+						keyHashes[i] = entry.getKey() == null ? 0 : entry.getKey().hashCode();
+						values[i++] = entry.getValue();
+					}
+					return new Frame(obj, depth, values, keyHashes, 0, Kind.MAP);
+				case RECORD:
+					return new Frame(obj, depth, RecordPlan.of(obj.getClass()).getComponents(obj), null, 1,
+							Kind.LIST);
+				default:
+					int result = 1;
+					try {
+						for (MethodHandle hash : plan.primitiveHashes) {
+							result = 31 * result + (int) hash.invokeExact(obj);
+						}
+					} catch (Throwable e) {
+						throw MethodHandleFieldAccessor.rethrow(e);
+					}
+					Object[] references = new Object[plan.getters.length];
+					for (int j = 0; j < references.length; j++) {
+						references[j] = get(plan.getters[j], obj);
+					}
+					return new Frame(obj, depth, references, null, result, Kind.LIST);
+			}
+		}
+	}
+
+	/**
+	 * An object being hashed at a depth: its children and the hash combined from the children hashed so far. The hashes
+	 * of the children are combined in order for LIST, summed for SET and summed with the key hashes xor-ed for MAP.
+	 */
+	private static final class Frame {
+		private final Object obj;
+		private final int depth;
+		private final Object[] children;
+		private final int[] keyHashes;
+		private final Kind combination;
+		private int index;
+		private int result;
+
+		private Frame(Object obj, int depth, Object[] children, int[] keyHashes, int result, Kind combination) {
+			this.obj = obj;
+			this.depth = depth;
+			this.children = children;
+			this.keyHashes = keyHashes;
+			this.result = result;
+			this.combination = combination;
+		}
+
+		private void add(int hash) {
+			if (combination == Kind.LIST) {
+				result = 31 * result + hash;
+			} else if (combination == Kind.SET) {
+				result += hash;
+			} else {
+				result += keyHashes[index] ^ hash;
+			}
+			index++;
+		}
+	}
+
+	private static boolean primitiveArrayEquals(Object a, Object b) {
+		if (a instanceof int[]) {
+			return Arrays.equals((int[]) a, (int[]) b);
+		} else if (a instanceof long[]) {
+			return Arrays.equals((long[]) a, (long[]) b);
+		} else if (a instanceof double[]) {
+			return Arrays.equals((double[]) a, (double[]) b);
+		} else if (a instanceof byte[]) {
+			return Arrays.equals((byte[]) a, (byte[]) b);
+		} else if (a instanceof char[]) {
+			return Arrays.equals((char[]) a, (char[]) b);
+		} else if (a instanceof boolean[]) {
+			return Arrays.equals((boolean[]) a, (boolean[]) b);
+		} else if (a instanceof float[]) {
+			return Arrays.equals((float[]) a, (float[]) b);
+		}
+		return Arrays.equals((short[]) a, (short[]) b);
+	}
+
+	private static int primitiveArrayHash(Object obj) {
+		if (obj instanceof int[]) {
+			return Arrays.hashCode((int[]) obj);
+		} else if (obj instanceof long[]) {
+			return Arrays.hashCode((long[]) obj);
+		} else if (obj instanceof double[]) {
+			return Arrays.hashCode((double[]) obj);
+		} else if (obj instanceof byte[]) {
+			return Arrays.hashCode((byte[]) obj);
+		} else if (obj instanceof char[]) {
+			return Arrays.hashCode((char[]) obj);
+		} else if (obj instanceof boolean[]) {
+			return Arrays.hashCode((boolean[]) obj);
+		} else if (obj instanceof float[]) {
+			return Arrays.hashCode((float[]) obj);
+		}
+		return Arrays.hashCode((short[]) obj);
+	}
+}
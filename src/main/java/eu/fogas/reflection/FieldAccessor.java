@@ -0,0 +1,242 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.field.FieldValueCannotChangedException;
+import eu.fogas.reflection.exception.field.FieldValueCannotReadException;
+
+import java.lang.reflect.Field;
+
+/**
+ * Reads and writes one field of a class. An accessor is resolved once and can be reused for any number of objects.
+ * The default implementations of the primitive getters and setters box the value through {@link #get(Object)} and
+ * {@link #set(Object, Object)}, the accessors returned by {@link ReflectionUtil} override them without boxing.
+ *
+ * @param <T> the type of the object holding the field
+ * @param <V> the type of the field value
+ */
+public interface FieldAccessor<T, V> {
+
+	/**
+	 * Return the field accessed by this accessor.
+	 *
+	 * @return the Field object
+	 */
+	Field getField();
+
+	/**
+	 * Return the value of the field of an object.
+	 *
+	 * @param obj the object with the field, ignored for static fields
+	 * @return the value of the field
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	V get(T obj);
+
+	/**
+	 * Sets the field on the specified object to the specified new value.
+	 *
+	 * @param obj   the object whose field should be modified, ignored for static fields
+	 * @param value the new value of the field
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	void set(T obj, V value);
+
+	/**
+	 * Return the value of a boolean field.
+	 *
+	 * @param obj the object with the field, ignored for static fields
+	 * @return the value of the field
+	 * @throws IllegalArgumentException     if the field is not declared as boolean.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	default boolean getBoolean(T obj) {
+		return (Boolean) get(obj);
+	}
+
+	/**
+	 * Sets the value of a boolean field.
+	 *
+	 * @param obj   the object whose field should be modified, ignored for static fields
+	 * @param value the new value of the field
+	 * @throws IllegalArgumentException         if the field is not declared as boolean.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	@SuppressWarnings("unchecked")
+	default void setBoolean(T obj, boolean value) {
+		set(obj, (V) (Boolean) value);
+	}
+
+	/**
+	 * Return the value of a byte field.
+	 *
+	 * @param obj the object with the field, ignored for static fields
+	 * @return the value of the field
+	 * @throws IllegalArgumentException     if the field is not declared as byte.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	default byte getByte(T obj) {
+		return (Byte) get(obj);
+	}
+
+	/**
+	 * Sets the value of a byte field.
+	 *
+	 * @param obj   the object whose field should be modified, ignored for static fields
+	 * @param value the new value of the field
+	 * @throws IllegalArgumentException         if the field is not declared as byte.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	@SuppressWarnings("unchecked")
+	default void setByte(T obj, byte value) {
+		set(obj, (V) (Byte) value);
+	}
+
+	/**
+	 * Return the value of a char field.
+	 *
+	 * @param obj the object with the field, ignored for static fields
+	 * @return the value of the field
+	 * @throws IllegalArgumentException     if the field is not declared as char.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	default char getChar(T obj) {
+		return (Character) get(obj);
+	}
+
+	/**
+	 * Sets the value of a char field.
+	 *
+	 * @param obj   the object whose field should be modified, ignored for static fields
+	 * @param value the new value of the field
+	 * @throws IllegalArgumentException         if the field is not declared as char.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	@SuppressWarnings("unchecked")
+	default void setChar(T obj, char value) {
+		set(obj, (V) (Character) value);
+	}
+
+	/**
+	 * Return the value of a short field.
+	 *
+	 * @param obj the object with the field, ignored for static fields
+	 * @return the value of the field
+	 * @throws IllegalArgumentException     if the field is not declared as short.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	default short getShort(T obj) {
+		return (Short) get(obj);
+	}
+
+	/**
+	 * Sets the value of a short field.
+	 *
+	 * @param obj   the object whose field should be modified, ignored for static fields
+	 * @param value the new value of the field
+	 * @throws IllegalArgumentException         if the field is not declared as short.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	@SuppressWarnings("unchecked")
+	default void setShort(T obj, short value) {
+		set(obj, (V) (Short) value);
+	}
+
+	/**
+	 * Return the value of an int field.
+	 *
+	 * @param obj the object with the field, ignored for static fields
+	 * @return the value of the field
+	 * @throws IllegalArgumentException     if the field is not declared as int.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	default int getInt(T obj) {
+		return (Integer) get(obj);
+	}
+
+	/**
+	 * Sets the value of an int field.
+	 *
+	 * @param obj   the object whose field should be modified, ignored for static fields
+	 * @param value the new value of the field
+	 * @throws IllegalArgumentException         if the field is not declared as int.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	@SuppressWarnings("unchecked")
+	default void setInt(T obj, int value) {
+		set(obj, (V) (Integer) value);
+	}
+
+	/**
+	 * Return the value of a long field.
+	 *
+	 * @param obj the object with the field, ignored for static fields
+	 * @return the value of the field
+	 * @throws IllegalArgumentException     if the field is not declared as long.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	default long getLong(T obj) {
+		return (Long) get(obj);
+	}
+
+	/**
+	 * Sets the value of a long field.
+	 *
+	 * @param obj   the object whose field should be modified, ignored for static fields
+	 * @param value the new value of the field
+	 * @throws IllegalArgumentException         if the field is not declared as long.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	@SuppressWarnings("unchecked")
+	default void setLong(T obj, long value) {
+		set(obj, (V) (Long) value);
+	}
+
+	/**
+	 * Return the value of a float field.
+	 *
+	 * @param obj the object with the field, ignored for static fields
+	 * @return the value of the field
+	 * @throws IllegalArgumentException     if the field is not declared as float.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	default float getFloat(T obj) {
+		return (Float) get(obj);
+	}
+
+	/**
+	 * Sets the value of a float field.
+	 *
+	 * @param obj   the object whose field should be modified, ignored for static fields
+	 * @param value the new value of the field
+	 * @throws IllegalArgumentException         if the field is not declared as float.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	@SuppressWarnings("unchecked")
+	default void setFloat(T obj, float value) {
+		set(obj, (V) (Float) value);
+	}
+
+	/**
+	 * Return the value of a double field.
+	 *
+	 * @param obj the object with the field, ignored for static fields
+	 * @return the value of the field
+	 * @throws IllegalArgumentException     if the field is not declared as double.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	default double getDouble(T obj) {
+		return (Double) get(obj);
+	}
+
+	/**
+	 * Sets the value of a double field.
+	 *
+	 * @param obj   the object whose field should be modified, ignored for static fields
+	 * @param value the new value of the field
+	 * @throws IllegalArgumentException         if the field is not declared as double.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	@SuppressWarnings("unchecked")
+	default void setDouble(T obj, double value) {
+		set(obj, (V) (Double) value);
+	}
+}
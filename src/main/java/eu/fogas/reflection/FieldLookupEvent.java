@@ -0,0 +1,35 @@
+package eu.fogas.reflection;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event of a field lookup which was not cached yet, emitted while {@link ReflectionMetrics} are enabled.
+ */
+@Name("eu.fogas.reflection.FieldLookup")
+@Label("Field Lookup")
+@Category("Reflection Util")
+@Description("Field resolved by name through the class hierarchy")
+final class FieldLookupEvent extends Event {
+
+	@Label("Type")
+	Class<?> type;
+
+	@Label("Field Name")
+	String fieldName;
+
+	@Label("Hierarchy Depth")
+	@Description("Number of classes walked")
+	int depth;
+
+	@Label("Found")
+	boolean found;
+
+	@Label("Resolution Time")
+	@Timespan
+	long resolutionTime;
+}
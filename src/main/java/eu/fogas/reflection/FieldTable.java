@@ -0,0 +1,84 @@
+package eu.fogas.reflection;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Immutable table of all the fields of a class and of its super classes, with precomputed views.
+ * The fields of the class come first followed by the fields of the super classes, each in declaration order.
+ * The table is created once per class, so iterating the views does not allocate new lists.
+ */
+public final class FieldTable {
+
+	private final List<Field> allFields;
+	private final List<Field> instanceFields;
+	private final List<Field> staticFields;
+	private final List<Field> nonFinalFields;
+	private final List<Field> containerFields;
+
+	FieldTable(List<Field> allFields) {
+		this.allFields = List.copyOf(allFields);
+		this.instanceFields = filter(allFields, field -> !ReflectionUtil.isStatic(field));
+		this.staticFields = filter(allFields, ReflectionUtil::isStatic);
+		this.nonFinalFields = filter(allFields, field -> !ReflectionUtil.isFinal(field));
+		this.containerFields = filter(allFields, field -> ReflectionUtil.isList(field) || ReflectionUtil.isSet(field)
+				|| ReflectionUtil.isMap(field) || ReflectionUtil.isArray(field));
+	}
+
+	/**
+	 * Return all the fields from the class and from all the super classes.
+	 *
+	 * @return unmodifiable list of all the fields
+	 */
+	public List<Field> getAllFields() {
+		return allFields;
+	}
+
+	/**
+	 * Return the non-static fields.
+	 *
+	 * @return unmodifiable list of the instance fields
+	 */
+	public List<Field> getInstanceFields() {
+		return instanceFields;
+	}
+
+	/**
+	 * Return the static fields.
+	 *
+	 * @return unmodifiable list of the static fields
+	 */
+	public List<Field> getStaticFields() {
+		return staticFields;
+	}
+
+	/**
+	 * Return the fields which are not declared as final.
+	 *
+	 * @return unmodifiable list of the non-final fields
+	 */
+	public List<Field> getNonFinalFields() {
+		return nonFinalFields;
+	}
+
+	/**
+	 * Return the fields declared as List, Set, Map or array.
+	 *
+	 * @return unmodifiable list of the container fields
+	 */
+	public List<Field> getContainerFields() {
+		return containerFields;
+	}
+
+	private static List<Field> filter(List<Field> fields, Predicate<Field> condition) {
+		List<Field> result = new ArrayList<>();
+		for (Field field : fields) {
+			if (condition.test(field)) {
+				result.add(field);
+			}
+		}
+		return List.copyOf(result);
+	}
+}
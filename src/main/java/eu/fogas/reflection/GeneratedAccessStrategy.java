@@ -0,0 +1,20 @@
+package eu.fogas.reflection;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Access strategy which spins hidden classes with {@link java.lang.invoke.LambdaMetafactory} for the instance
+ * factories. Fields are accessed through method handles, because the lambda metafactory cannot target fields.
+ */
+final class GeneratedAccessStrategy extends MethodHandleAccessStrategy {
+
+	@Override
+	public String getName() {
+		return "generated";
+	}
+
+	@Override
+	public <T> InstanceFactory<T> instanceFactory(Constructor<T> constructor) {
+		return InstanceFactories.generated(constructor);
+	}
+}
@@ -0,0 +1,18 @@
+package eu.fogas.reflection;
+
+/**
+ * Callback of the {@link GraphWalker}, called once for every reachable object.
+ */
+@FunctionalInterface
+public interface GraphVisitor {
+
+	/**
+	 * Visits an object of the graph.
+	 * In parallel mode the visitor is called from more threads at the same time, so it must be thread-safe.
+	 *
+	 * @param obj   the object, never null
+	 * @param depth the distance of the object from the root, the root is at depth 0
+	 * @return true to walk the objects referenced by this object, false to skip them
+	 */
+	boolean visit(Object obj, int depth);
+}
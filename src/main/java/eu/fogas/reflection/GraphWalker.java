@@ -0,0 +1,281 @@
+package eu.fogas.reflection;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Visits every object reachable from a root object once, cycles included.
+ * Objects are followed through their non-static reference fields, through the elements of arrays and collections
+ * and through the keys and values of maps. The classes of the JDK and of other named modules which are not open to
+ * this library are opaque: they are visited, but only collections and maps among them are walked.
+ * The visited objects are tracked in an open addressing identity set, the objects are not asked for their
+ * hashCode or equals. Walkers are immutable and can be shared.
+ */
+public final class GraphWalker {
+
+	/**
+	 * Depth limit of a walker which walks the whole graph.
+	 */
+	public static final int UNLIMITED_DEPTH = Integer.MAX_VALUE;
+
+	private static final int SPLIT_THRESHOLD = 1024;
+	private static final GraphWalker DEFAULT = new GraphWalker(UNLIMITED_DEPTH, null);
+
+	private final int maxDepth;
+	private final ForkJoinPool pool;
+
+	private GraphWalker(int maxDepth, ForkJoinPool pool) {
+		this.maxDepth = maxDepth;
+		this.pool = pool;
+	}
+
+	/**
+	 * Return a sequential walker without depth limit.
+	 *
+	 * @return the walker
+	 */
+	public static GraphWalker create() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Return a walker which does not visit the objects farther from the root than the given depth.
+	 *
+	 * @param maxDepth the maximum depth to visit, 0 visits the root only
+	 * @return the new walker
+	 * @throws IllegalArgumentException if the depth is negative.
+	 */
+	public GraphWalker withMaxDepth(int maxDepth) {
+		if (maxDepth < 0) {
+			throw new IllegalArgumentException("Max depth must not be negative but was " + maxDepth);
+		}
+		return new GraphWalker(maxDepth, pool);
+	}
+
+	/**
+	 * Return a walker which walks on the common ForkJoinPool, see {@link #parallel(ForkJoinPool)}.
+	 *
+	 * @return the new walker
+	 */
+	public GraphWalker parallel() {
+		return parallel(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Return a walker which walks on the given pool, splitting the arrays and collections with more than 1024
+	 * elements across the workers. In parallel mode the visitor must be thread-safe, and an object reachable on more
+	 * paths gets the depth of the path walked first, which is not necessarily the shortest one.
+	 *
+	 * @param pool the pool to walk on
+	 * @return the new walker
+	 */
+	public GraphWalker parallel(@NonNull final ForkJoinPool pool) {
+		return new GraphWalker(maxDepth, pool);
+	}
+
+	/**
+	 * Visits the root and the objects reachable from it. A sequential walk is breadth first, so the depth passed to
+	 * the visitor is the length of the shortest path from the root.
+	 *
+	 * @param root    the object to start from
+	 * @param visitor called once for every reachable object
+	 * @return the number of visited objects, 0 when the root is null
+	 */
+	public long walk(final Object root, @NonNull final GraphVisitor visitor) {
+		if (root == null) {
+			return 0;
+		}
+		if (pool == null) {
+			return new SequentialWalk(visitor, maxDepth).walk(root);
+		}
+		var walk = new ParallelWalk(visitor, maxDepth);
+		pool.invoke(walk.new Task(new Object[]{root}, 0, 1, 0));
+		return walk.count.sum();
+	}
+
+	/**
+	 * Breadth first walk on the calling thread, the queue is a ring buffer of objects and depths.
+	 */
+	private static final class SequentialWalk implements WalkPlan.Sink {
+		private final GraphVisitor visitor;
+		private final int maxDepth;
+		private final IdentitySet visited = new IdentitySet();
+		private Object[] queue = new Object[64];
+		private int[] depths = new int[64];
+		private int head;
+		private int size;
+		private int childDepth;
+
+		private SequentialWalk(GraphVisitor visitor, int maxDepth) {
+			this.visitor = visitor;
+			this.maxDepth = maxDepth;
+		}
+
+		private long walk(Object root) {
+			visited.add(root);
+			offer(root, 0);
+			long count = 0;
+			while (size > 0) {
+				Object obj = queue[head];
+				int depth = depths[head];
+				queue[head] = null;
+				head = (head + 1) & (queue.length - 1);
+				size--;
+				count++;
+				if (visitor.visit(obj, depth) && depth < maxDepth) {
+					childDepth = depth + 1;
+					WalkPlan.of(obj.getClass()).forEachReference(obj, this);
+				}
+			}
+			return count;
+		}
+
+		@Override
+		public void accept(Object child) {
+			if (visited.add(child)) {
+				offer(child, childDepth);
+			}
+		}
+
+		private void offer(Object obj, int depth) {
+			if (size == queue.length) {
+				grow();
+			}
+			int tail = (head + size) & (queue.length - 1);
+			queue[tail] = obj;
+			depths[tail] = depth;
+			size++;
+		}
+
+		private void grow() {
+			Object[] newQueue = new Object[queue.length * 2];
+			int[] newDepths = new int[depths.length * 2];
+			for (int i = 0; i < size; i++) {
+				int index = (head + i) & (queue.length - 1);
+				newQueue[i] = queue[index];
+				newDepths[i] = depths[index];
+			}
+			queue = newQueue;
+			depths = newDepths;
+			head = 0;
+		}
+	}
+
+	/**
+	 * Depth first walk on a ForkJoinPool, large arrays and collections are split into tasks.
+	 */
+	private static final class ParallelWalk {
+		private static final int SEGMENTS = 64;
+
+		private final GraphVisitor visitor;
+		private final int maxDepth;
+		private final IdentitySet[] visited = new IdentitySet[SEGMENTS];
+		private final LongAdder count = new LongAdder();
+
+		private ParallelWalk(GraphVisitor visitor, int maxDepth) {
+			this.visitor = visitor;
+			this.maxDepth = maxDepth;
+			for (int i = 0; i < SEGMENTS; i++) {
+				visited[i] = new IdentitySet();
+			}
+		}
+
+		private boolean markVisited(Object obj) {
+			IdentitySet segment = visited[IdentitySet.hash(obj) >>> 26];
+			synchronized (segment) {
+				return segment.add(obj);
+			}
+		}
+
+		/**
+		 * Walks the objects reachable from a range of objects at the same depth.
+		 */
+		private final class Task extends RecursiveAction implements WalkPlan.Sink {
+			private final Object[] items;
+			private final int from;
+			private final int to;
+			private final int depth;
+			private Object[] stack;
+			private int[] depths;
+			private int top;
+			private int childDepth;
+
+			private Task(Object[] items, int from, int to, int depth) {
+				this.items = items;
+				this.from = from;
+				this.to = to;
+				this.depth = depth;
+			}
+
+			@Override
+			protected void compute() {
+				if (to - from > SPLIT_THRESHOLD) {
+					int middle = (from + to) >>> 1;
+					invokeAll(new Task(items, from, middle, depth), new Task(items, middle, to, depth));
+					return;
+				}
+				stack = new Object[Math.max(16, to - from)];
+				depths = new int[stack.length];
+				childDepth = depth;
+				for (int i = from; i < to; i++) {
+					if (items[i] != null) {
+						accept(items[i]);
+					}
+				}
+				List<Task> forks = new ArrayList<>();
+				while (top > 0) {
+					top--;
+					Object obj = stack[top];
+					int objDepth = depths[top];
+					stack[top] = null;
+					count.increment();
+					if (visitor.visit(obj, objDepth) && objDepth < maxDepth) {
+						WalkPlan plan = WalkPlan.of(obj.getClass());
+						Object[] elements = largeElements(plan, obj);
+						if (elements != null) {
+							Task fork = new Task(elements, 0, elements.length, objDepth + 1);
+							fork.fork();
+							forks.add(fork);
+						} else {
+							childDepth = objDepth + 1;
+							plan.forEachReference(obj, this);
+						}
+					}
+				}
+				for (Task fork : forks) {
+					fork.join();
+				}
+			}
+
+			@Override
+			public void accept(Object child) {
+				if (markVisited(child)) {
+					if (top == stack.length) {
+						stack = Arrays.copyOf(stack, top * 2);
+						depths = Arrays.copyOf(depths, top * 2);
+					}
+					stack[top] = child;
+					depths[top] = childDepth;
+					top++;
+				}
+			}
+
+			private Object[] largeElements(WalkPlan plan, Object obj) {
+				if (plan.getKind() == WalkPlan.Kind.ARRAY && ((Object[]) obj).length > SPLIT_THRESHOLD) {
+					return (Object[]) obj;
+				}
+				if (plan.getKind() == WalkPlan.Kind.COLLECTION && ((Collection<?>) obj).size() > SPLIT_THRESHOLD) {
+					return ((Collection<?>) obj).toArray();
+				}
+				return null;
+			}
+		}
+	}
+}
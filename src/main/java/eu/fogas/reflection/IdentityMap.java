@@ -0,0 +1,88 @@
+package eu.fogas.reflection;
+
+/**
+ * Map with keys compared by identity, an open addressing hash table with linear probing on parallel key and value
+ * arrays. It allocates nothing on insert but when it grows. It is not thread-safe.
+ */
+final class IdentityMap {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private Object[] keys = new Object[INITIAL_CAPACITY];
+	private Object[] values = new Object[INITIAL_CAPACITY];
+	private int size;
+
+	/**
+	 * Return the value of the key.
+	 *
+	 * @param key the key, not null
+	 * @return the value or null when the key is not in the map
+	 */
+	Object get(Object key) {
+		Object[] tab = keys;
+		int mask = tab.length - 1;
+		for (int i = IdentitySet.hash(key) & mask; ; i = (i + 1) & mask) {
+			Object existing = tab[i];
+			if (existing == key) {
+				return values[i];
+			}
+			if (existing == null) {
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Associates the value with the key, replacing the previous value of the key.
+	 *
+	 * @param key   the key, not null
+	 * @param value the value
+	 */
+	void put(Object key, Object value) {
+		Object[] tab = keys;
+		int mask = tab.length - 1;
+		for (int i = IdentitySet.hash(key) & mask; ; i = (i + 1) & mask) {
+			Object existing = tab[i];
+			if (existing == key) {
+				values[i] = value;
+				return;
+			}
+			if (existing == null) {
+				tab[i] = key;
+				values[i] = value;
+				if (++size * 2 > tab.length) {
+					resize();
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Return the number of keys in the map.
+	 *
+	 * @return the number of keys
+	 */
+	int size() {
+		return size;
+	}
+
+	private void resize() {
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new Object[oldKeys.length * 2];
+		values = new Object[oldValues.length * 2];
+		int mask = keys.length - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			Object key = oldKeys[j];
+			if (key != null) {
+				int i = IdentitySet.hash(key) & mask;
+				while (keys[i] != null) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = key;
+				values[i] = oldValues[j];
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package eu.fogas.reflection;
+
+/**
+ * Set of objects compared by identity, an open addressing hash table with linear probing on a plain object array.
+ * Unlike IdentityHashMap it stores no values and allocates nothing on insert but when it grows.
+ * It is not thread-safe.
+ */
+final class IdentitySet {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private Object[] table;
+	private int size;
+
+	IdentitySet() {
+		this(INITIAL_CAPACITY);
+	}
+
+	IdentitySet(int expectedSize) {
+		this.table = new Object[Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(expectedSize, 1) * 4))];
+	}
+
+	/**
+	 * Adds the object to the set.
+	 *
+	 * @param obj the object to add, not null
+	 * @return true when the object was not in the set yet
+	 */
+	boolean add(Object obj) {
+		Object[] tab = table;
+		int mask = tab.length - 1;
+		for (int i = hash(obj) & mask; ; i = (i + 1) & mask) {
+			Object existing = tab[i];
+			if (existing == null) {
+				tab[i] = obj;
+				if (++size * 2 > tab.length) {
+					resize();
+				}
+				return true;
+			}
+			if (existing == obj) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Return whether the object is in the set.
+	 *
+	 * @param obj the object to check, not null
+	 * @return true when the object is in the set
+	 */
+	boolean contains(Object obj) {
+		Object[] tab = table;
+		int mask = tab.length - 1;
+		for (int i = hash(obj) & mask; ; i = (i + 1) & mask) {
+			Object existing = tab[i];
+			if (existing == null || existing == obj) {
+				return existing != null;
+			}
+		}
+	}
+
+	/**
+	 * Return the number of objects in the set.
+	 *
+	 * @return the number of objects
+	 */
+	int size() {
+		return size;
+	}
+
+	private void resize() {
+		Object[] oldTable = table;
+		Object[] newTable = new Object[oldTable.length * 2];
+		int mask = newTable.length - 1;
+		for (Object obj : oldTable) {
+			if (obj != null) {
+				int i = hash(obj) & mask;
+				while (newTable[i] != null) {
+					i = (i + 1) & mask;
+				}
+				newTable[i] = obj;
+			}
+		}
+		table = newTable;
+	}
+
+	static int hash(Object obj) {
+		int h = System.identityHashCode(obj);
+		// identity hashes are sequential on some VMs, spread them before masking
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
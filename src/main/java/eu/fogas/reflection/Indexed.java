@@ -0,0 +1,20 @@
+package eu.fogas.reflection;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class whose metadata index is generated at compile time by the {@code reflection-util-processor}
+ * annotation processor. {@link ReflectionUtil} reads the field names and the constructor signatures of an indexed
+ * class from its index, so looking up a field of the source or the default constructor does not list the declared
+ * members of the class. Other field names, such as synthetic fields, and classes without an index fall back to live
+ * reflection.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Indexed {
+}
@@ -0,0 +1,132 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.operation.InitializationException;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Function;
+
+/**
+ * Generates constructor invokers.
+ */
+final class InstanceFactories {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType FACTORY_TYPE = MethodType.methodType(InstanceFactory.class);
+	private static final MethodType NEW_INSTANCE_TYPE = MethodType.methodType(Object.class);
+	private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+	private InstanceFactories() {
+	}
+
+	/**
+	 * Generates an {@link InstanceFactory} for a constructor without parameters. The factory is spun with
+	 * {@link LambdaMetafactory}, so it costs the same as a direct constructor call. When the class is not reachable
+	 * with a private lookup (e.g. it is loaded by an other class loader) a method handle backed factory is returned.
+	 *
+	 * @param constructor the constructor without parameters
+	 * @param <T>         the type of the created objects
+	 * @return the instance factory
+	 * @throws InitializationException when the constructor cannot be invoked.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> InstanceFactory<T> generated(Constructor<T> constructor) {
+		Class<T> type = constructor.getDeclaringClass();
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, LOOKUP);
+			MethodHandle handle = lookup.unreflectConstructor(constructor);
+			return (InstanceFactory<T>) LambdaMetafactory.metafactory(lookup, "newInstance", FACTORY_TYPE,
+					NEW_INSTANCE_TYPE, handle, MethodType.methodType(type)).getTarget().invoke();
+		} catch (Throwable e) {
+			return methodHandle(constructor);
+		}
+	}
+
+	/**
+	 * Creates a method handle backed {@link InstanceFactory} for a constructor without parameters.
+	 *
+	 * @param constructor the constructor without parameters
+	 * @param <T>         the type of the created objects
+	 * @return the instance factory
+	 * @throws InitializationException when the constructor cannot be invoked.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> InstanceFactory<T> methodHandle(Constructor<T> constructor) {
+		MethodHandle handle = unreflect(constructor).asType(NEW_INSTANCE_TYPE);
+		return () -> {
+			try {
+				return (T) handle.invokeExact();
+			} catch (Throwable t) {
+				throw InstanceFactories.<RuntimeException>sneakyThrow(t);
+			}
+		};
+	}
+
+	/**
+	 * Creates a method handle backed constructor invoker which takes the constructor arguments as an array.
+	 *
+	 * @param constructor the constructor
+	 * @param <T>         the type of the created objects
+	 * @return the constructor invoker
+	 * @throws InitializationException when the constructor cannot be invoked.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> Function<Object[], T> withArguments(Constructor<T> constructor) {
+		MethodHandle handle = unreflect(constructor)
+				.asSpreader(Object[].class, constructor.getParameterCount())
+				.asType(SPREAD_TYPE);
+		return args -> {
+			try {
+				return (T) handle.invokeExact(args);
+			} catch (Throwable t) {
+				throw InstanceFactories.<RuntimeException>sneakyThrow(t);
+			}
+		};
+	}
+
+	/**
+	 * Creates a constructor invoker which calls {@link Constructor#newInstance(Object...)}.
+	 *
+	 * @param constructor the constructor
+	 * @param <T>         the type of the created objects
+	 * @return the constructor invoker
+	 */
+	static <T> Function<Object[], T> reflective(Constructor<T> constructor) {
+		if (!constructor.trySetAccessible()) {
+			ReflectionMetrics.accessibilityFailure(constructor);
+		}
+		return args -> {
+			try {
+				return constructor.newInstance(args);
+			} catch (InvocationTargetException e) {
+				throw InstanceFactories.<RuntimeException>sneakyThrow(e.getCause());
+			} catch (InstantiationException | IllegalAccessException e) {
+				var msg = String.format("Could not create instance of %s because %s",
+						constructor.getDeclaringClass().getCanonicalName(), e.getMessage());
+				throw new InitializationException(msg, e);
+			}
+		};
+	}
+
+	private static MethodHandle unreflect(Constructor<?> constructor) {
+		try {
+			if (!constructor.trySetAccessible()) {
+				ReflectionMetrics.accessibilityFailure(constructor);
+			}
+			return LOOKUP.unreflectConstructor(constructor);
+		} catch (IllegalAccessException e) {
+			var msg = String.format("Could not create instance of %s because %s",
+					constructor.getDeclaringClass().getCanonicalName(), e.getMessage());
+			throw new InitializationException(msg, e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	static <E extends Throwable> E sneakyThrow(Throwable e) throws E {
+		throw (E) e;
+	}
+}
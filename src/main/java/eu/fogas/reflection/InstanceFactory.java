@@ -0,0 +1,31 @@
+package eu.fogas.reflection;
+
+import java.util.function.Supplier;
+
+/**
+ * Creates new instances of a class with its default constructor.
+ * The factories returned by {@link ReflectionUtil#instanceFactory(Class)} are generated once per class and invoke the
+ * constructor directly, exceptions thrown by the constructor are propagated as they are.
+ *
+ * @param <T> the type of the created objects
+ */
+@FunctionalInterface
+public interface InstanceFactory<T> extends Supplier<T> {
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @return a new instance
+	 */
+	T newInstance();
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @return a new instance
+	 */
+	@Override
+	default T get() {
+		return newInstance();
+	}
+}
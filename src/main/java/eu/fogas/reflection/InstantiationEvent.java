@@ -0,0 +1,26 @@
+package eu.fogas.reflection;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event of an instance created by {@link ReflectionUtil#newInstance}, emitted while {@link ReflectionMetrics}
+ * are enabled.
+ */
+@Name("eu.fogas.reflection.Instantiation")
+@Label("Instantiation")
+@Category("Reflection Util")
+@Description("Instance created reflectively")
+final class InstantiationEvent extends Event {
+
+	@Label("Type")
+	Class<?> type;
+
+	@Label("Instantiation Time")
+	@Timespan
+	long instantiationTime;
+}
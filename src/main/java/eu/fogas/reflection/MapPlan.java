@@ -0,0 +1,82 @@
+package eu.fogas.reflection;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precompiled plan converting the objects of a class to and from a Map of field name to field value.
+ * The plan covers the non-static, non-synthetic fields of the class and of its super classes. When a field hides
+ * a field of a super class only the field of the subclass is mapped, as with {@link ReflectionUtil#getDeclaredField}.
+ */
+final class MapPlan {
+
+	private static final ClassValue<MapPlan> PLANS = new ClassValue<>() {
+		@Override
+		protected MapPlan computeValue(Class<?> type) {
+			return new MapPlan(type);
+		}
+	};
+
+	private final String[] names;
+	private final FieldAccessor<Object, Object>[] accessors;
+
+	@SuppressWarnings("unchecked")
+	private MapPlan(Class<?> type) {
+		List<String> fieldNames = new ArrayList<>();
+		Set<String> seen = new HashSet<>();
+		for (Field field : ClassMetadata.of(type).getFieldTable().getInstanceFields()) {
+			if (!field.isSynthetic() && seen.add(field.getName())) {
+				fieldNames.add(field.getName());
+			}
+		}
+		this.names = fieldNames.toArray(String[]::new);
+		this.accessors = new FieldAccessor[names.length];
+		for (int i = 0; i < names.length; i++) {
+			accessors[i] = ReflectionUtil.accessor(type, names[i]);
+		}
+	}
+
+	/**
+	 * Return the plan of the given class.
+	 *
+	 * @param type Class object
+	 * @return the cached plan of the class
+	 */
+	static MapPlan of(Class<?> type) {
+		return PLANS.get(type);
+	}
+
+	/**
+	 * Copies the field values of the object into a new map.
+	 *
+	 * @param obj the object to convert
+	 * @return map of field name to field value in field table order
+	 */
+	Map<String, Object> toMap(Object obj) {
+		Map<String, Object> result = new LinkedHashMap<>((int) (names.length / 0.75f) + 1);
+		for (int i = 0; i < names.length; i++) {
+			result.put(names[i], accessors[i].get(obj));
+		}
+		return result;
+	}
+
+	/**
+	 * Sets the fields of the target object which are present in the map, the other fields are left untouched.
+	 *
+	 * @param target the object to modify
+	 * @param values map of field name to field value
+	 */
+	void fromMap(Object target, Map<String, ?> values) {
+		for (int i = 0; i < names.length; i++) {
+			Object value = values.get(names[i]);
+			if (value != null || values.containsKey(names[i])) {
+				accessors[i].set(target, value);
+			}
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package eu.fogas.reflection;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Metadata of an {@link Indexed} class generated at compile time: the declared fields and the parameter types of
+ * the declared constructors. Types are stored by name, in the format of {@link Class#getName()}, so reading the
+ * index loads no classes. The indexes persisted by {@link MetadataStore} also hold the members of the class: every
+ * field of the class and of its super classes with the offset in the hierarchy of the class declaring it.
+ */
+final class MetadataIndex {
+
+	static final String LOCATION = "META-INF/reflection-util/";
+	static final String HEADER = "# reflection-util metadata index v1";
+
+	private final String superclass;
+	private final Map<String, FieldEntry> fields;
+	private final List<List<String>> constructors;
+	private final Map<String, Integer> members;
+
+	private MetadataIndex(String superclass, Map<String, FieldEntry> fields, List<List<String>> constructors,
+			Map<String, Integer> members) {
+		this.superclass = superclass;
+		this.fields = fields;
+		this.constructors = constructors;
+		this.members = members;
+	}
+
+	/**
+	 * Loads the index of the class.
+	 *
+	 * @param type Class object
+	 * @return the index or null when the class is not {@link Indexed}, or its index is missing or unreadable
+	 */
+	static MetadataIndex load(Class<?> type) {
+		ClassLoader classLoader = type.getClassLoader();
+		if (classLoader == null || !type.isAnnotationPresent(Indexed.class)) {
+			return null;
+		}
+		try (InputStream in = classLoader.getResourceAsStream(LOCATION + type.getName() + ".index")) {
+			return in == null ? null : parse(in, type.getName());
+		} catch (IOException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Parses the content of an index.
+	 *
+	 * @param in       the content of the index
+	 * @param typeName the binary name of the indexed class
+	 * @return the index or null when the index belongs to an other class or has an unknown version
+	 * @throws IOException when the index cannot be read.
+	 */
+	static MetadataIndex parse(InputStream in, String typeName) throws IOException {
+		var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		if (!HEADER.equals(reader.readLine())) {
+			return null;
+		}
+		String superclass = null;
+		Map<String, FieldEntry> fields = new LinkedHashMap<>();
+		List<List<String>> constructors = new ArrayList<>();
+		Map<String, Integer> members = new HashMap<>();
+		for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+			String[] parts = line.split(" ", -1);
+			switch (parts[0]) {
+				case "class":
+					if (!parts[1].equals(typeName)) {
+						return null;
+					}
+					break;
+				case "super":
+					superclass = parts[1];
+					break;
+				case "field":
+					fields.put(parts[1], new FieldEntry(parts[1], Integer.parseInt(parts[2]), parts[3]));
+					break;
+				case "constructor":
+					constructors.add(parts[2].isEmpty() ? List.of() : List.of(parts[2].split(",")));
+					break;
+				case "member":
+					members.put(parts[1], Integer.parseInt(parts[2]));
+					break;
+				default:
+					break;
+			}
+		}
+		return new MetadataIndex(superclass, Collections.unmodifiableMap(fields),
+				Collections.unmodifiableList(constructors), members);
+	}
+
+	/**
+	 * Describes the declared members of a loaded class in the index format, as the annotation processor does for the
+	 * source of an {@link Indexed} class, followed by the members of the class: the fields of the class and of its
+	 * super classes, each with the offset of the nearest class declaring it, as {@link ReflectionUtil} resolves them.
+	 *
+	 * @param type Class object
+	 * @return the content of the index of the class
+	 */
+	static String describe(Class<?> type) {
+		StringBuilder result = new StringBuilder(HEADER).append('\n');
+		result.append("class ").append(type.getName()).append(' ').append(type.getModifiers()).append('\n');
+		if (type.getSuperclass() != null) {
+			result.append("super ").append(type.getSuperclass().getName()).append('\n');
+		}
+		for (Field field : type.getDeclaredFields()) {
+			result.append("field ").append(field.getName()).append(' ').append(field.getModifiers()).append(' ')
+					.append(field.getType().getName()).append('\n');
+		}
+		for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+			StringJoiner parameters = new StringJoiner(",");
+			for (Class<?> parameter : constructor.getParameterTypes()) {
+				parameters.add(parameter.getName());
+			}
+			result.append("constructor ").append(constructor.getModifiers()).append(' ').append(parameters)
+					.append('\n');
+		}
+		Set<String> names = new HashSet<>();
+		int depth = 0;
+		for (Class<?> t = type; t != null; t = t.getSuperclass(), depth++) {
+			for (Field field : t.getDeclaredFields()) {
+				if (names.add(field.getName())) {
+					result.append("member ").append(field.getName()).append(' ').append(depth).append('\n');
+				}
+			}
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Return the binary name of the super class.
+	 *
+	 * @return the name of the super class or null when the class has none
+	 */
+	String getSuperclass() {
+		return superclass;
+	}
+
+	/**
+	 * Return whether the class declares a field with the given name.
+	 *
+	 * @param fieldName the simple name of the field
+	 * @return true when the class declares the field
+	 */
+	boolean hasField(String fieldName) {
+		return fields.containsKey(fieldName);
+	}
+
+	/**
+	 * Return the offset in the hierarchy of the class declaring the field resolved by the given name, 0 for the class
+	 * itself, 1 for its super class, and so on.
+	 *
+	 * @param fieldName the simple name of the field
+	 * @return the offset or -1 when the index holds no member with the name, as the generated indexes
+	 */
+	int getMemberDepth(String fieldName) {
+		return members.getOrDefault(fieldName, -1);
+	}
+
+	/**
+	 * Return the declared fields in declaration order.
+	 *
+	 * @return the declared fields
+	 */
+	Collection<FieldEntry> getFields() {
+		return fields.values();
+	}
+
+	/**
+	 * Return the parameter types of the declared constructors in declaration order.
+	 *
+	 * @return the parameter type names of the constructors
+	 */
+	List<List<String>> getConstructors() {
+		return constructors;
+	}
+
+	/**
+	 * Return whether the source of the class declares a constructor without parameters. The constructors of inner
+	 * classes and enums get implicit parameters when compiled, so they may still have none at runtime.
+	 *
+	 * @return true when the class declares a constructor without parameters
+	 */
+	boolean hasDefaultConstructor() {
+		for (List<String> parameters : constructors) {
+			if (parameters.isEmpty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Declared field of an indexed class.
+	 *
+	 * @param name      the simple name of the field
+	 * @param modifiers the modifiers of the field, see {@link java.lang.reflect.Modifier}
+	 * @param typeName  the name of the erased field type
+	 */
+	record FieldEntry(String name, int modifiers, String typeName) {
+	}
+}
@@ -0,0 +1,329 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.operation.MetadataCacheException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persisted cache of the {@link MetadataIndex} of the classes resolved by {@link ReflectionUtil}. The resolved
+ * classes are only recorded once persistence is enabled, by the {@link #PROPERTY} or by {@link #record()}.
+ * The file is memory-mapped when it is loaded and only its directory, the class names with the stamp of their class
+ * files and the location of their index, is read up front. The index of a class is parsed when its metadata is first
+ * resolved, and only when the stamp still matches the stored one, so stale entries fall back to live reflection.
+ * The stamp of a class combines the last modified time and the size of the files the class and its super classes are
+ * loaded from: their jars, read once per jar, their class files when they are loaded from a directory, and the runtime
+ * image for the JDK classes. No class file is read.
+ * <p>
+ * File format, big endian: the magic number, the version, the number of entries, then per entry the UTF-8 class name
+ * prefixed by its length, the stamp, the offset and the length of the index; then the indexes in the format of
+ * {@link MetadataIndex}.
+ */
+final class MetadataStore {
+
+	/**
+	 * System property holding the path of the cache file which is loaded on startup when it exists.
+	 */
+	static final String PROPERTY = "eu.fogas.reflection.metadataCache";
+
+	private static final int MAGIC = 0x52554D43;
+	private static final int VERSION = 2;
+	private static final Path RUNTIME_IMAGE = Paths.get(System.getProperty("java.home"), "lib", "modules");
+
+	/**
+	 * Stamp of a code source which is not a directory, the jars and the runtime image, by location.
+	 */
+	private static final Map<String, Long> LOCATION_STAMPS = new ConcurrentHashMap<>();
+
+	/**
+	 * Stamp of a directory code source, whose classes are stamped one by one.
+	 */
+	private static final long DIRECTORY = -2;
+
+	private static final Set<Class<?>> RESOLVED = Collections.newSetFromMap(new WeakHashMap<>());
+	private static volatile boolean recording = System.getProperty(PROPERTY) != null;
+	private static volatile Store store = loadDefault();
+
+	private MetadataStore() {
+	}
+
+	/**
+	 * Starts recording the resolved classes. Recording is on from the start when the {@link #PROPERTY} is set.
+	 */
+	static void record() {
+		recording = true;
+	}
+
+	/**
+	 * Records the class as resolved while recording is on, so it is written by {@link #save(Path)}.
+	 *
+	 * @param type Class object
+	 */
+	static void resolved(Class<?> type) {
+		if (!recording) {
+			return;
+		}
+		synchronized (RESOLVED) {
+			RESOLVED.add(type);
+		}
+	}
+
+	/**
+	 * Return the index of the class from the loaded cache file.
+	 *
+	 * @param type Class object
+	 * @return the index or null when no file is loaded, the class is not in it or its stamp has changed
+	 */
+	static MetadataIndex index(Class<?> type) {
+		Store current = store;
+		return current == null ? null : current.index(type);
+	}
+
+	/**
+	 * Writes the index of the classes resolved while recording to the file, replacing it.
+	 *
+	 * @param file the cache file
+	 * @return the number of classes written
+	 * @throws MetadataCacheException when the file cannot be written.
+	 */
+	static int save(Path file) {
+		List<Class<?>> types;
+		synchronized (RESOLVED) {
+			types = new ArrayList<>(RESOLVED);
+		}
+		return save(file, types);
+	}
+
+	/**
+	 * Writes the index of the classes to the file, replacing it. The classes without a stamp, like the hidden classes
+	 * and the classes defined without a code source, are skipped.
+	 *
+	 * @param file  the cache file
+	 * @param types the classes to write
+	 * @return the number of classes written
+	 * @throws MetadataCacheException when the file cannot be written.
+	 */
+	static int save(Path file, Collection<Class<?>> types) {
+		List<String> names = new ArrayList<>();
+		List<Long> stamps = new ArrayList<>();
+		List<byte[]> indexes = new ArrayList<>();
+		for (Class<?> type : types) {
+			long stamp = stamp(type);
+			if (stamp >= 0) {
+				names.add(type.getName());
+				stamps.add(stamp);
+				indexes.add(MetadataIndex.describe(type).getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		try {
+			var bytes = new ByteArrayOutputStream();
+			var out = new DataOutputStream(bytes);
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(names.size());
+			int directorySize = 12;
+			for (String name : names) {
+				directorySize += 4 + name.getBytes(StandardCharsets.UTF_8).length + 8 + 4 + 4;
+			}
+			int offset = directorySize;
+			for (int i = 0; i < names.size(); i++) {
+				byte[] name = names.get(i).getBytes(StandardCharsets.UTF_8);
+				out.writeInt(name.length);
+				out.write(name);
+				out.writeLong(stamps.get(i));
+				out.writeInt(offset);
+				out.writeInt(indexes.get(i).length);
+				offset += indexes.get(i).length;
+			}
+			for (byte[] index : indexes) {
+				out.write(index);
+			}
+			out.flush();
+			Path absolute = file.toAbsolutePath();
+			Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+			Files.write(temp, bytes.toByteArray());
+			Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+			return names.size();
+		} catch (IOException e) {
+			throw new MetadataCacheException("Could not write the metadata cache " + file + " because "
+					+ e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Maps the file and uses it for the classes resolved from now on.
+	 *
+	 * @param file the cache file
+	 * @return the number of classes in the file
+	 * @throws MetadataCacheException when the file cannot be read or is not a metadata cache.
+	 */
+	static int load(Path file) {
+		Store loaded = Store.map(file);
+		store = loaded;
+		return loaded.entries.size();
+	}
+
+	/**
+	 * Return the stamp of the class and of its super classes, which changes when any of them is rebuilt.
+	 *
+	 * @param type Class object
+	 * @return the stamp or -1 when the file of the class or of a super class cannot be located
+	 */
+	static long stamp(Class<?> type) {
+		long result = 1;
+		for (Class<?> t = type; t != null; t = t.getSuperclass()) {
+			long stamp = fileStamp(t);
+			if (stamp < 0) {
+				return -1;
+			}
+			result = 31 * result + stamp;
+		}
+		return result & Long.MAX_VALUE;
+	}
+
+	/**
+	 * Return the stamp of the file the class is loaded from. The stamps of the jars and of the runtime image are read
+	 * once, the class files of directories are stamped on each call.
+	 */
+	private static long fileStamp(Class<?> type) {
+		if (type.isPrimitive() || type.isArray() || type.isHidden()) {
+			return -1;
+		}
+		CodeSource source = type.getProtectionDomain().getCodeSource();
+		URL location = source == null ? null : source.getLocation();
+		if (location == null && type.getClassLoader() != null) {
+			// only the bootstrap classes, loaded from the runtime image, have no location
+			return -1;
+		}
+		String key = location == null ? "jrt:/" : location.toString();
+		long stamp = LOCATION_STAMPS.computeIfAbsent(key, k -> locationStamp(location));
+		if (stamp != DIRECTORY) {
+			return stamp;
+		}
+		try {
+			return fileStamp(Paths.get(location.toURI()).resolve(type.getName().replace('.', '/') + ".class"));
+		} catch (URISyntaxException | RuntimeException e) {
+			return -1;
+		}
+	}
+
+	private static long locationStamp(URL location) {
+		if (location == null || location.getProtocol().equals("jrt")) {
+			return fileStamp(RUNTIME_IMAGE);
+		}
+		if (!location.getProtocol().equals("file")) {
+			return -1;
+		}
+		try {
+			Path path = Paths.get(location.toURI());
+			return Files.isDirectory(path) ? DIRECTORY : fileStamp(path);
+		} catch (URISyntaxException | RuntimeException e) {
+			return -1;
+		}
+	}
+
+	private static long fileStamp(Path file) {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			return (31 * attributes.lastModifiedTime().toMillis() + attributes.size()) & Long.MAX_VALUE;
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
+	private static Store loadDefault() {
+		String path = System.getProperty(PROPERTY);
+		if (path == null || !Files.isReadable(Paths.get(path))) {
+			return null;
+		}
+		try {
+			return Store.map(Paths.get(path));
+		} catch (MetadataCacheException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Location of the index of a class in the mapped file.
+	 */
+	private record Entry(long stamp, int offset, int length) {
+	}
+
+	/**
+	 * A mapped cache file.
+	 */
+	private static final class Store {
+		private final ByteBuffer buffer;
+		private final Map<String, Entry> entries;
+
+		private Store(ByteBuffer buffer, Map<String, Entry> entries) {
+			this.buffer = buffer;
+			this.entries = entries;
+		}
+
+		static Store map(Path file) {
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+					throw new MetadataCacheException(file + " is not a metadata cache of version " + VERSION);
+				}
+				int count = buffer.getInt();
+				Map<String, Entry> entries = new HashMap<>(count * 2);
+				for (int i = 0; i < count; i++) {
+					byte[] name = new byte[buffer.getInt()];
+					buffer.get(name);
+					entries.put(new String(name, StandardCharsets.UTF_8),
+							new Entry(buffer.getLong(), buffer.getInt(), buffer.getInt()));
+				}
+				return new Store(buffer, entries);
+			} catch (IOException | RuntimeException e) {
+				if (e instanceof MetadataCacheException) {
+					throw (MetadataCacheException) e;
+				}
+				throw new MetadataCacheException("Could not read the metadata cache " + file + " because "
+						+ e.getMessage(), e);
+			}
+		}
+
+		MetadataIndex index(Class<?> type) {
+			Entry entry = entries.get(type.getName());
+			if (entry == null) {
+				return null;
+			}
+			if (entry.stamp() != stamp(type)) {
+				return null;
+			}
+			byte[] content = new byte[entry.length()];
+			buffer.duplicate().position(entry.offset()).get(content);
+			try {
+				return MetadataIndex.parse(new ByteArrayInputStream(content), type.getName());
+			} catch (IOException | RuntimeException e) {
+				return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.spi.AccessStrategy;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.function.Function;
+
+/**
+ * Access strategy backed by method handles.
+ */
+class MethodHandleAccessStrategy implements AccessStrategy {
+
+	@Override
+	public String getName() {
+		return "methodHandle";
+	}
+
+	@Override
+	public <T, V> FieldAccessor<T, V> fieldAccessor(Field field) {
+		return new MethodHandleFieldAccessor<>(field);
+	}
+
+	@Override
+	public <T> InstanceFactory<T> instanceFactory(Constructor<T> constructor) {
+		return InstanceFactories.methodHandle(constructor);
+	}
+
+	@Override
+	public <T> Function<Object[], T> constructorInvoker(Constructor<T> constructor) {
+		return InstanceFactories.withArguments(constructor);
+	}
+}
@@ -0,0 +1,337 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.field.FieldValueCannotChangedException;
+import eu.fogas.reflection.exception.field.FieldValueCannotReadException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * {@link FieldAccessor} backed by getter and setter method handles. The access checks are done once, when the
+ * handles are created.
+ *
+ * @param <T> the type of the object holding the field
+ * @param <V> the type of the field value
+ */
+final class MethodHandleFieldAccessor<T, V> implements FieldAccessor<T, V> {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final Field field;
+	private final MethodHandle typedGetter;
+	private final MethodHandle typedSetter;
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+
+	MethodHandleFieldAccessor(Field field) {
+		this.field = field;
+		if (!field.trySetAccessible()) {
+			ReflectionMetrics.accessibilityFailure(field);
+		}
+		this.typedGetter = getter(field);
+		this.typedSetter = setter(field);
+		this.getter = typedGetter == null ? null : typedGetter.asType(GETTER_TYPE);
+		this.setter = typedSetter == null ? null : typedSetter.asType(SETTER_TYPE);
+	}
+
+	@Override
+	public Field getField() {
+		return field;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(T obj) {
+		if (getter == null) {
+			throw new FieldValueCannotReadException(field);
+		}
+		try {
+			return (V) (Object) getter.invokeExact((Object) obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void set(T obj, V value) {
+		if (setter == null) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+		if (value == null && field.getType().isPrimitive()) {
+			throw new IllegalArgumentException("Can not set " + field + " to null value");
+		}
+		try {
+			setter.invokeExact((Object) obj, (Object) value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public boolean getBoolean(T obj) {
+		MethodHandle handle = typedGetter(boolean.class);
+		try {
+			return (boolean) handle.invokeExact((Object) obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setBoolean(T obj, boolean value) {
+		MethodHandle handle = typedSetter(boolean.class);
+		if (handle == null) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+		try {
+			handle.invokeExact((Object) obj, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public byte getByte(T obj) {
+		MethodHandle handle = typedGetter(byte.class);
+		try {
+			return (byte) handle.invokeExact((Object) obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setByte(T obj, byte value) {
+		MethodHandle handle = typedSetter(byte.class);
+		if (handle == null) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+		try {
+			handle.invokeExact((Object) obj, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public char getChar(T obj) {
+		MethodHandle handle = typedGetter(char.class);
+		try {
+			return (char) handle.invokeExact((Object) obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setChar(T obj, char value) {
+		MethodHandle handle = typedSetter(char.class);
+		if (handle == null) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+		try {
+			handle.invokeExact((Object) obj, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public short getShort(T obj) {
+		MethodHandle handle = typedGetter(short.class);
+		try {
+			return (short) handle.invokeExact((Object) obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setShort(T obj, short value) {
+		MethodHandle handle = typedSetter(short.class);
+		if (handle == null) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+		try {
+			handle.invokeExact((Object) obj, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public int getInt(T obj) {
+		MethodHandle handle = typedGetter(int.class);
+		try {
+			return (int) handle.invokeExact((Object) obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setInt(T obj, int value) {
+		MethodHandle handle = typedSetter(int.class);
+		if (handle == null) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+		try {
+			handle.invokeExact((Object) obj, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public long getLong(T obj) {
+		MethodHandle handle = typedGetter(long.class);
+		try {
+			return (long) handle.invokeExact((Object) obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setLong(T obj, long value) {
+		MethodHandle handle = typedSetter(long.class);
+		if (handle == null) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+		try {
+			handle.invokeExact((Object) obj, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public float getFloat(T obj) {
+		MethodHandle handle = typedGetter(float.class);
+		try {
+			return (float) handle.invokeExact((Object) obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setFloat(T obj, float value) {
+		MethodHandle handle = typedSetter(float.class);
+		if (handle == null) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+		try {
+			handle.invokeExact((Object) obj, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public double getDouble(T obj) {
+		MethodHandle handle = typedGetter(double.class);
+		try {
+			return (double) handle.invokeExact((Object) obj);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	@Override
+	public void setDouble(T obj, double value) {
+		MethodHandle handle = typedSetter(double.class);
+		if (handle == null) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+		try {
+			handle.invokeExact((Object) obj, value);
+		} catch (Throwable e) {
+			throw rethrow(e);
+		}
+	}
+
+	private MethodHandle typedGetter(Class<?> type) {
+		if (field.getType() != type) {
+			throw new IllegalArgumentException("Can not get " + type + " value of " + field);
+		}
+		if (typedGetter == null) {
+			throw new FieldValueCannotReadException(field);
+		}
+		return typedGetter;
+	}
+
+	private MethodHandle typedSetter(Class<?> type) {
+		if (field.getType() != type) {
+			throw new IllegalArgumentException("Can not set " + field + " to " + type + " value");
+		}
+		return typedSetter;
+	}
+
+	/**
+	 * Return a getter handle with the (Object)fieldType signature or null when the field is not readable.
+	 * The field is made accessible only when the handle cannot be created otherwise, the accessibility failures are
+	 * recorded by the accessors, not by the plans asking for handles.
+	 */
+	static MethodHandle getter(Field field) {
+		try {
+			MethodHandle handle;
+			try {
+				handle = LOOKUP.unreflectGetter(field);
+			} catch (IllegalAccessException e) {
+				if (!field.trySetAccessible()) {
+					return null;
+				}
+				handle = LOOKUP.unreflectGetter(field);
+			}
+			if (Modifier.isStatic(field.getModifiers())) {
+				return MethodHandles.dropArguments(handle, 0, Object.class);
+			}
+			return handle.asType(MethodType.methodType(field.getType(), Object.class));
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Return a setter handle with the (Object, fieldType)void signature or null when the field is not writable.
+	 * The field is made accessible like by {@link #getter(Field)}.
+	 */
+	static MethodHandle setter(Field field) {
+		try {
+			MethodHandle handle;
+			try {
+				handle = LOOKUP.unreflectSetter(field);
+			} catch (IllegalAccessException e) {
+				if (!field.trySetAccessible()) {
+					return null;
+				}
+				handle = LOOKUP.unreflectSetter(field);
+			}
+			if (Modifier.isStatic(field.getModifiers())) {
+				return MethodHandles.dropArguments(handle, 0, Object.class);
+			}
+			return handle.asType(MethodType.methodType(void.class, Object.class, field.getType()));
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	static RuntimeException rethrow(Throwable e) {
+		if (e instanceof ClassCastException) {
+			return new IllegalArgumentException(e.getMessage(), e);
+		}
+		if (e instanceof RuntimeException) {
+			return (RuntimeException) e;
+		}
+		if (e instanceof Error) {
+			throw (Error) e;
+		}
+		return new IllegalStateException(e);
+	}
+}
@@ -0,0 +1,158 @@
+package eu.fogas.reflection;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates the heap size of objects from the layout rules of the 64-bit HotSpot JVM: an object is a header followed
+ * by its instance fields, compressed references take 4 bytes, and every object is padded to the object alignment.
+ * The reference size, the header sizes and the alignment are read from the flags of the running JVM, with the
+ * defaults of a 64-bit JVM with compressed references when they are not available.
+ */
+final class ObjectSizes {
+
+	/**
+	 * The size of a reference field or array element in bytes.
+	 */
+	static final int REFERENCE_SIZE;
+	/**
+	 * The size of the header of an object in bytes.
+	 */
+	static final int OBJECT_HEADER;
+	/**
+	 * The offset of the first element of an array in bytes.
+	 */
+	static final int ARRAY_HEADER;
+	/**
+	 * Every object is padded to a multiple of the alignment.
+	 */
+	static final int ALIGNMENT;
+
+	static {
+		boolean compressedOops = Boolean.parseBoolean(vmOption("UseCompressedOops", "true"));
+		boolean compressedClassPointers = Boolean.parseBoolean(vmOption("UseCompressedClassPointers", "true"));
+		REFERENCE_SIZE = compressedOops ? 4 : 8;
+		OBJECT_HEADER = compressedClassPointers ? 12 : 16;
+		ARRAY_HEADER = compressedClassPointers ? 16 : 24;
+		ALIGNMENT = Integer.parseInt(vmOption("ObjectAlignmentInBytes", "8"));
+	}
+
+	private static final ClassValue<Long> SHALLOW_SIZES = new ClassValue<>() {
+		@Override
+		protected Long computeValue(Class<?> type) {
+			if (type.isArray()) {
+				return align(ARRAY_HEADER);
+			}
+			long size = OBJECT_HEADER;
+			for (Field field : ClassMetadata.of(type).getFieldTable().getInstanceFields()) {
+				size += typeSize(field.getType());
+			}
+			return align(size);
+		}
+	};
+
+	private ObjectSizes() {
+	}
+
+	/**
+	 * Return the size of an instance of the class, without the objects it references. The size of an array class
+	 * is the size of an empty array. The sizes are cached per class.
+	 *
+	 * @param type Class object, not primitive
+	 * @return the size in bytes
+	 */
+	static long shallowSize(Class<?> type) {
+		return SHALLOW_SIZES.get(type);
+	}
+
+	/**
+	 * Return the size of the object with its internal arrays which are not reachable through the {@link GraphWalker}:
+	 * the elements of arrays, the value of strings and the tables and nodes of the collections and maps of the JDK.
+	 *
+	 * @param obj an object
+	 * @return the size in bytes
+	 */
+	static long sizeOf(Object obj) {
+		Class<?> type = obj.getClass();
+		if (type.isArray()) {
+			return arraySize(typeSize(type.getComponentType()), Array.getLength(obj));
+		}
+		long size = shallowSize(type);
+		if (obj instanceof String) {
+			String value = (String) obj;
+			size += arraySize(isLatin1(value) ? 1 : 2, value.length());
+		} else if (obj instanceof Map || obj instanceof Set) {
+			if (!isOpen(type)) {
+				int entries = obj instanceof Map ? ((Map<?, ?>) obj).size() : ((Set<?>) obj).size();
+				size += hashTableSize(entries);
+			}
+		} else if (obj instanceof Collection && !isOpen(type)) {
+			size += arraySize(REFERENCE_SIZE, ((Collection<?>) obj).size());
+		}
+		return size;
+	}
+
+	/**
+	 * Return the size of the table and of the nodes of a hash table with the given number of entries, at the default
+	 * load factor.
+	 */
+	private static long hashTableSize(int entries) {
+		if (entries == 0) {
+			return 0;
+		}
+		int capacity = Integer.highestOneBit(Math.max(1, (int) (entries / 0.75f)) * 2 - 1);
+		long node = align(OBJECT_HEADER + 4 + 3L * REFERENCE_SIZE);
+		return arraySize(REFERENCE_SIZE, capacity) + entries * node;
+	}
+
+	private static long arraySize(int elementSize, int length) {
+		return align(ARRAY_HEADER + (long) elementSize * length);
+	}
+
+	private static boolean isLatin1(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) > 0xFF) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int typeSize(Class<?> type) {
+		if (type == long.class || type == double.class) {
+			return 8;
+		}
+		if (type == int.class || type == float.class) {
+			return 4;
+		}
+		if (type == short.class || type == char.class) {
+			return 2;
+		}
+		if (type == byte.class || type == boolean.class) {
+			return 1;
+		}
+		return REFERENCE_SIZE;
+	}
+
+	private static boolean isOpen(Class<?> type) {
+		return type.getModule().isOpen(type.getPackageName(), ObjectSizes.class.getModule());
+	}
+
+	private static long align(long size) {
+		return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+	}
+
+	private static String vmOption(String name, String defaultValue) {
+		try {
+			return ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).getVMOption(name).getValue();
+		} catch (RuntimeException | LinkageError e) {
+			return defaultValue;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.field.FieldNotFoundException;
+
+import java.util.List;
+
+/**
+ * Struct-of-arrays projection of fields of many objects, see
+ * {@link ReflectionUtil#project(Class, List, Iterable)}. Each projected field is a column holding one value per
+ * object, in iteration order. Fields of type boolean, byte, char, short and int are stored in int columns (a boolean
+ * is 1 or 0), long fields in long columns, float and double fields in double columns and reference fields in Object
+ * columns. The returned columns are not copied, changing them changes the projection.
+ */
+public final class Projection {
+
+	private final ProjectionPlan plan;
+	private final int size;
+	private final int[][] ints;
+	private final long[][] longs;
+	private final double[][] doubles;
+	private final Object[][] objects;
+
+	Projection(ProjectionPlan plan, int size, int[][] ints, long[][] longs, double[][] doubles, Object[][] objects) {
+		this.plan = plan;
+		this.size = size;
+		this.ints = ints;
+		this.longs = longs;
+		this.doubles = doubles;
+		this.objects = objects;
+	}
+
+	/**
+	 * Return the number of projected objects, the length of every column.
+	 *
+	 * @return the number of rows
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return the names of the projected fields.
+	 *
+	 * @return unmodifiable list of the field names in the requested order
+	 */
+	public List<String> getFieldNames() {
+		return plan.getNames();
+	}
+
+	/**
+	 * Return the type of the column of the field: int, long, double or Object.
+	 *
+	 * @param fieldName the name of a projected field
+	 * @return int.class, long.class, double.class or Object.class
+	 * @throws FieldNotFoundException if the field is not projected.
+	 */
+	public Class<?> getColumnType(final String fieldName) {
+		return column(fieldName).kind();
+	}
+
+	/**
+	 * Return the int column of the field.
+	 *
+	 * @param fieldName the name of a projected boolean, byte, char, short or int field
+	 * @return the values of the field
+	 * @throws FieldNotFoundException   if the field is not projected.
+	 * @throws IllegalArgumentException if the field is not projected into an int column.
+	 */
+	public int[] getIntColumn(final String fieldName) {
+		return ints[index(fieldName, int.class)];
+	}
+
+	/**
+	 * Return the long column of the field.
+	 *
+	 * @param fieldName the name of a projected long field
+	 * @return the values of the field
+	 * @throws FieldNotFoundException   if the field is not projected.
+	 * @throws IllegalArgumentException if the field is not projected into a long column.
+	 */
+	public long[] getLongColumn(final String fieldName) {
+		return longs[index(fieldName, long.class)];
+	}
+
+	/**
+	 * Return the double column of the field.
+	 *
+	 * @param fieldName the name of a projected float or double field
+	 * @return the values of the field
+	 * @throws FieldNotFoundException   if the field is not projected.
+	 * @throws IllegalArgumentException if the field is not projected into a double column.
+	 */
+	public double[] getDoubleColumn(final String fieldName) {
+		return doubles[index(fieldName, double.class)];
+	}
+
+	/**
+	 * Return the Object column of the field.
+	 *
+	 * @param fieldName the name of a projected reference field
+	 * @return the values of the field
+	 * @throws FieldNotFoundException   if the field is not projected.
+	 * @throws IllegalArgumentException if the field is not projected into an Object column.
+	 */
+	public Object[] getObjectColumn(final String fieldName) {
+		return objects[index(fieldName, Object.class)];
+	}
+
+	private int index(String fieldName, Class<?> kind) {
+		ProjectionPlan.Column column = column(fieldName);
+		if (column.kind() != kind) {
+			throw new IllegalArgumentException(String.format("%s is projected into a %s column, not %s", fieldName,
+					column.kind().getSimpleName(), kind.getSimpleName()));
+		}
+		return column.index();
+	}
+
+	private ProjectionPlan.Column column(String fieldName) {
+		ProjectionPlan.Column column = plan.getColumn(fieldName);
+		if (column == null) {
+			throw new FieldNotFoundException(plan.getType(), fieldName);
+		}
+		return column;
+	}
+}
@@ -0,0 +1,213 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.field.FieldNotFoundException;
+import eu.fogas.reflection.exception.field.FieldValueCannotReadException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precompiled plan projecting selected fields of the objects of a class into columns.
+ * Fields of type boolean, byte, char, short and int are projected into int columns (a boolean is 1 or 0), long
+ * fields into long columns, float and double fields into double columns and reference fields into Object columns.
+ * The getters are exact typed method handles, so primitive values are not boxed.
+ * The plans are cached per class and list of field names.
+ */
+final class ProjectionPlan {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final ClassValue<ClockCache<ProjectionPlan>> PLANS = new ClassValue<>() {
+		@Override
+		protected ClockCache<ProjectionPlan> computeValue(Class<?> type) {
+			return new ClockCache<>(ClassMetadata.CACHE_SIZE);
+		}
+	};
+
+	private final Class<?> type;
+	private final List<String> names;
+	private final Map<String, Column> columns = new LinkedHashMap<>();
+	private final MethodHandle[] intGetters;
+	private final MethodHandle[] longGetters;
+	private final MethodHandle[] doubleGetters;
+	private final MethodHandle[] objectGetters;
+
+	private ProjectionPlan(Class<?> type, List<String> names) {
+		this.type = type;
+		this.names = List.copyOf(names);
+		List<MethodHandle> ints = new ArrayList<>();
+		List<MethodHandle> longs = new ArrayList<>();
+		List<MethodHandle> doubles = new ArrayList<>();
+		List<MethodHandle> objects = new ArrayList<>();
+		for (String name : this.names) {
+			if (columns.containsKey(name)) {
+				continue;
+			}
+			Field field = findField(type, name);
+			MethodHandle getter = MethodHandleFieldAccessor.getter(field);
+			if (getter == null) {
+				throw new FieldValueCannotReadException(field);
+			}
+			Class<?> fieldType = field.getType();
+			if (fieldType == long.class) {
+				columns.put(name, new Column(long.class, longs.size()));
+				longs.add(getter.asType(MethodType.methodType(long.class, Object.class)));
+			} else if (fieldType == double.class || fieldType == float.class) {
+				columns.put(name, new Column(double.class, doubles.size()));
+				doubles.add(getter.asType(MethodType.methodType(double.class, Object.class)));
+			} else if (fieldType == boolean.class) {
+				columns.put(name, new Column(int.class, ints.size()));
+				ints.add(MethodHandles.filterReturnValue(getter, booleanToInt()).asType(getterType(int.class)));
+			} else if (fieldType.isPrimitive()) {
+				columns.put(name, new Column(int.class, ints.size()));
+				ints.add(getter.asType(getterType(int.class)));
+			} else {
+				columns.put(name, new Column(Object.class, objects.size()));
+				objects.add(getter.asType(getterType(Object.class)));
+			}
+		}
+		this.intGetters = ints.toArray(MethodHandle[]::new);
+		this.longGetters = longs.toArray(MethodHandle[]::new);
+		this.doubleGetters = doubles.toArray(MethodHandle[]::new);
+		this.objectGetters = objects.toArray(MethodHandle[]::new);
+	}
+
+	/**
+	 * Return the plan of the given class and fields.
+	 *
+	 * @param type       Class object
+	 * @param fieldNames the names of the projected fields
+	 * @return the cached plan
+	 * @throws FieldNotFoundException        if a field is not found.
+	 * @throws FieldValueCannotReadException if a field cannot be read.
+	 */
+	static ProjectionPlan of(Class<?> type, List<String> fieldNames) {
+		return PLANS.get(type).computeIfAbsent(String.join(",", fieldNames),
+				key -> new ProjectionPlan(type, fieldNames));
+	}
+
+	/**
+	 * Projects the objects into a new projection.
+	 *
+	 * @param objects the objects to project, instances of the class of the plan
+	 * @return the projection holding one row per object
+	 */
+	Projection project(Iterable<?> objects) {
+		int capacity = objects instanceof Collection ? ((Collection<?>) objects).size() : INITIAL_CAPACITY;
+		int[][] ints = new int[intGetters.length][capacity];
+		long[][] longs = new long[longGetters.length][capacity];
+		double[][] doubles = new double[doubleGetters.length][capacity];
+		Object[][] refs = new Object[objectGetters.length][capacity];
+		int row = 0;
+		try {
+			for (Object obj : objects) {
+				if (row == capacity) {
+					capacity = Math.max(INITIAL_CAPACITY, capacity * 2);
+					resize(ints, longs, doubles, refs, capacity);
+				}
+				for (int i = 0; i < intGetters.length; i++) {
+					ints[i][row] = (int) intGetters[i].invokeExact(obj);
+				}
+				for (int i = 0; i < longGetters.length; i++) {
+					longs[i][row] = (long) longGetters[i].invokeExact(obj);
+				}
+				for (int i = 0; i < doubleGetters.length; i++) {
+					doubles[i][row] = (double) doubleGetters[i].invokeExact(obj);
+				}
+				for (int i = 0; i < objectGetters.length; i++) {
+					refs[i][row] = (Object) objectGetters[i].invokeExact(obj);
+				}
+				row++;
+			}
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+		if (row != capacity) {
+			resize(ints, longs, doubles, refs, row);
+		}
+		return new Projection(this, row, ints, longs, doubles, refs);
+	}
+
+	/**
+	 * Return the projected field names in the requested order.
+	 *
+	 * @return unmodifiable list of the field names
+	 */
+	List<String> getNames() {
+		return names;
+	}
+
+	/**
+	 * Return the column of the field.
+	 *
+	 * @param fieldName the name of the field
+	 * @return the column of the field, null when the field is not projected
+	 */
+	Column getColumn(String fieldName) {
+		return columns.get(fieldName);
+	}
+
+	/**
+	 * Return the projected class.
+	 *
+	 * @return the projected class
+	 */
+	Class<?> getType() {
+		return type;
+	}
+
+	private static void resize(int[][] ints, long[][] longs, double[][] doubles, Object[][] refs, int length) {
+		for (int i = 0; i < ints.length; i++) {
+			ints[i] = Arrays.copyOf(ints[i], length);
+		}
+		for (int i = 0; i < longs.length; i++) {
+			longs[i] = Arrays.copyOf(longs[i], length);
+		}
+		for (int i = 0; i < doubles.length; i++) {
+			doubles[i] = Arrays.copyOf(doubles[i], length);
+		}
+		for (int i = 0; i < refs.length; i++) {
+			refs[i] = Arrays.copyOf(refs[i], length);
+		}
+	}
+
+	private static Field findField(Class<?> type, String name) {
+		for (Field field : ClassMetadata.of(type).getFieldTable().getInstanceFields()) {
+			if (field.getName().equals(name)) {
+				return field;
+			}
+		}
+		throw new FieldNotFoundException(type, name);
+	}
+
+	private static MethodType getterType(Class<?> valueType) {
+		return MethodType.methodType(valueType, Object.class);
+	}
+
+	private static MethodHandle booleanToInt() {
+		try {
+			return LOOKUP.findStatic(ProjectionPlan.class, "toInt", MethodType.methodType(int.class, boolean.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static int toInt(boolean value) {
+		return value ? 1 : 0;
+	}
+
+	/**
+	 * The kind of a column and its index among the columns of the same kind.
+	 */
+	record Column(Class<?> kind, int index) {
+	}
+}
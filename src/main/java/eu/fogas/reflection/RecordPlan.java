@@ -0,0 +1,184 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.field.FieldNotFoundException;
+import eu.fogas.reflection.exception.operation.InitializationException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.RecordComponent;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Canonical constructor and component accessor handles of a record class.
+ * For every component a wither handle is precompiled, which rebuilds the record through the canonical constructor
+ * with one component replaced, without collecting the other components into an array.
+ */
+final class RecordPlan {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	private static final MethodType WITHER_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+	private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object[].class);
+	private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final ClassValue<RecordPlan> PLANS = new ClassValue<>() {
+		@Override
+		protected RecordPlan computeValue(Class<?> type) {
+			return new RecordPlan(type);
+		}
+	};
+
+	private final Class<?> type;
+	private final String[] names;
+	private final Object[] defaults;
+	private final Map<String, Integer> indexes;
+	private final MethodHandle constructor;
+	private final MethodHandle[] accessors;
+	private final MethodHandle[] withers;
+
+	private RecordPlan(Class<?> type) {
+		this.type = type;
+		RecordComponent[] components = type.getRecordComponents();
+		int count = components.length;
+		this.names = new String[count];
+		this.defaults = new Object[count];
+		this.indexes = new HashMap<>();
+		Class<?>[] componentTypes = new Class<?>[count];
+		MethodHandle[] typedAccessors = new MethodHandle[count];
+		this.accessors = new MethodHandle[count];
+		try {
+			for (int i = 0; i < count; i++) {
+				names[i] = components[i].getName();
+				componentTypes[i] = components[i].getType();
+				if (componentTypes[i].isPrimitive()) {
+					defaults[i] = Array.get(Array.newInstance(componentTypes[i], 1), 0);
+				}
+				indexes.put(names[i], i);
+				components[i].getAccessor().trySetAccessible();
+				typedAccessors[i] = LOOKUP.unreflect(components[i].getAccessor());
+				accessors[i] = typedAccessors[i].asType(ACCESSOR_TYPE);
+			}
+			var canonical = type.getDeclaredConstructor(componentTypes);
+			canonical.trySetAccessible();
+			MethodHandle typedConstructor = LOOKUP.unreflectConstructor(canonical);
+			this.constructor = typedConstructor.asSpreader(Object[].class, count).asType(SPREAD_TYPE);
+			this.withers = new MethodHandle[count];
+			for (int i = 0; i < count; i++) {
+				withers[i] = wither(typedConstructor, typedAccessors, i);
+			}
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			var msg = String.format("Could not access the canonical constructor of %s because %s",
+					type.getCanonicalName(), e.getMessage());
+			throw new InitializationException(msg, e);
+		}
+	}
+
+	/**
+	 * Return the plan of the given record class.
+	 *
+	 * @param type Class object of a record
+	 * @return the cached plan of the record class
+	 */
+	static RecordPlan of(Class<?> type) {
+		return PLANS.get(type);
+	}
+
+	/**
+	 * Creates a copy of the record with one component replaced.
+	 *
+	 * @param record        the record to copy
+	 * @param componentName name of the component to replace
+	 * @param value         the new value of the component
+	 * @return the new record
+	 */
+	Object with(Object record, String componentName, Object value) {
+		Integer index = indexes.get(componentName);
+		if (index == null) {
+			throw new FieldNotFoundException(type, componentName);
+		}
+		if (value == null && defaults[index] != null) {
+			throw new IllegalArgumentException("Can not set primitive component " + componentName + " to null value");
+		}
+		try {
+			return withers[index].invokeExact(record, value);
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+	}
+
+	/**
+	 * Creates a new record with the canonical constructor.
+	 *
+	 * @param components the components in declaration order
+	 * @return the new record
+	 */
+	Object newRecord(Object[] components) {
+		if (components.length != names.length) {
+			throw new IllegalArgumentException("Expected " + names.length + " components but got " + components.length);
+		}
+		try {
+			return constructor.invokeExact(components);
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+	}
+
+	/**
+	 * Return the components of the record.
+	 *
+	 * @param record the record
+	 * @return the components in declaration order
+	 */
+	Object[] getComponents(Object record) {
+		Object[] components = new Object[accessors.length];
+		try {
+			for (int i = 0; i < accessors.length; i++) {
+				components[i] = (Object) accessors[i].invokeExact(record);
+			}
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+		return components;
+	}
+
+	/**
+	 * Creates a new record with the canonical constructor from the components present in the map. Missing reference
+	 * components are null, missing primitive components are zero.
+	 *
+	 * @param values map of component name to component value
+	 * @return the new record
+	 */
+	Object fromMap(Map<String, ?> values) {
+		Object[] args = new Object[names.length];
+		for (int i = 0; i < names.length; i++) {
+			Object value = values.get(names[i]);
+			args[i] = value != null || values.containsKey(names[i]) ? value : defaults[i];
+		}
+		try {
+			return constructor.invokeExact(args);
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+	}
+
+	/**
+	 * Return a (record, value)record handle passing the value as the given component and the accessor results as the
+	 * other components to the canonical constructor.
+	 */
+	private static MethodHandle wither(MethodHandle constructor, MethodHandle[] accessors, int index) {
+		MethodHandle result = constructor;
+		int[] reorder = new int[accessors.length];
+		for (int i = 0; i < accessors.length; i++) {
+			if (i == index) {
+				reorder[i] = 1;
+			} else {
+				result = MethodHandles.filterArguments(result, i, accessors[i]);
+			}
+		}
+		Class<?> recordType = constructor.type().returnType();
+		MethodType permutedType = MethodType.methodType(recordType, recordType, constructor.type().parameterType(index));
+		return MethodHandles.permuteArguments(result, permutedType, reorder).asType(WITHER_TYPE);
+	}
+}
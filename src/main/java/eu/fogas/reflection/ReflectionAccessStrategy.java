@@ -0,0 +1,37 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.spi.AccessStrategy;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.function.Function;
+
+/**
+ * Access strategy backed by {@code java.lang.reflect}. It has the lowest setup cost, so it suits short-lived
+ * processes where the accessors do not get hot.
+ */
+final class ReflectionAccessStrategy implements AccessStrategy {
+
+	private static final Object[] NO_ARGS = new Object[0];
+
+	@Override
+	public String getName() {
+		return "reflection";
+	}
+
+	@Override
+	public <T, V> FieldAccessor<T, V> fieldAccessor(Field field) {
+		return new ReflectionFieldAccessor<>(field);
+	}
+
+	@Override
+	public <T> InstanceFactory<T> instanceFactory(Constructor<T> constructor) {
+		Function<Object[], T> invoker = InstanceFactories.reflective(constructor);
+		return () -> invoker.apply(NO_ARGS);
+	}
+
+	@Override
+	public <T> Function<Object[], T> constructorInvoker(Constructor<T> constructor) {
+		return InstanceFactories.reflective(constructor);
+	}
+}
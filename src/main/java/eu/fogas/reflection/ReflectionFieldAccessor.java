@@ -0,0 +1,228 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.field.FieldValueCannotChangedException;
+import eu.fogas.reflection.exception.field.FieldValueCannotReadException;
+
+import java.lang.reflect.Field;
+
+/**
+ * {@link FieldAccessor} backed by {@link Field#get(Object)} and {@link Field#set(Object, Object)}.
+ * The field is made accessible once, when the accessor is created. The primitive getters and setters accept only the
+ * declared type of the field, like the other strategies, instead of the widening conversions of {@link Field}.
+ *
+ * @param <T> the type of the object holding the field
+ * @param <V> the type of the field value
+ */
+final class ReflectionFieldAccessor<T, V> implements FieldAccessor<T, V> {
+
+	private final Field field;
+
+	ReflectionFieldAccessor(Field field) {
+		this.field = field;
+		if (!field.trySetAccessible()) {
+			ReflectionMetrics.accessibilityFailure(field);
+		}
+	}
+
+	@Override
+	public Field getField() {
+		return field;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(T obj) {
+		try {
+			return (V) field.get(obj);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotReadException(field);
+		}
+	}
+
+	@Override
+	public void set(T obj, V value) {
+		try {
+			field.set(obj, value);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+	}
+
+	@Override
+	public boolean getBoolean(T obj) {
+		checkGetType(boolean.class);
+		try {
+			return field.getBoolean(obj);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotReadException(field);
+		}
+	}
+
+	@Override
+	public void setBoolean(T obj, boolean value) {
+		checkSetType(boolean.class);
+		try {
+			field.setBoolean(obj, value);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+	}
+
+	@Override
+	public byte getByte(T obj) {
+		checkGetType(byte.class);
+		try {
+			return field.getByte(obj);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotReadException(field);
+		}
+	}
+
+	@Override
+	public void setByte(T obj, byte value) {
+		checkSetType(byte.class);
+		try {
+			field.setByte(obj, value);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+	}
+
+	@Override
+	public char getChar(T obj) {
+		checkGetType(char.class);
+		try {
+			return field.getChar(obj);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotReadException(field);
+		}
+	}
+
+	@Override
+	public void setChar(T obj, char value) {
+		checkSetType(char.class);
+		try {
+			field.setChar(obj, value);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+	}
+
+	@Override
+	public short getShort(T obj) {
+		checkGetType(short.class);
+		try {
+			return field.getShort(obj);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotReadException(field);
+		}
+	}
+
+	@Override
+	public void setShort(T obj, short value) {
+		checkSetType(short.class);
+		try {
+			field.setShort(obj, value);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+	}
+
+	@Override
+	public int getInt(T obj) {
+		checkGetType(int.class);
+		try {
+			return field.getInt(obj);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotReadException(field);
+		}
+	}
+
+	@Override
+	public void setInt(T obj, int value) {
+		checkSetType(int.class);
+		try {
+			field.setInt(obj, value);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+	}
+
+	@Override
+	public long getLong(T obj) {
+		checkGetType(long.class);
+		try {
+			return field.getLong(obj);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotReadException(field);
+		}
+	}
+
+	@Override
+	public void setLong(T obj, long value) {
+		checkSetType(long.class);
+		try {
+			field.setLong(obj, value);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+	}
+
+	@Override
+	public float getFloat(T obj) {
+		checkGetType(float.class);
+		try {
+			return field.getFloat(obj);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotReadException(field);
+		}
+	}
+
+	@Override
+	public void setFloat(T obj, float value) {
+		checkSetType(float.class);
+		try {
+			field.setFloat(obj, value);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+	}
+
+	@Override
+	public double getDouble(T obj) {
+		checkGetType(double.class);
+		try {
+			return field.getDouble(obj);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotReadException(field);
+		}
+	}
+
+	@Override
+	public void setDouble(T obj, double value) {
+		checkSetType(double.class);
+		try {
+			field.setDouble(obj, value);
+		} catch (IllegalAccessException e) {
+			throw new FieldValueCannotChangedException(field, value);
+		}
+	}
+
+	/**
+	 * Checks that the field is declared with the exact type, {@link Field} would widen the value of a narrower field.
+	 */
+	private void checkGetType(Class<?> type) {
+		if (field.getType() != type) {
+			throw new IllegalArgumentException("Can not get " + type + " value of " + field);
+		}
+	}
+
+	/**
+	 * Checks that the field is declared with the exact type, {@link Field} would widen the value to a wider field.
+	 */
+	private void checkSetType(Class<?> type) {
+		if (field.getType() != type) {
+			throw new IllegalArgumentException("Can not set " + field + " to " + type + " value");
+		}
+	}
+}
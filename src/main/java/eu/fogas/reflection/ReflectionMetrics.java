@@ -0,0 +1,202 @@
+package eu.fogas.reflection;
+
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in counters and timers of the work done by {@link ReflectionUtil}.
+ * The metrics are disabled by default, then recording costs a single volatile read. They can be enabled with
+ * {@link #enable()} or with the {@code eu.fogas.reflection.metrics} system property. While enabled, the recorded
+ * operations are also emitted as JFR events in the {@code Reflection Util} category, so reflective hot spots show
+ * up in flight recordings.
+ */
+public final class ReflectionMetrics {
+
+	/**
+	 * System property enabling the metrics at startup when set to true.
+	 */
+	public static final String PROPERTY = "eu.fogas.reflection.metrics";
+
+	private static volatile boolean enabled = Boolean.getBoolean(PROPERTY);
+
+	private static final LongAdder fieldLookups = new LongAdder();
+	private static final LongAdder fieldLookupMisses = new LongAdder();
+	private static final LongAdder hierarchyDepth = new LongAdder();
+	private static final LongAdder resolutionNanos = new LongAdder();
+	private static final LongAdder accessibilityFailures = new LongAdder();
+	private static final LongAdder cacheHits = new LongAdder();
+	private static final LongAdder cacheMisses = new LongAdder();
+	private static final LongAdder cacheEvictions = new LongAdder();
+	private static final ConcurrentMap<String, LongAdder> instantiations = new ConcurrentHashMap<>();
+
+	private ReflectionMetrics() {
+	}
+
+	/**
+	 * Starts recording the metrics.
+	 */
+	public static void enable() {
+		enabled = true;
+	}
+
+	/**
+	 * Stops recording the metrics, the recorded values are kept.
+	 */
+	public static void disable() {
+		enabled = false;
+	}
+
+	/**
+	 * Return whether the metrics are recorded.
+	 *
+	 * @return true when the metrics are recorded
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets all the recorded values to zero.
+	 */
+	public static void reset() {
+		fieldLookups.reset();
+		fieldLookupMisses.reset();
+		hierarchyDepth.reset();
+		resolutionNanos.reset();
+		accessibilityFailures.reset();
+		cacheHits.reset();
+		cacheMisses.reset();
+		cacheEvictions.reset();
+		instantiations.clear();
+	}
+
+	/**
+	 * Return the current values of the metrics. The values are read one by one, so a snapshot taken while other
+	 * threads are recording is not an atomic view.
+	 *
+	 * @return the snapshot of the metrics
+	 */
+	public static Snapshot snapshot() {
+		Map<String, Long> newInstanceCalls = new TreeMap<>();
+		instantiations.forEach((type, count) -> newInstanceCalls.put(type, count.sum()));
+		return new Snapshot(fieldLookups.sum(), fieldLookupMisses.sum(), hierarchyDepth.sum(), resolutionNanos.sum(),
+				accessibilityFailures.sum(), cacheHits.sum(), cacheMisses.sum(), cacheEvictions.sum(),
+				Map.copyOf(newInstanceCalls));
+	}
+
+	/**
+	 * Return the start time of a timed operation.
+	 *
+	 * @return the current nano time or 0 when the metrics are disabled
+	 */
+	static long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	static void fieldLookup(boolean found) {
+		if (enabled) {
+			fieldLookups.increment();
+			if (!found) {
+				fieldLookupMisses.increment();
+			}
+		}
+	}
+
+	static void fieldResolved(Class<?> type, String fieldName, int depth, boolean found, long start) {
+		if (enabled && start != 0) {
+			long duration = System.nanoTime() - start;
+			hierarchyDepth.add(depth);
+			resolutionNanos.add(duration);
+			var event = new FieldLookupEvent();
+			if (event.shouldCommit()) {
+				event.type = type;
+				event.fieldName = fieldName;
+				event.depth = depth;
+				event.found = found;
+				event.resolutionTime = duration;
+				event.commit();
+			}
+		}
+	}
+
+	static void resolved(long start) {
+		if (enabled && start != 0) {
+			resolutionNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	static void instantiation(Class<?> type, long start) {
+		if (enabled && start != 0) {
+			long duration = System.nanoTime() - start;
+			instantiations.computeIfAbsent(type.getName(), name -> new LongAdder()).increment();
+			var event = new InstantiationEvent();
+			if (event.shouldCommit()) {
+				event.type = type;
+				event.instantiationTime = duration;
+				event.commit();
+			}
+		}
+	}
+
+	static void accessibilityFailure(Member member) {
+		if (enabled) {
+			accessibilityFailures.increment();
+			var event = new AccessibilityFailureEvent();
+			if (event.shouldCommit()) {
+				event.type = member.getDeclaringClass();
+				event.member = member.getName();
+				event.commit();
+			}
+		}
+	}
+
+	static void cacheHit() {
+		if (enabled) {
+			cacheHits.increment();
+		}
+	}
+
+	static void cacheMiss() {
+		if (enabled) {
+			cacheMisses.increment();
+		}
+	}
+
+	static void cacheEviction() {
+		if (enabled) {
+			cacheEvictions.increment();
+		}
+	}
+
+	/**
+	 * Values of the metrics at the time of {@link #snapshot()}.
+	 *
+	 * @param fieldLookups          number of field lookups by name
+	 * @param fieldLookupMisses     number of field lookups which did not find the field
+	 * @param hierarchyDepthWalked  number of classes walked while resolving fields which were not cached yet
+	 * @param resolutionNanos       time spent resolving fields, accessors and constructors which were not cached yet
+	 * @param accessibilityFailures number of fields and constructors which could not be made accessible
+	 * @param cacheHits             number of metadata cache hits
+	 * @param cacheMisses           number of metadata cache misses
+	 * @param cacheEvictions        number of entries evicted from the metadata caches
+	 * @param newInstanceCalls      number of instances created by the newInstance methods per class name
+	 */
+	public record Snapshot(long fieldLookups, long fieldLookupMisses, long hierarchyDepthWalked, long resolutionNanos,
+						   long accessibilityFailures, long cacheHits, long cacheMisses, long cacheEvictions,
+						   Map<String, Long> newInstanceCalls) {
+
+		/**
+		 * Return the ratio of the cache hits to all the cache lookups.
+		 *
+		 * @return the cache hit rate between 0 and 1, or 0 when there was no lookup
+		 */
+		public double cacheHitRate() {
+			long lookups = cacheHits + cacheMisses;
+			return lookups == 0 ? 0 : (double) cacheHits / lookups;
+		}
+	}
+}
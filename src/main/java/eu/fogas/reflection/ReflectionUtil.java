@@ -3,19 +3,30 @@ package eu.fogas.reflection;
 import eu.fogas.reflection.exception.field.FieldNotFoundException;
 import eu.fogas.reflection.exception.field.FieldValueCannotChangedException;
 import eu.fogas.reflection.exception.field.FieldValueCannotReadException;
+import eu.fogas.reflection.exception.operation.ClassScanException;
+import eu.fogas.reflection.exception.operation.CodecException;
 import eu.fogas.reflection.exception.operation.InitializationException;
+import eu.fogas.reflection.exception.operation.MetadataCacheException;
+import eu.fogas.reflection.spi.AccessStrategy;
 import lombok.NonNull;
 
+import java.io.IOException;
+import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Helper class to make java's reflection easy and fun to use.
@@ -32,13 +43,7 @@ public class ReflectionUtil {
 	 * @throws FieldValueCannotChangedException when the value cannot be changed.
 	 */
 	public static void setFieldValue(@NonNull final Object obj, @NonNull final String fieldName, final Object fieldValue) {
-		Field field = getDeclaredField(obj.getClass(), fieldName);
-		try {
-			field.trySetAccessible();
-			field.set(obj, fieldValue);
-		} catch (IllegalAccessException e) {
-			throw new FieldValueCannotChangedException(field, fieldValue);
-		}
+		objectAccessor(obj, fieldName).set(obj, fieldValue);
 	}
 
 	/**
@@ -48,19 +53,620 @@ public class ReflectionUtil {
 	 * @param fieldName name of the field
 	 * @param <V>       the type of the return value
 	 * @return the value of the field with the given name
+	 * @throws FieldNotFoundException       if the field with the specified name is not found.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
 	 */
 	public static <V> V getFieldValue(@NonNull final Object obj, @NonNull final String fieldName) {
-		Field field = getDeclaredField(obj.getClass(), fieldName);
+		return (V) objectAccessor(obj, fieldName).get(obj);
+	}
+
+	/**
+	 * Return the value of a boolean field of an object without boxing.
+	 *
+	 * @param obj       the object with the field
+	 * @param fieldName name of the field
+	 * @return the value of the field with the given name
+	 * @throws FieldNotFoundException        if the field with the specified name is not found.
+	 * @throws IllegalArgumentException      if the field is not declared as boolean.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	public static boolean getBoolean(@NonNull final Object obj, @NonNull final String fieldName) {
+		return objectAccessor(obj, fieldName).getBoolean(obj);
+	}
+
+	/**
+	 * Sets the value of a boolean field of an object without boxing.
+	 *
+	 * @param obj        the object whose field should be modified
+	 * @param fieldName  name of the field
+	 * @param fieldValue the new value of the field
+	 * @throws FieldNotFoundException           if the field with the specified name is not found.
+	 * @throws IllegalArgumentException         if the field is not declared as boolean.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	public static void setBoolean(@NonNull final Object obj, @NonNull final String fieldName, final boolean fieldValue) {
+		objectAccessor(obj, fieldName).setBoolean(obj, fieldValue);
+	}
+
+	/**
+	 * Return the value of a byte field of an object without boxing.
+	 *
+	 * @param obj       the object with the field
+	 * @param fieldName name of the field
+	 * @return the value of the field with the given name
+	 * @throws FieldNotFoundException        if the field with the specified name is not found.
+	 * @throws IllegalArgumentException      if the field is not declared as byte.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	public static byte getByte(@NonNull final Object obj, @NonNull final String fieldName) {
+		return objectAccessor(obj, fieldName).getByte(obj);
+	}
+
+	/**
+	 * Sets the value of a byte field of an object without boxing.
+	 *
+	 * @param obj        the object whose field should be modified
+	 * @param fieldName  name of the field
+	 * @param fieldValue the new value of the field
+	 * @throws FieldNotFoundException           if the field with the specified name is not found.
+	 * @throws IllegalArgumentException         if the field is not declared as byte.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	public static void setByte(@NonNull final Object obj, @NonNull final String fieldName, final byte fieldValue) {
+		objectAccessor(obj, fieldName).setByte(obj, fieldValue);
+	}
+
+	/**
+	 * Return the value of a char field of an object without boxing.
+	 *
+	 * @param obj       the object with the field
+	 * @param fieldName name of the field
+	 * @return the value of the field with the given name
+	 * @throws FieldNotFoundException        if the field with the specified name is not found.
+	 * @throws IllegalArgumentException      if the field is not declared as char.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	public static char getChar(@NonNull final Object obj, @NonNull final String fieldName) {
+		return objectAccessor(obj, fieldName).getChar(obj);
+	}
+
+	/**
+	 * Sets the value of a char field of an object without boxing.
+	 *
+	 * @param obj        the object whose field should be modified
+	 * @param fieldName  name of the field
+	 * @param fieldValue the new value of the field
+	 * @throws FieldNotFoundException           if the field with the specified name is not found.
+	 * @throws IllegalArgumentException         if the field is not declared as char.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	public static void setChar(@NonNull final Object obj, @NonNull final String fieldName, final char fieldValue) {
+		objectAccessor(obj, fieldName).setChar(obj, fieldValue);
+	}
+
+	/**
+	 * Return the value of a short field of an object without boxing.
+	 *
+	 * @param obj       the object with the field
+	 * @param fieldName name of the field
+	 * @return the value of the field with the given name
+	 * @throws FieldNotFoundException        if the field with the specified name is not found.
+	 * @throws IllegalArgumentException      if the field is not declared as short.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	public static short getShort(@NonNull final Object obj, @NonNull final String fieldName) {
+		return objectAccessor(obj, fieldName).getShort(obj);
+	}
+
+	/**
+	 * Sets the value of a short field of an object without boxing.
+	 *
+	 * @param obj        the object whose field should be modified
+	 * @param fieldName  name of the field
+	 * @param fieldValue the new value of the field
+	 * @throws FieldNotFoundException           if the field with the specified name is not found.
+	 * @throws IllegalArgumentException         if the field is not declared as short.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	public static void setShort(@NonNull final Object obj, @NonNull final String fieldName, final short fieldValue) {
+		objectAccessor(obj, fieldName).setShort(obj, fieldValue);
+	}
+
+	/**
+	 * Return the value of an int field of an object without boxing.
+	 *
+	 * @param obj       the object with the field
+	 * @param fieldName name of the field
+	 * @return the value of the field with the given name
+	 * @throws FieldNotFoundException        if the field with the specified name is not found.
+	 * @throws IllegalArgumentException      if the field is not declared as int.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	public static int getInt(@NonNull final Object obj, @NonNull final String fieldName) {
+		return objectAccessor(obj, fieldName).getInt(obj);
+	}
+
+	/**
+	 * Sets the value of an int field of an object without boxing.
+	 *
+	 * @param obj        the object whose field should be modified
+	 * @param fieldName  name of the field
+	 * @param fieldValue the new value of the field
+	 * @throws FieldNotFoundException           if the field with the specified name is not found.
+	 * @throws IllegalArgumentException         if the field is not declared as int.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	public static void setInt(@NonNull final Object obj, @NonNull final String fieldName, final int fieldValue) {
+		objectAccessor(obj, fieldName).setInt(obj, fieldValue);
+	}
+
+	/**
+	 * Return the value of a long field of an object without boxing.
+	 *
+	 * @param obj       the object with the field
+	 * @param fieldName name of the field
+	 * @return the value of the field with the given name
+	 * @throws FieldNotFoundException        if the field with the specified name is not found.
+	 * @throws IllegalArgumentException      if the field is not declared as long.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	public static long getLong(@NonNull final Object obj, @NonNull final String fieldName) {
+		return objectAccessor(obj, fieldName).getLong(obj);
+	}
+
+	/**
+	 * Sets the value of a long field of an object without boxing.
+	 *
+	 * @param obj        the object whose field should be modified
+	 * @param fieldName  name of the field
+	 * @param fieldValue the new value of the field
+	 * @throws FieldNotFoundException           if the field with the specified name is not found.
+	 * @throws IllegalArgumentException         if the field is not declared as long.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	public static void setLong(@NonNull final Object obj, @NonNull final String fieldName, final long fieldValue) {
+		objectAccessor(obj, fieldName).setLong(obj, fieldValue);
+	}
+
+	/**
+	 * Return the value of a float field of an object without boxing.
+	 *
+	 * @param obj       the object with the field
+	 * @param fieldName name of the field
+	 * @return the value of the field with the given name
+	 * @throws FieldNotFoundException        if the field with the specified name is not found.
+	 * @throws IllegalArgumentException      if the field is not declared as float.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	public static float getFloat(@NonNull final Object obj, @NonNull final String fieldName) {
+		return objectAccessor(obj, fieldName).getFloat(obj);
+	}
+
+	/**
+	 * Sets the value of a float field of an object without boxing.
+	 *
+	 * @param obj        the object whose field should be modified
+	 * @param fieldName  name of the field
+	 * @param fieldValue the new value of the field
+	 * @throws FieldNotFoundException           if the field with the specified name is not found.
+	 * @throws IllegalArgumentException         if the field is not declared as float.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	public static void setFloat(@NonNull final Object obj, @NonNull final String fieldName, final float fieldValue) {
+		objectAccessor(obj, fieldName).setFloat(obj, fieldValue);
+	}
+
+	/**
+	 * Return the value of a double field of an object without boxing.
+	 *
+	 * @param obj       the object with the field
+	 * @param fieldName name of the field
+	 * @return the value of the field with the given name
+	 * @throws FieldNotFoundException        if the field with the specified name is not found.
+	 * @throws IllegalArgumentException      if the field is not declared as double.
+	 * @throws FieldValueCannotReadException when the value cannot be read.
+	 */
+	public static double getDouble(@NonNull final Object obj, @NonNull final String fieldName) {
+		return objectAccessor(obj, fieldName).getDouble(obj);
+	}
+
+	/**
+	 * Sets the value of a double field of an object without boxing.
+	 *
+	 * @param obj        the object whose field should be modified
+	 * @param fieldName  name of the field
+	 * @param fieldValue the new value of the field
+	 * @throws FieldNotFoundException           if the field with the specified name is not found.
+	 * @throws IllegalArgumentException         if the field is not declared as double.
+	 * @throws FieldValueCannotChangedException when the value cannot be changed.
+	 */
+	public static void setDouble(@NonNull final Object obj, @NonNull final String fieldName, final double fieldValue) {
+		objectAccessor(obj, fieldName).setDouble(obj, fieldValue);
+	}
+
+	/**
+	 * Return the cached accessor of the field with the given name.
+	 * The accessor does the access checks only once, so it is the fastest way to read or write the same field
+	 * of many objects.
+	 *
+	 * @param type      Class object
+	 * @param fieldName the simple name of the field
+	 * @param <T>       the type of the object holding the field
+	 * @param <V>       the type of the field value
+	 * @return the accessor of the field
+	 * @throws FieldNotFoundException if the field with the specified name is not found.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T, V> FieldAccessor<T, V> accessor(@NonNull final Class<? extends T> type, @NonNull final String fieldName) {
+		FieldAccessor<?, ?> accessor = ClassMetadata.of(type).getAccessor(fieldName);
+		if (accessor == null) {
+			throw new FieldNotFoundException(type, fieldName);
+		}
+		return (FieldAccessor<T, V>) accessor;
+	}
+
+	/**
+	 * Reads the field of every object in a single pass, see {@link #readColumn(List, String, boolean)}.
+	 *
+	 * @param objects   the objects to read
+	 * @param fieldName the simple name of the field
+	 * @return array of the field type with the values in list order, an empty Object array for an empty list
+	 * @throws FieldNotFoundException        if the field with the specified name is not found.
+	 * @throws FieldValueCannotReadException when a value cannot be read.
+	 */
+	public static Object readColumn(@NonNull final List<?> objects, @NonNull final String fieldName) {
+		return readColumn(objects, fieldName, false);
+	}
+
+	/**
+	 * Reads the field of every object in a single pass. The field is resolved once, on the class of the first object,
+	 * the other objects must be instances of the class declaring the field. Primitive fields are read into a primitive
+	 * array without boxing, e.g. an int[] for an int field, reference fields into an array of the field type.
+	 *
+	 * @param objects   the objects to read
+	 * @param fieldName the simple name of the field
+	 * @param parallel  true to split large lists into ranges read on the common ForkJoinPool
+	 * @return array of the field type with the values in list order, an empty Object array for an empty list
+	 * @throws FieldNotFoundException        if the field with the specified name is not found.
+	 * @throws FieldValueCannotReadException when a value cannot be read.
+	 */
+	public static Object readColumn(@NonNull final List<?> objects, @NonNull final String fieldName,
+			final boolean parallel) {
+		if (objects.isEmpty()) {
+			return new Object[0];
+		}
+		return Columns.read(objects, accessor(objects.get(0).getClass(), fieldName), parallel);
+	}
+
+	/**
+	 * Sets the field of every object in a single pass, see {@link #writeColumn(List, String, Object, boolean)}.
+	 *
+	 * @param objects   the objects to modify
+	 * @param fieldName the simple name of the field
+	 * @param values    array of the values in list order
+	 * @throws FieldNotFoundException           if the field with the specified name is not found.
+	 * @throws FieldValueCannotChangedException when a value cannot be changed.
+	 * @throws IllegalArgumentException         if the values are not an array of the field type and list size.
+	 */
+	public static void writeColumn(@NonNull final List<?> objects, @NonNull final String fieldName,
+			@NonNull final Object values) {
+		writeColumn(objects, fieldName, values, false);
+	}
+
+	/**
+	 * Sets the field of every object in a single pass. The field is resolved once, on the class of the first object,
+	 * the other objects must be instances of the class declaring the field. The values of a primitive field are given
+	 * as a primitive array of the field type, e.g. an int[] for an int field, and are written without boxing.
+	 *
+	 * @param objects   the objects to modify
+	 * @param fieldName the simple name of the field
+	 * @param values    array of the values in list order
+	 * @param parallel  true to split large lists into ranges written on the common ForkJoinPool
+	 * @throws FieldNotFoundException           if the field with the specified name is not found.
+	 * @throws FieldValueCannotChangedException when a value cannot be changed.
+	 * @throws IllegalArgumentException         if the values are not an array of the field type and list size.
+	 */
+	public static void writeColumn(@NonNull final List<?> objects, @NonNull final String fieldName,
+			@NonNull final Object values, final boolean parallel) {
+		if (objects.isEmpty()) {
+			if (!values.getClass().isArray() || Array.getLength(values) != 0) {
+				throw new IllegalArgumentException("Cannot write values to an empty list");
+			}
+			return;
+		}
+		Columns.write(objects, accessor(objects.get(0).getClass(), fieldName), values, parallel);
+	}
+
+	/**
+	 * Projects the given fields of the objects into a struct-of-arrays: one primitive or Object array per field, one
+	 * element per object. Fields of type boolean, byte, char, short and int are projected into int columns, long
+	 * fields into long columns, float and double fields into double columns, reference fields into Object columns.
+	 * The projection plan is compiled once per class and list of field names, and reads the fields without boxing.
+	 *
+	 * @param type       Class object declaring or inheriting the fields
+	 * @param fieldNames the names of the non-static fields to project
+	 * @param objects    the objects to project, instances of the type
+	 * @param <T>        the type of the objects
+	 * @return the projection
+	 * @throws FieldNotFoundException        if a field with the specified name is not found.
+	 * @throws FieldValueCannotReadException if a field cannot be read.
+	 */
+	public static <T> Projection project(@NonNull final Class<T> type, @NonNull final List<String> fieldNames,
+			@NonNull final Iterable<? extends T> objects) {
+		return ProjectionPlan.of(type, fieldNames).project(objects);
+	}
+
+	/**
+	 * Writes the non-static, non-transient fields of the object in a compact binary format at the position of the
+	 * buffer, in the byte order of the buffer. Primitive fields are written straight into the buffer without boxing.
+	 * The supported field types are the primitives, their wrappers, String, enums, primitive arrays and objects of
+	 * the same kind whose class is the declared type of the field. The codec plan is compiled once per class.
+	 * The nested objects are written in full wherever they are referenced, so an object referenced by more fields is
+	 * decoded as separate copies, and an object referencing itself, directly or through other objects, cannot be
+	 * encoded.
+	 *
+	 * @param obj    the object to encode
+	 * @param buffer direct or heap buffer to write to
+	 * @throws CodecException                   when the class or a field type is not supported, or the object
+	 *                                          references itself.
+	 * @throws java.nio.BufferOverflowException when the buffer is too small.
+	 */
+	public static void encode(@NonNull final Object obj, @NonNull final ByteBuffer buffer) {
+		CodecPlan.of(obj.getClass()).encode(obj, buffer);
+	}
+
+	/**
+	 * Encodes the objects one after the other to the channel, see {@link #encode(Object, ByteBuffer)}.
+	 * The objects are encoded into the buffer which is written to the channel whenever the next object does not fit,
+	 * and after the last object. Every object has to fit into the empty buffer.
+	 *
+	 * @param objects the objects to encode
+	 * @param channel the channel to write to
+	 * @param buffer  direct or heap buffer used for the encoding, it is cleared first
+	 * @return the number of bytes written to the channel
+	 * @throws CodecException when a class or a field type is not supported, an object does not fit into the buffer
+	 *                        or the channel cannot be written.
+	 */
+	public static long encode(@NonNull final Iterable<?> objects, @NonNull final WritableByteChannel channel,
+			@NonNull final ByteBuffer buffer) {
+		long written = 0;
+		buffer.clear();
 		try {
-			field.trySetAccessible();
-			return (V) field.get(obj);
-		} catch (IllegalAccessException e) {
-			throw new FieldValueCannotReadException(field);
+			for (Object obj : objects) {
+				CodecPlan plan = CodecPlan.of(obj.getClass());
+				int start = buffer.position();
+				if (!tryEncode(plan, obj, buffer)) {
+					buffer.position(start);
+					written += flush(buffer, channel);
+					if (start == 0 || !tryEncode(plan, obj, buffer)) {
+						throw new CodecException(String.format("%s does not fit into a buffer of %d bytes",
+								obj.getClass().getCanonicalName(), buffer.capacity()));
+					}
+				}
+			}
+			return written + flush(buffer, channel);
+		} catch (IOException e) {
+			throw new CodecException("Could not write to the channel because " + e.getMessage(), e);
 		}
 	}
 
+	/**
+	 * Reads an object of the given type from the position of the buffer, written by
+	 * {@link #encode(Object, ByteBuffer)}. The object is created with {@link #newInstance(Class)}, a record with its
+	 * canonical constructor, and its fields are set from the buffer.
+	 *
+	 * @param type   Class object of the encoded object
+	 * @param buffer direct or heap buffer to read from
+	 * @param <T>    the type of the return value
+	 * @return the decoded object
+	 * @throws CodecException                    when the class or a field type is not supported.
+	 * @throws InitializationException           when the instance cannot be created.
+	 * @throws java.nio.BufferUnderflowException when the buffer holds less than an object.
+	 */
+	public static <T> T decode(@NonNull final Class<T> type, @NonNull final ByteBuffer buffer) {
+		return type.cast(CodecPlan.of(type).decode(buffer));
+	}
+
+	/**
+	 * Copies the values of the non-static fields of an object into a new map, keyed by the field names.
+	 * The fields are resolved once per class, so a conversion is a single pass over the fields.
+	 *
+	 * @param obj the object to convert
+	 * @return modifiable map of field name to field value
+	 * @throws FieldValueCannotReadException when a value cannot be read.
+	 */
+	public static Map<String, Object> toMap(@NonNull final Object obj) {
+		return MapPlan.of(obj.getClass()).toMap(obj);
+	}
+
+	/**
+	 * Creates a new instance of the given type with the default constructor and sets its non-static fields from the
+	 * map, keyed by the field names. Fields missing from the map keep their initial value, unknown keys are ignored.
+	 * Records are created with their canonical constructor, missing components are null or zero.
+	 *
+	 * @param type   Class object
+	 * @param values map of field name to field value
+	 * @param <T>    the type of the return value
+	 * @return a new instance of the given type
+	 * @throws InitializationException          when the instance cannot be created.
+	 * @throws FieldValueCannotChangedException when a value cannot be changed.
+	 */
+	public static <T> T fromMap(@NonNull final Class<T> type, @NonNull final Map<String, ?> values) {
+		if (isRecord(type)) {
+			return type.cast(RecordPlan.of(type).fromMap(values));
+		}
+		T result = newInstance(type);
+		MapPlan.of(type).fromMap(result, values);
+		return result;
+	}
+
+	/**
+	 * Copies the values of the fields of the source object to the fields of the target object with the same name and
+	 * a compatible type. Static and final target fields are skipped, as well as the fields which are not accessible.
+	 * The copy is compiled once per source and target class pair.
+	 *
+	 * @param source the object to copy from
+	 * @param target the object to copy to
+	 */
+	public static void copyProperties(@NonNull final Object source, @NonNull final Object target) {
+		CopyPlan.of(source.getClass(), target.getClass()).copy(source, target);
+	}
+
+	/**
+	 * Compares the non-static fields of two objects of the same class and returns the fields which differ.
+	 * The fields are resolved once per class, primitive fields are compared without boxing, reference fields with
+	 * {@link java.util.Objects#deepEquals(Object, Object)}. The values of the changed fields are read lazily from the
+	 * objects through the returned change set.
+	 *
+	 * @param oldValue the old snapshot
+	 * @param newValue the new snapshot
+	 * @param <T>      the type of the objects
+	 * @return the change set of the fields which differ
+	 * @throws IllegalArgumentException      if the objects are not of the same class.
+	 * @throws FieldValueCannotReadException when a value cannot be read.
+	 */
+	public static <T> ChangeSet<T> diff(@NonNull final T oldValue, @NonNull final T newValue) {
+		return diff(DiffPlan.of(sameClass(oldValue, newValue)), oldValue, newValue);
+	}
+
+	/**
+	 * Compares the objects of the two lists pairwise, see {@link #diff(Object, Object)}.
+	 * The plan of a class is looked up once for consecutive pairs of the same class.
+	 *
+	 * @param oldValues the old snapshots
+	 * @param newValues the new snapshots, in the order of the old ones
+	 * @param <T>       the type of the objects
+	 * @return the change sets in the order of the pairs
+	 * @throws IllegalArgumentException      if the lists differ in size or a pair is not of the same class.
+	 * @throws FieldValueCannotReadException when a value cannot be read.
+	 */
+	public static <T> List<ChangeSet<T>> diffAll(@NonNull final List<? extends T> oldValues,
+			@NonNull final List<? extends T> newValues) {
+		if (oldValues.size() != newValues.size()) {
+			throw new IllegalArgumentException(String.format("Cannot diff %d old values with %d new values",
+					oldValues.size(), newValues.size()));
+		}
+		List<ChangeSet<T>> result = new ArrayList<>(oldValues.size());
+		Class<?> type = null;
+		DiffPlan plan = null;
+		for (int i = 0; i < oldValues.size(); i++) {
+			T oldValue = oldValues.get(i);
+			T newValue = newValues.get(i);
+			if (oldValue == null || newValue == null) {
+				throw new IllegalArgumentException("Cannot diff null values at index " + i);
+			}
+			Class<?> pairType = sameClass(oldValue, newValue);
+			if (pairType != type) {
+				type = pairType;
+				plan = DiffPlan.of(type);
+			}
+			result.add(diff(plan, oldValue, newValue));
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a deep copy of the object. The copy plan of each class is compiled once: immutable objects (strings,
+	 * boxed primitives, enums, java.time values, records of immutables) are shared, primitive arrays are bulk copied,
+	 * and objects reachable on more paths, cycles included, are copied once. Objects are created with their default
+	 * constructor. Collections and maps without an accessible default constructor, such as {@code List.of(...)} or
+	 * {@code Collections.synchronizedList(...)}, are copied into unmodifiable ones, except {@code Arrays.asList(...)}
+	 * which is copied into a fixed size list. Access ordered linked hash maps keep their access order.
+	 * Objects of JDK classes which are not open to this library are copied with their public clone method or their
+	 * copy constructor ({@link StringBuilder}, atomic numbers), optionals and atomic references are copied with a copy
+	 * of their value, and immutable ones and objects without instance fields are shared.
+	 *
+	 * @param obj the object to copy
+	 * @param <T> the type of the object
+	 * @return the deep copy of the object, null when the object is null
+	 * @throws InitializationException when an object of the graph has no default constructor, or is a mutable object
+	 *                                 of a JDK class which is not open to this library and cannot be copied otherwise.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T deepClone(final T obj) {
+		return (T) ClonePlan.deepClone(obj);
+	}
+
+	/**
+	 * Compares two objects by value, field by field.
+	 * The non-static, non-transient fields of the class and its super classes are compared recursively, the primitive
+	 * fields first and without boxing, and the comparison stops at the first difference. The equals methods of the
+	 * compared classes are not called, except for the classes not open to this library, e.g. the JDK value types.
+	 * Arrays, lists and sets are compared by their elements, maps by their values looked up by key, regardless of the
+	 * collection implementation, records by their components. Cycles are supported: a graph equals an other one when
+	 * following the references of both from the compared objects never reaches a difference, e.g. a node referencing
+	 * itself equals a cycle of two such nodes.
+	 * The comparison plan of a class is compiled once and cached.
+	 *
+	 * @param a an object or null
+	 * @param b an other object or null
+	 * @return true when the objects are equal by value
+	 */
+	public static boolean deepEquals(final Object a, final Object b) {
+		return EqualsPlan.deepEquals(a, b);
+	}
+
+	/**
+	 * Return the hash code of the object computed from its field values, consistent with
+	 * {@link #deepEquals(Object, Object)}. Only the objects up to 32 references deep are hashed, so equal graphs with
+	 * cycles of different lengths hash the same.
+	 *
+	 * @param obj an object or null
+	 * @return the hash code, 0 for null
+	 */
+	public static int deepHashCode(final Object obj) {
+		return EqualsPlan.deepHashCode(obj);
+	}
+
+	/**
+	 * Estimates the heap size of an instance of the class in bytes, without the objects it references: the object
+	 * header and the instance fields of the class and its super classes, padded to the object alignment. The header
+	 * size, the reference size and the alignment follow the flags of the running JVM, e.g. compressed references.
+	 * The size of an array class is the size of an empty array. The sizes are cached per class.
+	 *
+	 * @param type Class object
+	 * @return the estimated size in bytes
+	 * @throws IllegalArgumentException if the type is primitive.
+	 */
+	public static long shallowSize(@NonNull final Class<?> type) {
+		if (type.isPrimitive()) {
+			throw new IllegalArgumentException("Primitive type " + type + " has no instances");
+		}
+		return ObjectSizes.shallowSize(type);
+	}
+
+	/**
+	 * Estimates the heap size of the object and of every object reachable from it, see {@link GraphWalker}, each
+	 * counted once. Arrays are counted with their elements, strings with their value, and the collections and maps of
+	 * the JDK with their internal tables and nodes. Objects shared with other graphs, like enum constants, are
+	 * included.
+	 *
+	 * @param obj the object to measure
+	 * @return the estimated size in bytes, 0 when the object is null
+	 */
+	public static long deepSize(final Object obj) {
+		long[] size = new long[1];
+		GraphWalker.create().walk(obj, (reachable, depth) -> {
+			size[0] += ObjectSizes.sizeOf(reachable);
+			return true;
+		});
+		return size[0];
+	}
+
+	/**
+	 * Visits the object and every object reachable from it once, see {@link GraphWalker}.
+	 *
+	 * @param root    the object to start from
+	 * @param visitor called once for every reachable object
+	 * @return the number of visited objects, 0 when the root is null
+	 */
+	public static long walk(final Object root, @NonNull final GraphVisitor visitor) {
+		return GraphWalker.create().walk(root, visitor);
+	}
+
 	/**
 	 * Return the Field object with the declared name.
+	 * The lookup result is cached per class, the returned Field object is shared between the callers.
 	 *
 	 * @param type      Class object
 	 * @param fieldName the simple name of the field
@@ -68,18 +674,9 @@ public class ReflectionUtil {
 	 * @throws FieldNotFoundException if the field with the specified name is not found.
 	 */
 	public static Field getDeclaredField(@NonNull final Class<?> type, @NonNull final String fieldName) {
-		Field field;
-		try {
-			field = type.getDeclaredField(fieldName);
-		} catch (NoSuchFieldException e) {
-			field = null;
-		}
+		Field field = ClassMetadata.of(type).getField(fieldName);
 		if (field == null) {
-			Class<?> superType = type.getSuperclass();
-			if (superType == null) {
-				throw new FieldNotFoundException(type, fieldName);
-			}
-			return getDeclaredField(superType, fieldName);
+			throw new FieldNotFoundException(type, fieldName);
 		}
 		return field;
 	}
@@ -91,13 +688,96 @@ public class ReflectionUtil {
 	 * @return all the fields from the class and from all the super classes.
 	 */
 	public static List<Field> getAllFields(@NonNull final Class<?> type) {
-		List<Field> fields = new ArrayList<>();
-		var t = type;
-		do {
-			fields.addAll(Arrays.asList(t.getDeclaredFields()));
-			t = t.getSuperclass();
-		} while (t != null);
-		return fields;
+		return new ArrayList<>(getFieldTable(type).getAllFields());
+	}
+
+	/**
+	 * Return the cached, immutable table of the fields from the class and from all the super classes.
+	 * Prefer it over {@link #getAllFields(Class)} on hot paths, because its views do not have to be copied.
+	 *
+	 * @param type Class object
+	 * @return the field table of the class
+	 */
+	public static FieldTable getFieldTable(@NonNull final Class<?> type) {
+		return ClassMetadata.of(type).getFieldTable();
+	}
+
+	/**
+	 * Resolves the fields, the field accessors and the constructors of the given classes in parallel on the common
+	 * ForkJoinPool and caches them, so the first lookups of the classes do not pay for the reflection API.
+	 * Call it at startup, before the classes are used on latency sensitive paths.
+	 * A class which cannot be resolved, for example because a class it refers to is missing from the class path, is
+	 * skipped and left out of the result; the other classes are still resolved.
+	 *
+	 * @param types the classes to resolve
+	 * @return the classes which were resolved, in the order of the given collection
+	 */
+	public static List<Class<?>> warmUp(@NonNull final Collection<Class<?>> types) {
+		return types.parallelStream()
+				.filter(ReflectionUtil::tryWarmUp)
+				.collect(Collectors.toList());
+	}
+
+	private static boolean tryWarmUp(Class<?> type) {
+		try {
+			ClassMetadata.of(type).warmUp();
+			return true;
+		} catch (LinkageError | RuntimeException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Resolves and caches the metadata of the classes of a package and of its sub packages, see
+	 * {@link #warmUp(Collection)}. The classes are looked up with the context class loader of the current thread and
+	 * are loaded without initialization.
+	 *
+	 * @param packageName the name of the package
+	 * @return the classes which were resolved, without the skipped ones
+	 * @throws ClassScanException when the classes of the package cannot be listed.
+	 */
+	public static List<Class<?>> warmUp(@NonNull final String packageName) {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		return warmUp(ClassScanner.scan(packageName,
+				classLoader != null ? classLoader : ReflectionUtil.class.getClassLoader()));
+	}
+
+	/**
+	 * Starts recording the classes resolved from now on, so they are written by {@link #saveMetadataCache(Path)}.
+	 * Recording is on from the start when {@code -Deu.fogas.reflection.metadataCache=<file>} is set, otherwise the
+	 * resolved classes are not tracked at all.
+	 */
+	public static void recordMetadataCache() {
+		MetadataStore.record();
+	}
+
+	/**
+	 * Writes the metadata of the classes resolved while recording, see {@link #recordMetadataCache()}, their
+	 * declared fields and constructors, to a cache file. Load it on the next start with
+	 * {@link #loadMetadataCache(Path)} or with {@code -Deu.fogas.reflection.metadataCache=<file>}, to resolve the
+	 * fields and the default constructors of the classes without listing their members, as with {@link Indexed}. The
+	 * file also records the class declaring each field of the hierarchy, so a field declared by a super class is
+	 * looked up on it directly, without resolving the classes in between.
+	 *
+	 * @param file the cache file, it is replaced
+	 * @return the number of classes written
+	 * @throws MetadataCacheException when the file cannot be written.
+	 */
+	public static int saveMetadataCache(@NonNull final Path file) {
+		return MetadataStore.save(file);
+	}
+
+	/**
+	 * Memory-maps a cache file written by {@link #saveMetadataCache(Path)}. The classes resolved from now on use the
+	 * metadata of the file while the last modified time and the size of the jars or class files of the class and of
+	 * its super classes match the stored ones, the others, and the classes resolved before, use live reflection.
+	 *
+	 * @param file the cache file
+	 * @return the number of classes in the file
+	 * @throws MetadataCacheException when the file cannot be read or is not a metadata cache.
+	 */
+	public static int loadMetadataCache(@NonNull final Path file) {
+		return MetadataStore.load(file);
 	}
 
 	/**
@@ -136,55 +816,118 @@ public class ReflectionUtil {
 	 * @param type Class object
 	 * @param <T>  the type of the return value
 	 * @return a new instance of the given type
+	 * @throws InitializationException when the instance cannot be created.
 	 */
 	public static <T> T newInstance(Class<T> type) {
+		long start = ReflectionMetrics.start();
+		InstanceFactory<T> factory = instanceFactory(type);
 		try {
-			return (T) getDefaultConstructor(type).newInstance();
-		} catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+			T instance = factory.newInstance();
+			ReflectionMetrics.instantiation(type, start);
+			return instance;
+		} catch (Exception e) {
 			var msg = String.format("Could not create instance of %s because %s", type.getCanonicalName(), e.getMessage());
 			throw new InitializationException(msg, e);
 		}
 	}
 
+	/**
+	 * Return the cached factory which creates new instances of the given type with the default constructor.
+	 * The factory is generated once per class and costs the same as a direct constructor call.
+	 *
+	 * @param type Class object
+	 * @param <T>  the type of the created instances
+	 * @return the instance factory of the given type
+	 * @throws InitializationException when the type is abstract or has no default constructor.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> InstanceFactory<T> instanceFactory(@NonNull final Class<T> type) {
+		return (InstanceFactory<T>) ClassMetadata.of(type).getInstanceFactory();
+	}
+
+	/**
+	 * Creates a factory which invokes the given constructor with the arguments passed as an array.
+	 * The factory should be created once and reused, because creating it is expensive.
+	 *
+	 * @param constructor the constructor to invoke
+	 * @param <T>         the type of the created instances
+	 * @return the instance factory of the constructor
+	 * @throws InitializationException when the constructor cannot be invoked.
+	 */
+	public static <T> Function<Object[], T> instanceFactory(@NonNull final Constructor<T> constructor) {
+		return AccessStrategies.current().constructorInvoker(constructor);
+	}
+
+	/**
+	 * Return the access strategy creating the field accessors and the instance factories.
+	 * It is selected once by the {@code eu.fogas.reflection.accessStrategy} system property or by the
+	 * {@link java.util.ServiceLoader}, see {@link AccessStrategy}.
+	 *
+	 * @return the access strategy in use
+	 */
+	public static AccessStrategy getAccessStrategy() {
+		return AccessStrategies.current();
+	}
+
 	/**
 	 * Creates a new instance of the given type with the matching constructor.
+	 * The matching constructor is resolved once per runtime class signature of the arguments. A null argument matches
+	 * any non-primitive parameter, a boxed argument matches the corresponding primitive parameter.
 	 *
 	 * @param type     Class object
 	 * @param initargs initial parameters for the constructor
 	 * @param <T>      the type of the return value
 	 * @return a new instance of the given type
+	 * @throws InitializationException when no suitable constructor was found or the instance cannot be created.
 	 */
 	public static <T> T newInstance(Class<T> type, Object... initargs) {
+		long start = ReflectionMetrics.start();
+		Function<Object[], ?> invoker = ClassMetadata.of(type).getConstructorInvoker(initargs);
+		if (invoker == null) {
+			throw new InitializationException(
+					String.format("Could not create instance of %s because no suitable constructor was found",
+							type.getCanonicalName()));
+		}
 		try {
-			Class<?>[] paramTypes = Arrays.stream(initargs)
-					.map(Object::getClass)
-					.toArray(size -> new Class<?>[initargs.length]);
-
-			return (T) Arrays.stream(type.getDeclaredConstructors())
-					.filter(con -> allMatches(con, initargs))
-					.findFirst()
-					.orElseThrow(() -> new InitializationException(
-							String.format("Could not create instance of %s because no suitable constructor was found",
-									type.getCanonicalName())))
-					.newInstance(initargs);
-		} catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+			T instance = type.cast(invoker.apply(initargs));
+			ReflectionMetrics.instantiation(type, start);
+			return instance;
+		} catch (Exception e) {
 			var msg = String.format("Could not create instance of %s because %s", type.getCanonicalName(), e.getMessage());
 			throw new InitializationException(msg, e);
 		}
 	}
 
-	private static <T> boolean allMatches(Constructor<T> constructor, Object[] initArgs) {
-		if (constructor.getParameterCount() != initArgs.length) {
-			return false;
-		}
-		int i = 0;
-		for (var conParamClass : constructor.getParameterTypes()) {
-			var inputParamClass = initArgs[i++].getClass();
-			if (!conParamClass.isAssignableFrom(inputParamClass)) {
-				return false;
-			}
-		}
-		return true;
+	/**
+	 * Creates a new record with its canonical constructor. The constructor is resolved once per record type.
+	 *
+	 * @param type       Class object of the record
+	 * @param components the components in declaration order
+	 * @param <R>        the type of the record
+	 * @return a new record
+	 * @throws InitializationException when the canonical constructor is not accessible.
+	 */
+	public static <R extends Record> R newRecord(@NonNull final Class<R> type, @NonNull final Object... components) {
+		return type.cast(RecordPlan.of(type).newRecord(components));
+	}
+
+	/**
+	 * Creates a copy of the record with one component replaced, through the cached canonical constructor.
+	 * This is the copy-on-write counterpart of {@link #setFieldValue(Object, String, Object)}, which cannot change
+	 * the components of a record.
+	 *
+	 * @param record        the record to copy
+	 * @param componentName name of the component to replace
+	 * @param value         the new value of the component
+	 * @param <R>           the type of the record
+	 * @return a new record with the replaced component
+	 * @throws FieldNotFoundException  if the record has no component with the specified name.
+	 * @throws InitializationException when the canonical constructor is not accessible.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <R extends Record> R withComponent(@NonNull final R record, @NonNull final String componentName,
+			final Object value) {
+		return (R) RecordPlan.of(record.getClass()).with(record, componentName, value);
 	}
 
 	/**
@@ -260,6 +1003,44 @@ public class ReflectionUtil {
 		return isAssignableFrom(Enum.class, type);
 	}
 
+	/**
+	 * Return the cached lookup index of the constants of an enum type.
+	 *
+	 * @param type Class object of the enum
+	 * @param <E>  the enum type
+	 * @return the index of the enum type
+	 * @throws IllegalArgumentException if the type is not an enum.
+	 */
+	public static <E extends Enum<E>> EnumIndex<E> enumIndex(@NonNull final Class<E> type) {
+		return EnumIndex.of(type);
+	}
+
+	/**
+	 * Return the enum constant with the given name through the cached index of the enum type.
+	 *
+	 * @param type Class object of the enum
+	 * @param name the exact name of the constant
+	 * @param <E>  the enum type
+	 * @return the enum constant
+	 * @throws IllegalArgumentException if there is no constant with the name.
+	 */
+	public static <E extends Enum<E>> E enumValueOf(@NonNull final Class<E> type, @NonNull final String name) {
+		return EnumIndex.of(type).valueOf(name);
+	}
+
+	/**
+	 * Return the enum constant with the given name ignoring case through the cached index of the enum type.
+	 *
+	 * @param type Class object of the enum
+	 * @param name the name of the constant
+	 * @param <E>  the enum type
+	 * @return the enum constant
+	 * @throws IllegalArgumentException if there is no constant with the name.
+	 */
+	public static <E extends Enum<E>> E enumValueOfIgnoreCase(@NonNull final Class<E> type, @NonNull final String name) {
+		return EnumIndex.of(type).valueOfIgnoreCase(name);
+	}
+
 	/**
 	 * Check the class is declared as enum.
 	 *
@@ -344,6 +1125,42 @@ public class ReflectionUtil {
 		return field.getType().isArray();
 	}
 
+	private static FieldAccessor<Object, Object> objectAccessor(final Object obj, final String fieldName) {
+		return accessor(obj.getClass(), fieldName);
+	}
+
+	private static boolean tryEncode(CodecPlan plan, Object obj, ByteBuffer buffer) {
+		try {
+			plan.encode(obj, buffer);
+			return true;
+		} catch (BufferOverflowException e) {
+			return false;
+		}
+	}
+
+	private static long flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+		buffer.flip();
+		long written = 0;
+		while (buffer.hasRemaining()) {
+			written += channel.write(buffer);
+		}
+		buffer.clear();
+		return written;
+	}
+
+	private static <T> ChangeSet<T> diff(DiffPlan plan, T oldValue, T newValue) {
+		return new ChangeSet<>(plan, oldValue, newValue, plan.diff(oldValue, newValue));
+	}
+
+	private static Class<?> sameClass(Object oldValue, Object newValue) {
+		Class<?> type = oldValue.getClass();
+		if (type != newValue.getClass()) {
+			throw new IllegalArgumentException(String.format("Cannot diff %s with %s", type.getCanonicalName(),
+					newValue.getClass().getCanonicalName()));
+		}
+		return type;
+	}
+
 	private static <T> boolean isAssignableFrom(@NonNull final Class<?> cls, @NonNull final Class<T> type) {
 		return cls.isAssignableFrom(type);
 	}
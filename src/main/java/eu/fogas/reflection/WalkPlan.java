@@ -0,0 +1,153 @@
+package eu.fogas.reflection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precompiled plan listing the objects referenced by the objects of a class.
+ * Arrays, collections and maps are walked through their elements. The other classes are walked through their
+ * non-static reference fields, if their package is open to this library: the classes of the JDK and of other
+ * named modules are opaque, so they are visited but not walked.
+ */
+final class WalkPlan {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final ClassValue<WalkPlan> PLANS = new ClassValue<>() {
+		@Override
+		protected WalkPlan computeValue(Class<?> type) {
+			return new WalkPlan(type);
+		}
+	};
+
+	/**
+	 * How the references of an object are listed.
+	 */
+	enum Kind {
+		/** Objects without references or with unreadable references. */
+		OPAQUE,
+		/** Arrays of references. */
+		ARRAY,
+		/** Collections, walked by iteration. */
+		COLLECTION,
+		/** Maps, walked by iterating the keys and the values. */
+		MAP,
+		/** Objects walked by reading their reference fields. */
+		FIELDS
+	}
+
+	/**
+	 * Receives the objects referenced by an object.
+	 */
+	interface Sink {
+		void accept(Object child);
+	}
+
+	private final Kind kind;
+	private final MethodHandle[] getters;
+
+	private WalkPlan(Class<?> type) {
+		List<MethodHandle> fieldGetters = new ArrayList<>();
+		if (type.isArray()) {
+			this.kind = type.getComponentType().isPrimitive() ? Kind.OPAQUE : Kind.ARRAY;
+		} else if (Collection.class.isAssignableFrom(type)) {
+			this.kind = Kind.COLLECTION;
+		} else if (Map.class.isAssignableFrom(type)) {
+			this.kind = Kind.MAP;
+		} else if (isOpen(type)) {
+			for (Field field : ClassMetadata.of(type).getFieldTable().getInstanceFields()) {
+				if (!field.getType().isPrimitive() && isOpen(field.getDeclaringClass())) {
+					MethodHandle getter = MethodHandleFieldAccessor.getter(field);
+					if (getter != null) {
+						fieldGetters.add(getter.asType(GETTER_TYPE));
+					}
+				}
+			}
+			this.kind = fieldGetters.isEmpty() ? Kind.OPAQUE : Kind.FIELDS;
+		} else {
+			this.kind = Kind.OPAQUE;
+		}
+		this.getters = fieldGetters.toArray(MethodHandle[]::new);
+	}
+
+	/**
+	 * Return the plan of the given class.
+	 *
+	 * @param type Class object
+	 * @return the cached plan of the class
+	 */
+	static WalkPlan of(Class<?> type) {
+		return PLANS.get(type);
+	}
+
+	/**
+	 * Return how the references of the objects are listed.
+	 *
+	 * @return the kind of the plan
+	 */
+	Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * Passes the non-null objects referenced by the object to the sink.
+	 *
+	 * @param obj  an object of the class of the plan
+	 * @param sink receives the referenced objects
+	 */
+	void forEachReference(Object obj, Sink sink) {
+		switch (kind) {
+			case ARRAY:
+				for (Object element : (Object[]) obj) {
+					if (element != null) {
+						sink.accept(element);
+					}
+				}
+				break;
+			case COLLECTION:
+				for (Object element : (Collection<?>) obj) {
+					if (element != null) {
+						sink.accept(element);
+					}
+				}
+				break;
+			case MAP:
+				for (Map.Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
+					if (entry.getKey() != null) {
+						sink.accept(entry.getKey());
+					}
+					if (entry.getValue() != null) {
+						sink.accept(entry.getValue());
+					}
+				}
+				break;
+			case FIELDS:
+				for (MethodHandle getter : getters) {
+					Object value = get(getter, obj);
+					if (value != null) {
+						sink.accept(value);
+					}
+				}
+				break;
+			default:
+				break;
+		}
+	}
+
+	private static Object get(MethodHandle getter, Object obj) {
+		try {
+			return (Object) getter.invokeExact(obj);
+		} catch (Throwable e) {
+			throw MethodHandleFieldAccessor.rethrow(e);
+		}
+	}
+
+	private static boolean isOpen(Class<?> type) {
+		return type.getModule().isOpen(type.getPackageName(), WalkPlan.class.getModule());
+	}
+}
@@ -0,0 +1,23 @@
+package eu.fogas.reflection.exception.operation;
+
+import eu.fogas.reflection.exception.ReflectionUtilException;
+
+import java.io.Serial;
+
+/**
+ * This exception is thrown when the classes of a package cannot be listed.
+ */
+public class ClassScanException extends ReflectionUtilException {
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs an exception with the specified detail message and with the cause.
+	 *
+	 * @param message – the detail message.
+	 * @param cause   - the cause.
+	 */
+	public ClassScanException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,32 @@
+package eu.fogas.reflection.exception.operation;
+
+import eu.fogas.reflection.exception.ReflectionUtilException;
+
+import java.io.Serial;
+
+/**
+ * This exception is thrown when an object cannot be encoded to or decoded from the binary format.
+ */
+public class CodecException extends ReflectionUtilException {
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs an exception with the specified detail message.
+	 *
+	 * @param message – the detail message.
+	 */
+	public CodecException(String message) {
+		super(message);
+	}
+
+	/**
+	 * Constructs an exception with the specified detail message and with the cause.
+	 *
+	 * @param message – the detail message.
+	 * @param cause   - the cause.
+	 */
+	public CodecException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,32 @@
+package eu.fogas.reflection.exception.operation;
+
+import eu.fogas.reflection.exception.ReflectionUtilException;
+
+import java.io.Serial;
+
+/**
+ * This exception is thrown when the persisted metadata cache cannot be written or read.
+ */
+public class MetadataCacheException extends ReflectionUtilException {
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs an exception with the specified detail message.
+	 *
+	 * @param message – the detail message.
+	 */
+	public MetadataCacheException(String message) {
+		super(message);
+	}
+
+	/**
+	 * Constructs an exception with the specified detail message and with the cause.
+	 *
+	 * @param message – the detail message.
+	 * @param cause   - the cause.
+	 */
+	public MetadataCacheException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,62 @@
+package eu.fogas.reflection.spi;
+
+import eu.fogas.reflection.FieldAccessor;
+import eu.fogas.reflection.InstanceFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.function.Function;
+
+/**
+ * Engine creating the field accessors and constructor invokers used by {@code ReflectionUtil}.
+ * <p>
+ * The built-in strategies are {@code reflection}, {@code methodHandle} and {@code generated} (the default).
+ * Additional strategies are registered with {@link java.util.ServiceLoader}. The strategy is selected once, by the
+ * name in the {@code eu.fogas.reflection.accessStrategy} system property, otherwise the first registered strategy is
+ * used, otherwise the default one.
+ * <p>
+ * The created accessors and invokers are cached by {@code ReflectionUtil}, so creating them may be expensive.
+ * <p>
+ * The strategy serves the single field and constructor operations: the field getters and setters, the accessors,
+ * the column reads and writes, the map conversions and the instantiations. The compiled bulk operations
+ * ({@code copyProperties}, {@code deepClone}, {@code deepEquals}, {@code diff}, {@code encode}, {@code decode},
+ * {@code project}, the graph walks and {@code deepSize}) always access the fields through method handles composed
+ * when their plans are compiled, so they do not use the selected strategy.
+ */
+public interface AccessStrategy {
+
+	/**
+	 * Return the name used to select the strategy.
+	 *
+	 * @return the name of the strategy
+	 */
+	String getName();
+
+	/**
+	 * Creates an accessor of the field.
+	 *
+	 * @param field the field to access
+	 * @param <T>   the type of the object holding the field
+	 * @param <V>   the type of the field value
+	 * @return the field accessor
+	 */
+	<T, V> FieldAccessor<T, V> fieldAccessor(Field field);
+
+	/**
+	 * Creates a factory invoking a constructor without parameters.
+	 *
+	 * @param constructor the constructor without parameters
+	 * @param <T>         the type of the created objects
+	 * @return the instance factory
+	 */
+	<T> InstanceFactory<T> instanceFactory(Constructor<T> constructor);
+
+	/**
+	 * Creates an invoker of a constructor which takes the constructor arguments as an array.
+	 *
+	 * @param constructor the constructor
+	 * @param <T>         the type of the created objects
+	 * @return the constructor invoker
+	 */
+	<T> Function<Object[], T> constructorInvoker(Constructor<T> constructor);
+}
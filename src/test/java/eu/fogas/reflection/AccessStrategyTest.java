@@ -0,0 +1,154 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.field.FieldValueCannotChangedException;
+import eu.fogas.reflection.spi.AccessStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AccessStrategyTest {
+
+	@Test
+	void fieldAccessor_shouldReadAndWriteTheFieldValue_withEveryBuiltInStrategy() throws NoSuchFieldException {
+		Field field = TestBean.class.getDeclaredField("name");
+		for (AccessStrategy strategy : AccessStrategies.builtIns()) {
+			var bean = new TestBean();
+			FieldAccessor<TestBean, String> accessor = strategy.fieldAccessor(field);
+
+			accessor.set(bean, strategy.getName());
+
+			assertEquals(strategy.getName(), accessor.get(bean));
+		}
+	}
+
+	@Test
+	void fieldAccessor_shouldReadAndWritePrimitiveFieldValue_withEveryBuiltInStrategy() throws NoSuchFieldException {
+		Field field = TestBean.class.getDeclaredField("count");
+		for (AccessStrategy strategy : AccessStrategies.builtIns()) {
+			var bean = new TestBean();
+			FieldAccessor<TestBean, Integer> accessor = strategy.fieldAccessor(field);
+
+			accessor.setInt(bean, 42);
+
+			assertEquals(42, accessor.getInt(bean));
+		}
+	}
+
+	@Test
+	void fieldAccessor_shouldThrowIllegalArgumentException_whenPrimitiveTypeDiffers_withEveryBuiltInStrategy()
+			throws NoSuchFieldException {
+		Field field = TestBean.class.getDeclaredField("count");
+		for (AccessStrategy strategy : AccessStrategies.builtIns()) {
+			var bean = new TestBean();
+			FieldAccessor<TestBean, Integer> accessor = strategy.fieldAccessor(field);
+
+			assertThrows(IllegalArgumentException.class, () -> accessor.getLong(bean), strategy.getName());
+			assertThrows(IllegalArgumentException.class, () -> accessor.setShort(bean, (short) 1), strategy.getName());
+			assertThrows(IllegalArgumentException.class, () -> accessor.getDouble(bean), strategy.getName());
+		}
+	}
+
+	@Test
+	void fieldAccessor_shouldThrowFieldValueCannotChangedException_whenFieldIsStaticFinal_withEveryBuiltInStrategy()
+			throws NoSuchFieldException {
+		Field field = TestBean.class.getDeclaredField("CONSTANT");
+		for (AccessStrategy strategy : AccessStrategies.builtIns()) {
+			FieldAccessor<TestBean, String> accessor = strategy.fieldAccessor(field);
+
+			assertThrows(FieldValueCannotChangedException.class, () -> accessor.set(null, "changed"));
+		}
+	}
+
+	@Test
+	void instanceFactory_shouldCreateInstance_withEveryBuiltInStrategy() throws NoSuchMethodException {
+		Constructor<TestBean> constructor = TestBean.class.getDeclaredConstructor();
+		for (AccessStrategy strategy : AccessStrategies.builtIns()) {
+			InstanceFactory<TestBean> factory = strategy.instanceFactory(constructor);
+
+			assertEquals("default", factory.newInstance().name);
+		}
+	}
+
+	@Test
+	void constructorInvoker_shouldCreateInstance_withEveryBuiltInStrategy() throws NoSuchMethodException {
+		Constructor<TestBean> constructor = TestBean.class.getDeclaredConstructor(String.class);
+		for (AccessStrategy strategy : AccessStrategies.builtIns()) {
+			Function<Object[], TestBean> invoker = strategy.constructorInvoker(constructor);
+
+			assertEquals(strategy.getName(), invoker.apply(new Object[]{strategy.getName()}).name);
+		}
+	}
+
+	@Test
+	void constructorInvoker_shouldPropagateTheConstructorException_withEveryBuiltInStrategy()
+			throws NoSuchMethodException {
+		Constructor<TestBean> constructor = TestBean.class.getDeclaredConstructor(int.class);
+		for (AccessStrategy strategy : AccessStrategies.builtIns()) {
+			Function<Object[], TestBean> invoker = strategy.constructorInvoker(constructor);
+
+			assertThrows(IllegalStateException.class, () -> invoker.apply(new Object[]{1}));
+		}
+	}
+
+	@Test
+	void select_shouldReturnTheDefaultStrategy_whenNothingIsConfigured() {
+		var result = AccessStrategies.select(null, List.of());
+
+		assertEquals("generated", result.getName());
+	}
+
+	@Test
+	void select_shouldReturnTheFirstProvidedStrategy_whenNoNameIsConfigured() {
+		AccessStrategy provided = new TestStrategy();
+
+		var result = AccessStrategies.select(null, List.of(provided));
+
+		assertSame(provided, result);
+	}
+
+	@Test
+	void select_shouldReturnTheStrategyWithTheConfiguredName() {
+		var result = AccessStrategies.select("reflection", List.of(new TestStrategy()));
+
+		assertEquals("reflection", result.getName());
+	}
+
+	@Test
+	void select_shouldThrowIllegalArgumentException_whenConfiguredNameIsUnknown() {
+		var e = assertThrows(IllegalArgumentException.class, () -> AccessStrategies.select("unknown", List.of()));
+
+		assertEquals("Unknown access strategy 'unknown' in eu.fogas.reflection.accessStrategy, available:" +
+				" generated, methodHandle, reflection", e.getMessage());
+	}
+
+	static class TestBean {
+		private static final String CONSTANT = "constant";
+		private String name = "default";
+		private int count;
+
+		TestBean() {
+		}
+
+		TestBean(String name) {
+			this.name = name;
+		}
+
+		TestBean(int count) {
+			throw new IllegalStateException("failed");
+		}
+	}
+
+	static class TestStrategy extends MethodHandleAccessStrategy {
+		@Override
+		public String getName() {
+			return "test";
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.operation.CodecException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CodecTest {
+
+	@Test
+	void encode_shouldRoundTripFields_whenBufferIsHeap() {
+		var original = sample();
+		var buffer = ByteBuffer.allocate(256);
+
+		ReflectionUtil.encode(original, buffer);
+		buffer.flip();
+		var result = ReflectionUtil.decode(TestMessage.class, buffer);
+
+		assertSample(result);
+		assertFalse(buffer.hasRemaining());
+	}
+
+	@Test
+	void encode_shouldRoundTripFields_whenBufferIsDirect() {
+		var buffer = ByteBuffer.allocateDirect(256);
+
+		ReflectionUtil.encode(sample(), buffer);
+		buffer.flip();
+
+		assertSample(ReflectionUtil.decode(TestMessage.class, buffer));
+	}
+
+	@Test
+	void encode_shouldWriteNulls() {
+		var original = new TestMessage();
+		original.id = 1;
+		var buffer = ByteBuffer.allocate(64);
+
+		ReflectionUtil.encode(original, buffer);
+		buffer.flip();
+		var result = ReflectionUtil.decode(TestMessage.class, buffer);
+
+		assertEquals(1, result.id);
+		assertNull(result.name);
+		assertNull(result.color);
+		assertNull(result.values);
+		assertNull(result.count);
+		assertNull(result.child);
+	}
+
+	@Test
+	void encode_shouldRoundTripRecords() {
+		var buffer = ByteBuffer.allocate(64);
+
+		ReflectionUtil.encode(new TestPoint(3, 4.5, "p"), buffer);
+		buffer.flip();
+
+		assertEquals(new TestPoint(3, 4.5, "p"), ReflectionUtil.decode(TestPoint.class, buffer));
+	}
+
+	@Test
+	void encode_shouldStreamObjectsToChannel() {
+		List<TestPoint> points = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			points.add(new TestPoint(i, i * 0.5, "point" + i));
+		}
+		var out = new ByteArrayOutputStream();
+
+		long written = ReflectionUtil.encode(points, Channels.newChannel(out), ByteBuffer.allocate(64));
+
+		assertEquals(out.size(), written);
+		var buffer = ByteBuffer.wrap(out.toByteArray());
+		for (TestPoint point : points) {
+			assertEquals(point, ReflectionUtil.decode(TestPoint.class, buffer));
+		}
+		assertFalse(buffer.hasRemaining());
+	}
+
+	@Test
+	void encode_shouldThrowCodecException_whenObjectDoesNotFitIntoBuffer() {
+		var points = List.of(new TestPoint(1, 1, "a long label which does not fit"));
+		var channel = Channels.newChannel(new ByteArrayOutputStream());
+		var buffer = ByteBuffer.allocate(16);
+
+		assertThrows(CodecException.class, () -> ReflectionUtil.encode(points, channel, buffer));
+	}
+
+	@Test
+	void encode_shouldThrowCodecException_whenFieldTypeIsNotSupported() {
+		var unsupported = new TestUnsupported();
+		var buffer = ByteBuffer.allocate(64);
+
+		assertThrows(CodecException.class, () -> ReflectionUtil.encode(unsupported, buffer));
+	}
+
+	@Test
+	void encode_shouldThrowCodecException_whenObjectReferencesItself() {
+		var message = new TestMessage();
+		message.child = new TestMessage();
+		message.child.child = message;
+		var buffer = ByteBuffer.allocate(256);
+
+		assertThrows(CodecException.class, () -> ReflectionUtil.encode(message, buffer));
+	}
+
+	@Test
+	void encode_shouldRoundTripDeeplyNestedObjects() {
+		var original = new TestMessage();
+		for (int i = 1; i < 20_000; i++) {
+			var message = new TestMessage();
+			message.id = i;
+			message.child = original;
+			original = message;
+		}
+		var buffer = ByteBuffer.allocate(1 << 20);
+
+		ReflectionUtil.encode(original, buffer);
+		buffer.flip();
+		var result = ReflectionUtil.decode(TestMessage.class, buffer);
+
+		assertFalse(buffer.hasRemaining());
+		assertEquals(19_999, result.id);
+		assertEquals(19_998, result.child.id);
+	}
+
+	private static TestMessage sample() {
+		var message = new TestMessage();
+		message.id = 42;
+		message.total = -7L;
+		message.ratio = 0.25;
+		message.flag = true;
+		message.letter = 'z';
+		message.name = "h\u00e9llo";
+		message.color = TestColor.GREEN;
+		message.values = new int[]{1, 2, 3};
+		message.count = 9;
+		message.child = new TestMessage();
+		message.child.id = 7;
+		message.child.name = "child";
+		return message;
+	}
+
+	private static void assertSample(TestMessage result) {
+		assertEquals(42, result.id);
+		assertEquals(-7L, result.total);
+		assertEquals(0.25, result.ratio, 0.0);
+		assertTrue(result.flag);
+		assertEquals('z', result.letter);
+		assertEquals("h\u00e9llo", result.name);
+		assertEquals(TestColor.GREEN, result.color);
+		assertArrayEquals(new int[]{1, 2, 3}, result.values);
+		assertEquals(9, result.count);
+		assertEquals(7, result.child.id);
+		assertEquals("child", result.child.name);
+		assertNull(result.child.child);
+	}
+
+	enum TestColor {
+		RED, GREEN
+	}
+
+	record TestPoint(int x, double y, String label) {
+	}
+
+	static class TestMessage {
+		private int id;
+		private long total;
+		private double ratio;
+		private boolean flag;
+		private char letter;
+		private String name;
+		private TestColor color;
+		private int[] values;
+		private Integer count;
+		private TestMessage child;
+		private transient String cache = "cache";
+	}
+
+	static class TestUnsupported {
+		private Map<String, String> values = Map.of();
+	}
+}
@@ -0,0 +1,133 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.field.FieldNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ColumnTest {
+
+	@Test
+	void readColumn_shouldReturnPrimitiveArray_whenFieldIsPrimitive() {
+		var objects = List.of(new TestRow(1, 10L, "a"), new TestRow(2, 20L, "b"));
+
+		var ids = (int[]) ReflectionUtil.readColumn(objects, "id");
+		var totals = (long[]) ReflectionUtil.readColumn(objects, "total");
+
+		assertArrayEquals(new int[]{1, 2}, ids);
+		assertArrayEquals(new long[]{10L, 20L}, totals);
+	}
+
+	@Test
+	void readColumn_shouldReturnArrayOfFieldType_whenFieldIsReference() {
+		var objects = new LinkedList<>(List.of(new TestRow(1, 0, "a"), new TestRow(2, 0, null)));
+
+		var names = (String[]) ReflectionUtil.readColumn(objects, "name");
+
+		assertArrayEquals(new String[]{"a", null}, names);
+	}
+
+	@Test
+	void readColumn_shouldReadInheritedField_whenListHoldsSubclasses() {
+		var objects = List.of(new TestRow(1, 0, "a"), new TestRow(2, 0, "b"));
+
+		var flags = (boolean[]) ReflectionUtil.readColumn(objects, "active");
+
+		assertArrayEquals(new boolean[]{true, true}, flags);
+	}
+
+	@Test
+	void readColumn_shouldReturnEmptyArray_whenListIsEmpty() {
+		assertEquals(0, ((Object[]) ReflectionUtil.readColumn(List.of(), "id")).length);
+	}
+
+	@Test
+	void readColumn_shouldThrowFieldNotFoundException_whenFieldIsUnknown() {
+		var objects = List.of(new TestRow(1, 0, "a"));
+
+		assertThrows(FieldNotFoundException.class, () -> ReflectionUtil.readColumn(objects, "unknown"));
+	}
+
+	@Test
+	void readColumn_shouldReadInParallel_whenListIsLarge() {
+		var objects = rows(Columns.PARALLEL_THRESHOLD * 3 + 7);
+
+		var ids = (int[]) ReflectionUtil.readColumn(objects, "id", true);
+
+		assertEquals(objects.size(), ids.length);
+		for (int i = 0; i < ids.length; i++) {
+			assertEquals(i, ids[i]);
+		}
+	}
+
+	@Test
+	void writeColumn_shouldSetTheFields() {
+		var objects = List.of(new TestRow(1, 10L, "a"), new TestRow(2, 20L, "b"));
+
+		ReflectionUtil.writeColumn(objects, "total", new long[]{30L, 40L});
+		ReflectionUtil.writeColumn(objects, "name", new String[]{"c", "d"});
+
+		assertEquals(30L, objects.get(0).total);
+		assertEquals(40L, objects.get(1).total);
+		assertEquals("c", objects.get(0).name);
+		assertEquals("d", objects.get(1).name);
+	}
+
+	@Test
+	void writeColumn_shouldWriteInParallel_whenListIsLarge() {
+		var objects = rows(Columns.PARALLEL_THRESHOLD * 2 + 1);
+		var values = new double[objects.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i * 0.5;
+		}
+
+		ReflectionUtil.writeColumn(objects, "weight", values, true);
+
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(i * 0.5, objects.get(i).weight, 0.0);
+		}
+	}
+
+	@Test
+	void writeColumn_shouldThrowIllegalArgumentException_whenValuesDoNotMatch() {
+		var objects = List.of(new TestRow(1, 10L, "a"), new TestRow(2, 20L, "b"));
+
+		var wrongType = new int[]{1, 2};
+		var wrongLength = new long[]{1L};
+
+		assertThrows(IllegalArgumentException.class, () -> ReflectionUtil.writeColumn(objects, "total", wrongType));
+		assertThrows(IllegalArgumentException.class, () -> ReflectionUtil.writeColumn(objects, "total", wrongLength));
+		assertThrows(IllegalArgumentException.class, () -> ReflectionUtil.writeColumn(objects, "name", "a"));
+	}
+
+	private static List<TestRow> rows(int size) {
+		List<TestRow> result = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			result.add(new TestRow(i, i, "row"));
+		}
+		return result;
+	}
+
+	static class TestBase {
+		private boolean active = true;
+	}
+
+	static class TestRow extends TestBase {
+		private int id;
+		private long total;
+		private double weight;
+		private String name;
+
+		TestRow(int id, long total, String name) {
+			this.id = id;
+			this.total = total;
+			this.name = name;
+		}
+	}
+}
@@ -0,0 +1,269 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.operation.InitializationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DeepCloneTest {
+
+	@Test
+	void deepClone_shouldCopyFieldsDeeply() {
+		var original = new TestNode("root", 42);
+		original.child = new TestNode("child", 7);
+		original.values = new int[]{1, 2, 3};
+
+		var result = ReflectionUtil.deepClone(original);
+
+		assertNotSame(original, result);
+		assertNotSame(original.child, result.child);
+		assertNotSame(original.values, result.values);
+		assertEquals(42, result.count);
+		assertEquals(7, result.child.count);
+		assertArrayEquals(new int[]{1, 2, 3}, result.values);
+		assertEquals(original.finalId, result.finalId);
+	}
+
+	@Test
+	void deepClone_shouldShareImmutableObjects() {
+		var original = new TestNode("root", 1);
+		original.date = LocalDate.of(2024, 1, 1);
+		original.color = TestColor.RED;
+		original.point = new TestPoint(1, "label");
+
+		var result = ReflectionUtil.deepClone(original);
+
+		assertSame(original.name, result.name);
+		assertSame(original.date, result.date);
+		assertSame(original.color, result.color);
+		assertSame(original.point, result.point);
+		assertSame("text", ReflectionUtil.deepClone("text"));
+	}
+
+	@Test
+	void deepClone_shouldCopyEachObjectOnce_whenGraphHasCycles() {
+		var first = new TestNode("first", 1);
+		var second = new TestNode("second", 2);
+		first.child = second;
+		second.child = first;
+		first.items = new ArrayList<>(List.of(second, second));
+
+		var result = ReflectionUtil.deepClone(first);
+
+		assertSame(result, result.child.child);
+		assertSame(result.child, result.items.get(0));
+		assertSame(result.child, result.items.get(1));
+	}
+
+	@Test
+	void deepClone_shouldCopyCollectionsAndMaps() {
+		var original = new TestNode("root", 1);
+		original.items = new ArrayList<>(List.of(new TestNode("item", 2)));
+		original.map = new HashMap<>(Map.of("key", new TestNode("value", 3)));
+		original.sorted = new TreeSet<>(Comparator.reverseOrder());
+		original.sorted.addAll(List.of("a", "b"));
+
+		var result = ReflectionUtil.deepClone(original);
+
+		assertNotSame(original.items, result.items);
+		assertNotSame(original.items.get(0), result.items.get(0));
+		assertEquals(2, result.items.get(0).count);
+		assertEquals(ArrayList.class, result.items.getClass());
+		assertNotSame(original.map.get("key"), result.map.get("key"));
+		assertEquals(3, result.map.get("key").count);
+		assertEquals(List.of("b", "a"), new ArrayList<>(result.sorted));
+	}
+
+	@Test
+	void deepClone_shouldNotOverflowStack_whenGraphIsDeep() {
+		var original = new TestNode("node", 0);
+		for (int i = 1; i < 20_000; i++) {
+			var node = new TestNode("node", i);
+			node.child = original;
+			node.items = new ArrayList<>(List.of(original));
+			original = node;
+		}
+
+		var result = ReflectionUtil.deepClone(original);
+
+		assertNotSame(original.child, result.child);
+		assertSame(result.child, result.items.get(0));
+		assertEquals(19_998, result.child.count);
+	}
+
+	@Test
+	void deepClone_shouldCopyUnmodifiableCollectionsIntoUnmodifiableOnes() {
+		List<TestNode> original = List.of(new TestNode("a", 1));
+
+		var result = ReflectionUtil.deepClone(original);
+
+		assertNotSame(original.get(0), result.get(0));
+		assertEquals(1, result.get(0).count);
+		assertThrows(UnsupportedOperationException.class, () -> result.add(new TestNode("b", 2)));
+	}
+
+	@Test
+	void deepClone_shouldCopyRecordsWithMutableComponents() {
+		var original = new TestHolder(new TestNode("node", 5), new String[]{"a"});
+
+		var result = ReflectionUtil.deepClone(original);
+
+		assertNotSame(original, result);
+		assertNotSame(original.node(), result.node());
+		assertEquals(5, result.node().count);
+		assertSame(original.names()[0], result.names()[0]);
+		assertNotSame(original.names(), result.names());
+	}
+
+	@Test
+	void deepClone_shouldCopyObjectArraysAndEnumMaps() {
+		Object[] original = {new TestNode("node", 1), "text", null};
+		var enumMap = new EnumMap<TestColor, TestNode>(TestColor.class);
+		enumMap.put(TestColor.RED, new TestNode("red", 2));
+
+		var result = ReflectionUtil.deepClone(original);
+		var enumMapResult = ReflectionUtil.deepClone(enumMap);
+
+		assertEquals(3, result.length);
+		assertNotSame(original[0], result[0]);
+		assertSame(original[1], result[1]);
+		assertNull(result[2]);
+		assertNotSame(enumMap.get(TestColor.RED), enumMapResult.get(TestColor.RED));
+		assertEquals(2, enumMapResult.get(TestColor.RED).count);
+	}
+
+	@Test
+	void deepClone_shouldThrowInitializationException_whenClassHasNoDefaultConstructor() {
+		var original = new TestNoDefault("value");
+
+		assertThrows(InitializationException.class, () -> ReflectionUtil.deepClone(original));
+	}
+
+	@Test
+	void deepClone_shouldCopyMutableJdkObjects_whenTheyAreNotOpen() {
+		var original = new TestNode("root", 1);
+		original.text = new StringBuilder("text");
+		original.counter = new AtomicInteger(3);
+		original.child = new TestNode("child", 2);
+		original.optional = Optional.of(original.child);
+		original.reference = new AtomicReference<>(original);
+
+		var result = ReflectionUtil.deepClone(original);
+
+		assertNotSame(original.text, result.text);
+		assertEquals("text", result.text.toString());
+		assertNotSame(original.counter, result.counter);
+		assertEquals(3, result.counter.get());
+		assertSame(result.child, result.optional.orElseThrow());
+		assertSame(result, result.reference.get());
+	}
+
+	@Test
+	void deepClone_shouldThrowInitializationException_whenJdkObjectIsNotOpenAndMutable() {
+		var original = new TestNode("root", 1);
+		original.other = new Random();
+
+		assertThrows(InitializationException.class, () -> ReflectionUtil.deepClone(original));
+	}
+
+	@Test
+	void deepClone_shouldKeepTheSemanticsOfCollections() {
+		List<TestNode> fixedSize = Arrays.asList(new TestNode("a", 1), null);
+		var accessOrdered = new LinkedHashMap<String, TestNode>(16, 0.75f, true);
+		accessOrdered.put("a", new TestNode("a", 1));
+		accessOrdered.put("b", new TestNode("b", 2));
+
+		var fixedSizeResult = ReflectionUtil.deepClone(fixedSize);
+		var accessOrderedResult = ReflectionUtil.deepClone(accessOrdered);
+		fixedSizeResult.set(1, new TestNode("b", 2));
+		var copiedA = accessOrderedResult.get("a");
+
+		assertNotSame(fixedSize.get(0), fixedSizeResult.get(0));
+		assertEquals(2, fixedSizeResult.get(1).count);
+		assertThrows(UnsupportedOperationException.class, () -> fixedSizeResult.add(new TestNode("c", 3)));
+		assertEquals(List.of("b", "a"), new ArrayList<>(accessOrderedResult.keySet()));
+		assertNotSame(accessOrdered.get("a"), copiedA);
+		assertEquals(1, copiedA.count);
+	}
+
+	@Test
+	void deepClone_shouldReturnNull_whenObjectIsNull() {
+		assertNull(ReflectionUtil.deepClone(null));
+	}
+
+	@Test
+	void deepClone_shouldCopyPrimitiveArrays() {
+		long[] original = {1L, 2L};
+
+		var result = ReflectionUtil.deepClone(original);
+
+		assertNotSame(original, result);
+		assertEquals(Arrays.toString(original), Arrays.toString(result));
+	}
+
+	static class TestNode {
+		private static int ids;
+		private final int finalId = ++ids;
+		private String name;
+		private int count;
+		private int[] values;
+		private TestNode child;
+		private List<TestNode> items;
+		private Map<String, TestNode> map;
+		private TreeSet<String> sorted;
+		private LocalDate date;
+		private TestColor color;
+		private TestPoint point;
+		private StringBuilder text;
+		private AtomicInteger counter;
+		private Optional<TestNode> optional;
+		private AtomicReference<TestNode> reference;
+		private Object other;
+
+		TestNode() {
+		}
+
+		TestNode(String name, int count) {
+			this.name = name;
+			this.count = count;
+		}
+	}
+
+	static class TestNoDefault {
+		private final String value;
+
+		TestNoDefault(String value) {
+			this.value = value;
+		}
+	}
+
+	enum TestColor {
+		RED, GREEN
+	}
+
+	record TestPoint(int x, String label) {
+	}
+
+	record TestHolder(TestNode node, String[] names) {
+	}
+}
@@ -0,0 +1,191 @@
+package eu.fogas.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeepEqualsTest {
+
+	@Test
+	void deepEquals_shouldReturnTrue_whenFieldsAreEqual() {
+		var a = new TestNode("root", 42, 1.5);
+		a.child = new TestNode("child", 7, 0.0);
+		a.values = new int[]{1, 2, 3};
+		var b = new TestNode("root", 42, 1.5);
+		b.child = new TestNode("child", 7, 0.0);
+		b.values = new int[]{1, 2, 3};
+
+		assertTrue(ReflectionUtil.deepEquals(a, b));
+		assertEquals(ReflectionUtil.deepHashCode(a), ReflectionUtil.deepHashCode(b));
+	}
+
+	@Test
+	void deepEquals_shouldReturnFalse_whenPrimitiveFieldDiffers() {
+		assertFalse(ReflectionUtil.deepEquals(new TestNode("a", 1, 1.0), new TestNode("a", 2, 1.0)));
+		assertFalse(ReflectionUtil.deepEquals(new TestNode("a", 1, 1.0), new TestNode("a", 1, 2.0)));
+		assertFalse(ReflectionUtil.deepEquals(new TestNode("a", 1, 0.0), new TestNode("a", 1, -0.0)));
+		assertTrue(ReflectionUtil.deepEquals(new TestNode("a", 1, Double.NaN), new TestNode("a", 1, Double.NaN)));
+	}
+
+	@Test
+	void deepEquals_shouldReturnFalse_whenNestedFieldDiffers() {
+		var a = new TestNode("root", 1, 0);
+		a.child = new TestNode("child", 2, 0);
+		var b = new TestNode("root", 1, 0);
+		b.child = new TestNode("other", 2, 0);
+
+		assertFalse(ReflectionUtil.deepEquals(a, b));
+	}
+
+	@Test
+	void deepEquals_shouldIgnoreTransientFields() {
+		var a = new TestNode("root", 1, 0);
+		a.cache = "a";
+		var b = new TestNode("root", 1, 0);
+		b.cache = "b";
+
+		assertTrue(ReflectionUtil.deepEquals(a, b));
+		assertEquals(ReflectionUtil.deepHashCode(a), ReflectionUtil.deepHashCode(b));
+	}
+
+	@Test
+	void deepEquals_shouldCompareCollectionsMapsAndRecords() {
+		var a = new TestNode("root", 1, 0);
+		a.items = new ArrayList<>(List.of(new TestNode("item", 2, 0)));
+		a.map = new HashMap<>(Map.of("key", new TestNode("value", 3, 0)));
+		a.set = new HashSet<>(Set.of(new TestNode("x", 4, 0), new TestNode("y", 5, 0)));
+		a.holder = new TestHolder(LocalDate.of(2024, 1, 1), new String[]{"a"});
+		var b = new TestNode("root", 1, 0);
+		b.items = new ArrayList<>(List.of(new TestNode("item", 2, 0)));
+		b.map = new HashMap<>(Map.of("key", new TestNode("value", 3, 0)));
+		b.set = new LinkedHashSet<>(List.of(new TestNode("y", 5, 0), new TestNode("x", 4, 0)));
+		b.holder = new TestHolder(LocalDate.of(2024, 1, 1), new String[]{"a"});
+
+		assertTrue(ReflectionUtil.deepEquals(a, b));
+		assertEquals(ReflectionUtil.deepHashCode(a), ReflectionUtil.deepHashCode(b));
+
+		b.map.get("key").count = 4;
+
+		assertFalse(ReflectionUtil.deepEquals(a, b));
+	}
+
+	@Test
+	void deepEquals_shouldTerminate_whenGraphHasCycles() {
+		var a = new TestNode("first", 1, 0);
+		a.child = new TestNode("second", 2, 0);
+		a.child.child = a;
+		var b = new TestNode("first", 1, 0);
+		b.child = new TestNode("second", 2, 0);
+		b.child.child = b;
+
+		assertTrue(ReflectionUtil.deepEquals(a, b));
+		assertEquals(ReflectionUtil.deepHashCode(a), ReflectionUtil.deepHashCode(b));
+	}
+
+	@Test
+	void deepEquals_shouldTerminate_whenCyclesHaveDifferentLengths() {
+		var a = new TestNode("node", 1, 0);
+		a.child = a;
+		var b = new TestNode("node", 1, 0);
+		b.child = new TestNode("node", 1, 0);
+		b.child.child = b;
+		var c = new TestNode("node", 1, 0);
+		c.child = new TestNode("node", 2, 0);
+		c.child.child = c;
+
+		assertTrue(ReflectionUtil.deepEquals(a, b));
+		assertTrue(ReflectionUtil.deepEquals(b, a));
+		assertEquals(ReflectionUtil.deepHashCode(a), ReflectionUtil.deepHashCode(b));
+		assertFalse(ReflectionUtil.deepEquals(a, c));
+		assertTrue(ReflectionUtil.deepEquals(Set.of(a), Set.of(b)));
+	}
+
+	@Test
+	void deepHashCode_shouldBeConsistentWithDeepEquals_whenObjectsAreShared() {
+		var shared = new TestNode("leaf", 1, 0);
+		var a = new TestNode("root", 0, 0);
+		a.child = shared;
+		a.items = new ArrayList<>(List.of(shared));
+		var b = new TestNode("root", 0, 0);
+		b.child = new TestNode("leaf", 1, 0);
+		b.items = new ArrayList<>(List.of(new TestNode("leaf", 1, 0)));
+
+		assertTrue(ReflectionUtil.deepEquals(a, b));
+		assertEquals(ReflectionUtil.deepHashCode(a), ReflectionUtil.deepHashCode(b));
+		assertTrue(ReflectionUtil.deepEquals(Set.of(a), Set.of(b)));
+	}
+
+	@Test
+	void deepEquals_shouldNotOverflowStack_whenGraphIsDeep() {
+		var a = chain(20_000);
+		var b = chain(20_000);
+
+		assertTrue(ReflectionUtil.deepEquals(a, b));
+		assertEquals(ReflectionUtil.deepHashCode(a), ReflectionUtil.deepHashCode(b));
+
+		b.child.child.count = -1;
+
+		assertFalse(ReflectionUtil.deepEquals(a, b));
+	}
+
+	@Test
+	void deepEquals_shouldHandleNullsAndDifferentClasses() {
+		assertTrue(ReflectionUtil.deepEquals(null, null));
+		assertFalse(ReflectionUtil.deepEquals(new TestNode("a", 1, 0), null));
+		assertFalse(ReflectionUtil.deepEquals(null, new TestNode("a", 1, 0)));
+		assertFalse(ReflectionUtil.deepEquals(List.of(1), Set.of(1)));
+		assertEquals(0, ReflectionUtil.deepHashCode(null));
+	}
+
+	@Test
+	void deepEquals_shouldComparePrimitiveAndObjectArrays() {
+		assertTrue(ReflectionUtil.deepEquals(new long[]{1L, 2L}, new long[]{1L, 2L}));
+		assertFalse(ReflectionUtil.deepEquals(new long[]{1L, 2L}, new long[]{1L, 3L}));
+		assertTrue(ReflectionUtil.deepEquals(new Object[]{new TestNode("a", 1, 0)},
+				new Object[]{new TestNode("a", 1, 0)}));
+		assertEquals(ReflectionUtil.deepHashCode(new long[]{1L, 2L}), ReflectionUtil.deepHashCode(new long[]{1L, 2L}));
+	}
+
+	private static TestNode chain(int length) {
+		var head = new TestNode("node", 0, 0);
+		for (int i = 1; i < length; i++) {
+			var node = new TestNode("node", i, 0);
+			node.child = head;
+			head = node;
+		}
+		return head;
+	}
+
+	static class TestNode {
+		private String name;
+		private int count;
+		private double weight;
+		private int[] values;
+		private TestNode child;
+		private List<TestNode> items;
+		private Map<String, TestNode> map;
+		private Set<TestNode> set;
+		private TestHolder holder;
+		private transient String cache;
+
+		TestNode(String name, int count, double weight) {
+			this.name = name;
+			this.count = count;
+			this.weight = weight;
+		}
+	}
+
+	record TestHolder(LocalDate date, String[] names) {
+	}
+}
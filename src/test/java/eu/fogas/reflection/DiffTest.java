@@ -0,0 +1,125 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.field.FieldNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DiffTest {
+
+	@Test
+	void diff_shouldReturnChangedFields() {
+		var oldValue = new TestEntity("name", 1, 1.5, "base");
+		var newValue = new TestEntity("other", 1, 2.5, "base");
+
+		var result = ReflectionUtil.diff(oldValue, newValue);
+
+		assertFalse(result.isEmpty());
+		assertEquals(2, result.size());
+		assertEquals(List.of("name", "weight"), result.getChangedFields());
+		assertTrue(result.isChanged("name"));
+		assertFalse(result.isChanged("count"));
+		assertFalse(result.isChanged("parent"));
+		assertEquals("name", result.getOldValue("name"));
+		assertEquals("other", result.getNewValue("name"));
+		assertEquals(2.5, result.getNewValue("weight"));
+		assertSame(oldValue, result.getOldObject());
+		assertSame(newValue, result.getNewObject());
+	}
+
+	@Test
+	void diff_shouldMapIndicesToFieldNames() {
+		var result = ReflectionUtil.diff(new TestEntity("a", 1, 0, "x"), new TestEntity("a", 1, 0, "y"));
+
+		var indices = result.getChangedIndices();
+
+		assertEquals(1, indices.cardinality());
+		assertEquals("parent", result.getFieldNames().get(indices.nextSetBit(0)));
+	}
+
+	@Test
+	void diff_shouldReturnEmptyChangeSet_whenFieldsAreEqual() {
+		var oldValue = new TestEntity("name", 1, 1.5, "base");
+		oldValue.tags = new String[]{"a"};
+		var newValue = new TestEntity("name", 1, 1.5, "base");
+		newValue.tags = new String[]{"a"};
+
+		var result = ReflectionUtil.diff(oldValue, newValue);
+
+		assertTrue(result.isEmpty());
+		assertEquals(0, result.size());
+	}
+
+	@Test
+	void diff_shouldReadValuesLazily() {
+		var oldValue = new TestEntity("name", 1, 0, "base");
+		var newValue = new TestEntity("name", 2, 0, "base");
+		var result = ReflectionUtil.diff(oldValue, newValue);
+
+		newValue.count = 3;
+
+		assertEquals(3, result.getNewValue("count"));
+	}
+
+	@Test
+	void diff_shouldThrowIllegalArgumentException_whenClassesDiffer() {
+		var oldValue = new TestBase("a");
+		var newValue = new TestEntity("a", 1, 0, "a");
+
+		assertThrows(IllegalArgumentException.class, () -> ReflectionUtil.diff(oldValue, newValue));
+	}
+
+	@Test
+	void diff_shouldThrowFieldNotFoundException_whenFieldIsUnknown() {
+		var result = ReflectionUtil.diff(new TestEntity("a", 1, 0, "x"), new TestEntity("a", 1, 0, "x"));
+
+		assertThrows(FieldNotFoundException.class, () -> result.isChanged("unknown"));
+	}
+
+	@Test
+	void diffAll_shouldCompareThePairs() {
+		var oldValues = List.of(new TestEntity("a", 1, 0, "x"), new TestEntity("b", 2, 0, "y"));
+		var newValues = List.of(new TestEntity("a", 1, 0, "x"), new TestEntity("b", 3, 0, "y"));
+
+		var result = ReflectionUtil.<TestEntity>diffAll(oldValues, newValues);
+
+		assertEquals(2, result.size());
+		assertTrue(result.get(0).isEmpty());
+		assertEquals(List.of("count"), result.get(1).getChangedFields());
+	}
+
+	@Test
+	void diffAll_shouldThrowIllegalArgumentException_whenSizesDiffer() {
+		var oldValues = List.of(new TestEntity("a", 1, 0, "x"));
+
+		assertThrows(IllegalArgumentException.class, () -> ReflectionUtil.diffAll(oldValues, List.of()));
+	}
+
+	static class TestBase {
+		private String parent;
+
+		TestBase(String parent) {
+			this.parent = parent;
+		}
+	}
+
+	static class TestEntity extends TestBase {
+		private String name;
+		private int count;
+		private double weight;
+		private String[] tags;
+
+		TestEntity(String name, int count, double weight, String parent) {
+			super(parent);
+			this.name = name;
+			this.count = count;
+			this.weight = weight;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package eu.fogas.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FieldAccessorAllocationTest {
+
+	private static final int WARM_UP = 20_000;
+	private static final int ITERATIONS = 200_000;
+	/**
+	 * Bound of the bytes allocated by all the iterations together, far below one byte per call, so even a single
+	 * boxed value every few calls fails the test.
+	 */
+	private static final long MAX_ALLOCATED_BYTES = 16 * 1024;
+
+	private final com.sun.management.ThreadMXBean threads =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private long sink;
+
+	@Test
+	void getInt_shouldNotAllocate() {
+		var metrics = new Metrics();
+		metrics.count = 1_000_000;
+
+		long allocated = allocatedBytes(() -> sink += ReflectionUtil.getInt(metrics, "count"));
+
+		assertTrue(allocated < MAX_ALLOCATED_BYTES, allocated + " bytes allocated");
+	}
+
+	@Test
+	void setLong_shouldNotAllocate() {
+		var metrics = new Metrics();
+
+		long allocated = allocatedBytes(() -> ReflectionUtil.setLong(metrics, "total", sink++ + 1_000_000L));
+
+		assertTrue(allocated < MAX_ALLOCATED_BYTES, allocated + " bytes allocated");
+	}
+
+	@Test
+	void accessorGetDouble_shouldNotAllocate() {
+		var metrics = new Metrics();
+		metrics.average = 12.5;
+		FieldAccessor<Metrics, Double> accessor = ReflectionUtil.accessor(Metrics.class, "average");
+
+		long allocated = allocatedBytes(() -> sink += (long) accessor.getDouble(metrics));
+
+		assertTrue(allocated < MAX_ALLOCATED_BYTES, allocated + " bytes allocated");
+	}
+
+	@Test
+	void accessorSetDouble_shouldNotAllocate() {
+		var metrics = new Metrics();
+		FieldAccessor<Metrics, Double> accessor = ReflectionUtil.accessor(Metrics.class, "average");
+
+		long allocated = allocatedBytes(() -> accessor.setDouble(metrics, sink++ * 0.5));
+
+		assertTrue(allocated < MAX_ALLOCATED_BYTES, allocated + " bytes allocated");
+	}
+
+	@Test
+	void primitiveAccessors_shouldReadAndWriteTheFieldValue() {
+		var metrics = new Metrics();
+
+		ReflectionUtil.setInt(metrics, "count", 42);
+		ReflectionUtil.setLong(metrics, "total", 42L);
+		ReflectionUtil.setDouble(metrics, "average", 4.2);
+		ReflectionUtil.setBoolean(metrics, "active", true);
+
+		assertEquals(42, ReflectionUtil.getInt(metrics, "count"));
+		assertEquals(42L, ReflectionUtil.getLong(metrics, "total"));
+		assertEquals(4.2, ReflectionUtil.getDouble(metrics, "average"));
+		assertTrue(ReflectionUtil.getBoolean(metrics, "active"));
+	}
+
+	@Test
+	void getInt_shouldThrowIllegalArgumentException_whenFieldIsNotInt() {
+		assertThrows(IllegalArgumentException.class, () -> ReflectionUtil.getInt(new Metrics(), "total"));
+	}
+
+	private long allocatedBytes(Runnable call) {
+		for (int i = 0; i < WARM_UP; i++) {
+			call.run();
+		}
+		long before = threads.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < ITERATIONS; i++) {
+			call.run();
+		}
+		long after = threads.getCurrentThreadAllocatedBytes();
+		return after - before;
+	}
+
+	static class Metrics {
+		private int count;
+		private long total;
+		private double average;
+		private boolean active;
+	}
+}
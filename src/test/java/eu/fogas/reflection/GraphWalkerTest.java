@@ -0,0 +1,194 @@
+package eu.fogas.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GraphWalkerTest {
+
+	@Test
+	void walk_shouldVisitEveryObjectOnce_whenGraphHasCycles() {
+		var first = new TestNode("first");
+		var second = new TestNode("second");
+		first.next = second;
+		second.next = first;
+		Map<Object, Integer> visits = new IdentityHashMap<>();
+
+		var result = ReflectionUtil.walk(first, (obj, depth) -> {
+			visits.merge(obj, 1, Integer::sum);
+			return true;
+		});
+
+		// two nodes and their names
+		assertEquals(4, result);
+		assertEquals(4, visits.size());
+		assertTrue(visits.values().stream().allMatch(count -> count == 1));
+	}
+
+	@Test
+	void walk_shouldPassTheShortestDistanceAsDepth() {
+		var root = new TestNode("root");
+		var child = new TestNode("child");
+		var grandChild = new TestNode("grandChild");
+		root.next = child;
+		child.next = grandChild;
+		root.items = List.of(grandChild);
+		Map<Object, Integer> depths = new IdentityHashMap<>();
+
+		GraphWalker.create().walk(root, (obj, depth) -> {
+			depths.put(obj, depth);
+			return true;
+		});
+
+		assertEquals(0, depths.get(root));
+		assertEquals(1, depths.get(child));
+		assertEquals(2, depths.get(grandChild));
+	}
+
+	@Test
+	void walk_shouldNotVisitObjectsBeyondTheMaxDepth() {
+		var root = new TestNode("root");
+		root.next = new TestNode("child");
+		root.next.next = new TestNode("grandChild");
+		List<Object> visited = new ArrayList<>();
+
+		GraphWalker.create().withMaxDepth(1).walk(root, (obj, depth) -> visited.add(obj));
+
+		assertEquals(List.of(root, "root", root.next), visited);
+	}
+
+	@Test
+	void walk_shouldSkipTheReferencesOfAnObject_whenVisitorReturnsFalse() {
+		var root = new TestNode("root");
+		root.next = new TestNode("child");
+
+		var result = GraphWalker.create().walk(root, (obj, depth) -> !(obj instanceof TestNode) || depth == 0);
+
+		// root, its name and the child, but not the name of the child
+		assertEquals(3, result);
+	}
+
+	@Test
+	void walk_shouldWalkArraysCollectionsAndMaps() {
+		var root = new TestNode("root");
+		root.array = new Object[]{"a", null, new int[]{1, 2}};
+		root.items = List.of("b");
+		Map<String, Object> map = new HashMap<>();
+		map.put("key", "value");
+		root.map = map;
+		Set<Object> visited = ConcurrentHashMap.newKeySet();
+
+		GraphWalker.create().walk(root, (obj, depth) -> visited.add(obj));
+
+		assertTrue(visited.containsAll(List.of("root", "a", "b", "key", "value")));
+		assertTrue(visited.contains(root.array[2]));
+		assertEquals(10, visited.size());
+	}
+
+	@Test
+	void walk_shouldTreatJdkClassesAsOpaque() {
+		List<Object> visited = new ArrayList<>();
+
+		var result = GraphWalker.create().walk(new StringBuilder("text"), (obj, depth) -> visited.add(obj));
+
+		assertEquals(1, result);
+	}
+
+	@Test
+	void walk_shouldReturnZero_whenRootIsNull() {
+		assertEquals(0, GraphWalker.create().walk(null, (obj, depth) -> true));
+	}
+
+	@Test
+	void withMaxDepth_shouldThrowIllegalArgumentException_whenDepthIsNegative() {
+		assertThrows(IllegalArgumentException.class, () -> GraphWalker.create().withMaxDepth(-1));
+	}
+
+	@Test
+	void parallelWalk_shouldVisitEveryObjectOnce_whenCollectionsAreSplit() {
+		List<TestNode> nodes = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			var node = new TestNode(null);
+			node.next = nodes.isEmpty() ? null : nodes.get(i / 2);
+			nodes.add(node);
+		}
+		var root = new TestNode("root");
+		root.items = nodes;
+		root.array = nodes.toArray();
+		Set<Object> visited = ConcurrentHashMap.newKeySet();
+		var pool = new ForkJoinPool(4);
+		try {
+			var result = GraphWalker.create().parallel(pool).walk(root, (obj, depth) -> {
+				assertTrue(visited.add(new IdentityKey(obj)));
+				return true;
+			});
+
+			// root, its name, the list, the array and the nodes
+			assertEquals(10_004, result);
+			assertEquals(10_004, visited.size());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void identitySet_shouldCompareByIdentity() {
+		var set = new IdentitySet();
+		var first = new String("value");
+		var second = new String("value");
+
+		assertTrue(set.add(first));
+		assertTrue(set.add(second));
+		assertFalse(set.add(first));
+		for (int i = 0; i < 1000; i++) {
+			set.add(new Object());
+		}
+
+		assertEquals(1002, set.size());
+		assertTrue(set.contains(second));
+		assertFalse(set.contains(new String("value")));
+	}
+
+	static class TestNode {
+		private final String name;
+		private TestNode next;
+		private List<?> items;
+		private Object[] array;
+		private Map<String, Object> map;
+		private int ignored;
+
+		TestNode(String name) {
+			this.name = name;
+		}
+	}
+
+	static final class IdentityKey {
+		private final Object obj;
+
+		IdentityKey(Object obj) {
+			this.obj = obj;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof IdentityKey && ((IdentityKey) other).obj == obj;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(obj);
+		}
+	}
+}
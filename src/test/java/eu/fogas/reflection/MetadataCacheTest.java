@@ -0,0 +1,110 @@
+package eu.fogas.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MetadataCacheTest {
+
+	private static final Function<Object[], ?> INVOKER = args -> null;
+
+	@Test
+	void clockCache_shouldReturnTheCachedValue() {
+		var cache = new ClockCache<String>(2);
+
+		var first = cache.computeIfAbsent("a", String::toUpperCase);
+		var second = cache.computeIfAbsent("a", key -> "other");
+
+		assertEquals("A", first);
+		assertSame(first, second);
+		assertEquals("A", cache.get("a"));
+	}
+
+	@Test
+	void clockCache_shouldEvictTheLeastRecentlyUsedEntry_whenFull() {
+		var cache = new ClockCache<String>(3);
+		cache.computeIfAbsent("a", String::toUpperCase);
+		cache.computeIfAbsent("b", String::toUpperCase);
+		cache.computeIfAbsent("c", String::toUpperCase);
+		cache.get("a");
+		cache.get("c");
+
+		cache.computeIfAbsent("d", String::toUpperCase);
+
+		assertEquals(3, cache.size());
+		assertNull(cache.get("b"));
+		assertEquals("A", cache.get("a"));
+		assertEquals("C", cache.get("c"));
+		assertEquals("D", cache.get("d"));
+	}
+
+	@Test
+	void clockCache_shouldStayBounded_whenManyKeysAreLoaded() {
+		var cache = new ClockCache<String>(16);
+
+		for (int i = 0; i < 1000; i++) {
+			cache.computeIfAbsent("key" + i, String::toUpperCase);
+		}
+
+		assertEquals(16, cache.size());
+		assertEquals("KEY999", cache.get("key999"));
+	}
+
+	@Test
+	void clockCache_shouldThrowIllegalArgumentException_whenCapacityIsNotPositive() {
+		assertThrows(IllegalArgumentException.class, () -> new ClockCache<String>(0));
+	}
+
+	@Test
+	void constructorCache_shouldKeepTheRecentlyUsedEntries_whenFull() {
+		var cache = new ConstructorCache(2);
+		Object[] strings = {"a"};
+		Object[] integers = {1};
+		Object[] longs = {1L};
+		cache.put(ConstructorCache.argTypes(strings), INVOKER);
+		cache.put(ConstructorCache.argTypes(integers), INVOKER);
+		cache.get(strings);
+
+		cache.put(ConstructorCache.argTypes(longs), INVOKER);
+
+		assertEquals(2, cache.size());
+		assertNotNull(cache.get(strings));
+		assertNull(cache.get(integers));
+		assertNotNull(cache.get(longs));
+	}
+
+	@Test
+	void constructorCache_shouldStayBounded_whenManySignaturesAreResolved() {
+		var cache = new ConstructorCache(4);
+		Object[][] signatures = {{1}, {1L}, {"a"}, {'a'}, {1.0}, {1.0f}, {(short) 1}, {(byte) 1}, {true}, {null}};
+
+		for (Object[] args : signatures) {
+			cache.put(ConstructorCache.argTypes(args), INVOKER);
+		}
+
+		assertEquals(4, cache.size());
+		assertNotNull(cache.get(new Object[]{null}));
+	}
+
+	@Test
+	void eviction_shouldBeCountedByTheMetrics() {
+		ReflectionMetrics.reset();
+		ReflectionMetrics.enable();
+		try {
+			var cache = new ClockCache<String>(1);
+			cache.computeIfAbsent("a", String::toUpperCase);
+			cache.computeIfAbsent("b", String::toUpperCase);
+
+			assertEquals(1, ReflectionMetrics.snapshot().cacheEvictions());
+		} finally {
+			ReflectionMetrics.disable();
+			ReflectionMetrics.reset();
+		}
+	}
+}
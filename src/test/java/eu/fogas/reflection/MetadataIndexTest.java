@@ -0,0 +1,115 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.field.FieldNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetadataIndexTest {
+
+	@Test
+	void load_shouldReturnTheGeneratedIndex_whenClassIsIndexed() {
+		var result = MetadataIndex.load(TestIndexed.class);
+
+		assertNotNull(result);
+		assertEquals(TestIndexedParent.class.getName(), result.getSuperclass());
+		assertEquals(List.of("name", "values", "COUNT"),
+				result.getFields().stream().map(MetadataIndex.FieldEntry::name).collect(Collectors.toList()));
+		assertEquals(new MetadataIndex.FieldEntry("values", Modifier.PRIVATE, "[I"),
+				result.getFields().stream().skip(1).findFirst().orElseThrow());
+		assertEquals(List.of(List.of(), List.of("java.lang.String", "[I")), result.getConstructors());
+		assertTrue(result.hasDefaultConstructor());
+	}
+
+	@Test
+	void load_shouldReturnNull_whenClassIsNotIndexed() {
+		assertNull(MetadataIndex.load(TestIndexedParent.class));
+		assertNull(MetadataIndex.load(String.class));
+	}
+
+	@Test
+	void parse_shouldReturnNull_whenIndexBelongsToAnOtherClass() throws IOException {
+		var content = MetadataIndex.HEADER + "\nclass other.Type 1\n";
+
+		var result = MetadataIndex.parse(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "my.Type");
+
+		assertNull(result);
+	}
+
+	@Test
+	void parse_shouldReturnNull_whenIndexVersionIsUnknown() throws IOException {
+		var content = "# reflection-util metadata index v0\nclass my.Type 1\n";
+
+		var result = MetadataIndex.parse(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "my.Type");
+
+		assertNull(result);
+	}
+
+	@Test
+	void getDeclaredField_shouldResolveFieldsThroughTheIndex() {
+		assertEquals(TestIndexed.class, ReflectionUtil.getDeclaredField(TestIndexed.class, "name").getDeclaringClass());
+		assertEquals(TestIndexedParent.class,
+				ReflectionUtil.getDeclaredField(TestIndexed.class, "parentName").getDeclaringClass());
+		assertThrows(FieldNotFoundException.class, () -> ReflectionUtil.getDeclaredField(TestIndexed.class, "missing"));
+	}
+
+	@Test
+	void getDeclaredField_shouldResolveFieldsMissingFromTheIndex_whenTheyAreSynthetic() {
+		assertFalse(MetadataIndex.load(TestIndexedWithAssert.class).hasField("$assertionsDisabled"));
+
+		var result = ReflectionUtil.getDeclaredField(TestIndexedWithAssert.class, "$assertionsDisabled");
+
+		assertTrue(result.isSynthetic());
+		assertEquals(result, ReflectionUtil.getAllFields(TestIndexedWithAssert.class).stream()
+				.filter(Field::isSynthetic).findFirst().orElseThrow());
+	}
+
+	@Test
+	void newInstance_shouldUseTheDefaultConstructorFromTheIndex() {
+		var result = ReflectionUtil.newInstance(TestIndexed.class);
+
+		assertEquals("default", result.name);
+		assertFalse(ReflectionUtil.newInstance(TestIndexed.class, "name", new int[0]).name.isEmpty());
+	}
+
+	static class TestIndexedParent {
+		String parentName;
+	}
+
+	@Indexed
+	static class TestIndexed extends TestIndexedParent {
+		String name = "default";
+		private int[] values;
+		static final int COUNT = 1;
+
+		TestIndexed() {
+		}
+
+		TestIndexed(String name, int[] values) {
+			this.name = name;
+			this.values = values;
+		}
+	}
+
+	@Indexed
+	static class TestIndexedWithAssert {
+		String name;
+
+		void check() {
+			assert name != null;
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.operation.MetadataCacheException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetadataStoreTest {
+
+	@Test
+	void load_shouldReturnTheSavedIndex() throws IOException {
+		Path file = Files.createTempFile("metadata", ".cache");
+
+		assertEquals(1, MetadataStore.save(file, List.of(TestCached.class)));
+		assertEquals(1, MetadataStore.load(file));
+		var result = MetadataStore.index(TestCached.class);
+
+		assertNotNull(result);
+		assertEquals(Object.class.getName(), result.getSuperclass());
+		assertEquals(List.of("name", "count"),
+				result.getFields().stream().map(MetadataIndex.FieldEntry::name).collect(Collectors.toList()));
+		assertTrue(result.hasDefaultConstructor());
+		assertNull(MetadataStore.index(TestNotCached.class));
+		Files.delete(file);
+	}
+
+	@Test
+	void load_shouldSkipTheEntry_whenClassFileHasChanged() throws IOException {
+		Path file = Files.createTempFile("metadata", ".cache");
+		MetadataStore.save(file, List.of(TestCached.class));
+		byte[] content = Files.readAllBytes(file);
+		byte[] stamp = ByteBuffer.allocate(Long.BYTES).putLong(MetadataStore.stamp(TestCached.class)).array();
+		int position = indexOf(content, stamp);
+		content[position + Long.BYTES - 1] ^= 1;
+		Files.write(file, content);
+
+		MetadataStore.load(file);
+
+		assertNull(MetadataStore.index(TestCached.class));
+		Files.delete(file);
+	}
+
+	@Test
+	void getDeclaredField_shouldLookUpTheDeclaringClassOfTheSavedMember() throws IOException {
+		Path file = Files.createTempFile("metadata", ".cache");
+		MetadataStore.save(file, List.of(TestCachedChild.class));
+		MetadataStore.load(file);
+
+		var index = MetadataStore.index(TestCachedChild.class);
+		var result = ReflectionUtil.getDeclaredField(TestCachedChild.class, "name");
+
+		assertEquals(0, index.getMemberDepth("label"));
+		assertEquals(1, index.getMemberDepth("name"));
+		assertEquals(-1, index.getMemberDepth("missing"));
+		assertEquals(TestCached.class, result.getDeclaringClass());
+		assertEquals(TestCachedChild.class,
+				ReflectionUtil.getDeclaredField(TestCachedChild.class, "label").getDeclaringClass());
+		Files.delete(file);
+	}
+
+	@Test
+	void load_shouldThrowMetadataCacheException_whenFileIsNotACache() throws IOException {
+		Path file = Files.createTempFile("metadata", ".cache");
+		Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+
+		assertThrows(MetadataCacheException.class, () -> ReflectionUtil.loadMetadataCache(file));
+		Files.delete(file);
+	}
+
+	@Test
+	void saveMetadataCache_shouldWriteTheResolvedClasses() throws IOException {
+		Path file = Files.createTempFile("metadata", ".cache");
+		ReflectionUtil.recordMetadataCache();
+		ReflectionUtil.getDeclaredField(TestResolved.class, "value");
+
+		int saved = ReflectionUtil.saveMetadataCache(file);
+		int loaded = ReflectionUtil.loadMetadataCache(file);
+
+		assertTrue(saved > 0);
+		assertEquals(saved, loaded);
+		assertNotNull(MetadataStore.index(TestResolved.class));
+		Files.delete(file);
+	}
+
+	@Test
+	void stamp_shouldReturnMinusOne_whenClassFileIsNotAvailable() {
+		assertEquals(-1, MetadataStore.stamp(int.class));
+		assertEquals(-1, MetadataStore.stamp(int[].class));
+		assertTrue(MetadataStore.stamp(String.class) >= 0);
+		assertTrue(MetadataStore.stamp(TestCached.class) >= 0);
+	}
+
+	@Test
+	void stamp_shouldChange_whenTheClassFileIsModified() throws Exception {
+		Path classFile = Path.of(TestCachedChild.class.getResource("MetadataStoreTest$TestCachedChild.class").toURI());
+		FileTime modified = Files.getLastModifiedTime(classFile);
+		long before = MetadataStore.stamp(TestCachedChild.class);
+		try {
+			Files.setLastModifiedTime(classFile, FileTime.fromMillis(modified.toMillis() + 1000));
+
+			assertNotEquals(before, MetadataStore.stamp(TestCachedChild.class));
+		} finally {
+			Files.setLastModifiedTime(classFile, modified);
+		}
+	}
+
+	private static int indexOf(byte[] content, byte[] pattern) {
+		for (int i = 0; i + pattern.length <= content.length; i++) {
+			int j = 0;
+			while (j < pattern.length && content[i + j] == pattern[j]) {
+				j++;
+			}
+			if (j == pattern.length) {
+				return i;
+			}
+		}
+		throw new AssertionError("pattern not found");
+	}
+
+	static class TestCached {
+		private String name;
+		private int count;
+	}
+
+	static class TestCachedChild extends TestCached {
+		private String label;
+	}
+
+	static class TestNotCached {
+		private String name;
+	}
+
+	static class TestResolved {
+		private String value;
+	}
+}
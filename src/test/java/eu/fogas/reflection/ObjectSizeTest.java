@@ -0,0 +1,97 @@
+package eu.fogas.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ObjectSizeTest {
+
+	@Test
+	void shallowSize_shouldSumHeaderAndFields() {
+		long expected = align(ObjectSizes.OBJECT_HEADER + 8 + 4 + 1 + ObjectSizes.REFERENCE_SIZE * 2L);
+
+		assertEquals(expected, ReflectionUtil.shallowSize(TestNode.class));
+		assertEquals(align(ObjectSizes.OBJECT_HEADER), ReflectionUtil.shallowSize(Object.class));
+	}
+
+	@Test
+	void shallowSize_shouldIncludeInheritedFields() {
+		long expected = align(ObjectSizes.OBJECT_HEADER + 8 + 4 + 1 + ObjectSizes.REFERENCE_SIZE * 2L + 8);
+
+		assertEquals(expected, ReflectionUtil.shallowSize(TestChild.class));
+	}
+
+	@Test
+	void shallowSize_shouldBeAligned() {
+		assertEquals(0, ReflectionUtil.shallowSize(TestNode.class) % ObjectSizes.ALIGNMENT);
+		assertEquals(0, ReflectionUtil.shallowSize(int[].class) % ObjectSizes.ALIGNMENT);
+	}
+
+	@Test
+	void shallowSize_shouldThrowIllegalArgumentException_whenTypeIsPrimitive() {
+		assertThrows(IllegalArgumentException.class, () -> ReflectionUtil.shallowSize(int.class));
+	}
+
+	@Test
+	void deepSize_shouldSumReachableObjects() {
+		var node = new TestNode();
+		node.values = new long[10];
+
+		long expected = ReflectionUtil.shallowSize(TestNode.class) + align(ObjectSizes.ARRAY_HEADER + 80);
+
+		assertEquals(expected, ReflectionUtil.deepSize(node));
+	}
+
+	@Test
+	void deepSize_shouldCountSharedObjectsOnce_whenGraphHasCycles() {
+		var first = new TestNode();
+		var second = new TestNode();
+		first.next = second;
+		second.next = first;
+
+		assertEquals(2 * ReflectionUtil.shallowSize(TestNode.class), ReflectionUtil.deepSize(first));
+	}
+
+	@Test
+	void deepSize_shouldCountCollectionInternals() {
+		List<TestNode> list = new ArrayList<>();
+		var map = new HashMap<String, TestNode>();
+		for (int i = 0; i < 10; i++) {
+			list.add(new TestNode());
+			map.put("key" + i, new TestNode());
+		}
+
+		long nodes = 10 * ReflectionUtil.shallowSize(TestNode.class);
+
+		assertTrue(ReflectionUtil.deepSize(list) > ReflectionUtil.shallowSize(ArrayList.class) + nodes);
+		assertTrue(ReflectionUtil.deepSize(map) > ReflectionUtil.shallowSize(HashMap.class) + nodes);
+		assertTrue(ReflectionUtil.deepSize("text") > ReflectionUtil.shallowSize(String.class));
+	}
+
+	@Test
+	void deepSize_shouldReturnZero_whenObjectIsNull() {
+		assertEquals(0, ReflectionUtil.deepSize(null));
+	}
+
+	private static long align(long size) {
+		return (size + ObjectSizes.ALIGNMENT - 1) / ObjectSizes.ALIGNMENT * ObjectSizes.ALIGNMENT;
+	}
+
+	static class TestNode {
+		private long id;
+		private int count;
+		private boolean flag;
+		private long[] values;
+		private TestNode next;
+	}
+
+	static class TestChild extends TestNode {
+		private double weight;
+	}
+}
@@ -0,0 +1,92 @@
+package eu.fogas.reflection;
+
+import eu.fogas.reflection.exception.field.FieldNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ProjectionTest {
+
+	@Test
+	void project_shouldExtractColumns() {
+		var objects = List.of(new TestRow(1, 10L, 1.5f, "a", true), new TestRow(2, 20L, 2.5f, "b", false));
+
+		var result = ReflectionUtil.project(TestRow.class, List.of("id", "total", "weight", "name", "active"), objects);
+
+		assertEquals(2, result.size());
+		assertEquals(List.of("id", "total", "weight", "name", "active"), result.getFieldNames());
+		assertArrayEquals(new int[]{1, 2}, result.getIntColumn("id"));
+		assertArrayEquals(new long[]{10L, 20L}, result.getLongColumn("total"));
+		assertArrayEquals(new double[]{1.5, 2.5}, result.getDoubleColumn("weight"));
+		assertArrayEquals(new Object[]{"a", "b"}, result.getObjectColumn("name"));
+		assertArrayEquals(new int[]{1, 0}, result.getIntColumn("active"));
+		assertEquals(int.class, result.getColumnType("active"));
+		assertEquals(Object.class, result.getColumnType("name"));
+	}
+
+	@Test
+	void project_shouldGrowColumns_whenIterableIsNotACollection() {
+		List<TestRow> rows = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			rows.add(new TestRow(i, i, 0, "row", false));
+		}
+		Iterable<TestRow> objects = rows::iterator;
+
+		var result = ReflectionUtil.project(TestRow.class, List.of("id", "code"), objects);
+
+		assertEquals(100, result.size());
+		assertEquals(100, result.getIntColumn("id").length);
+		assertEquals(99, result.getIntColumn("id")[99]);
+		assertEquals('x', result.getIntColumn("code")[0]);
+	}
+
+	@Test
+	void project_shouldReturnEmptyColumns_whenThereAreNoObjects() {
+		var result = ReflectionUtil.project(TestRow.class, List.of("id", "name"), List.of());
+
+		assertEquals(0, result.size());
+		assertEquals(0, result.getIntColumn("id").length);
+		assertEquals(0, result.getObjectColumn("name").length);
+	}
+
+	@Test
+	void project_shouldThrowFieldNotFoundException_whenFieldIsUnknown() {
+		var fieldNames = List.of("unknown");
+		var objects = List.of(new TestRow(1, 1L, 0, "a", true));
+
+		assertThrows(FieldNotFoundException.class, () -> ReflectionUtil.project(TestRow.class, fieldNames, objects));
+	}
+
+	@Test
+	void getColumn_shouldThrowIllegalArgumentException_whenColumnTypeDiffers() {
+		var result = ReflectionUtil.project(TestRow.class, List.of("id"), List.of(new TestRow(1, 1L, 0, "a", true)));
+
+		assertThrows(IllegalArgumentException.class, () -> result.getLongColumn("id"));
+		assertThrows(FieldNotFoundException.class, () -> result.getIntColumn("total"));
+	}
+
+	static class TestBase {
+		private char code = 'x';
+	}
+
+	static class TestRow extends TestBase {
+		private int id;
+		private long total;
+		private float weight;
+		private String name;
+		private boolean active;
+
+		TestRow(int id, long total, float weight, String name, boolean active) {
+			this.id = id;
+			this.total = total;
+			this.weight = weight;
+			this.name = name;
+			this.active = active;
+		}
+	}
+}
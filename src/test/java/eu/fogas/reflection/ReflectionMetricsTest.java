@@ -0,0 +1,159 @@
+package eu.fogas.reflection;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReflectionMetricsTest {
+
+	@BeforeEach
+	void setUp() {
+		ReflectionMetrics.reset();
+		ReflectionMetrics.enable();
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReflectionMetrics.disable();
+		ReflectionMetrics.reset();
+	}
+
+	@Test
+	void snapshot_shouldBeEmpty_whenMetricsAreDisabled() {
+		ReflectionMetrics.disable();
+
+		ReflectionUtil.getDeclaredField(TestDisabled.class, "value");
+		ReflectionUtil.newInstance(TestDisabled.class);
+
+		var result = ReflectionMetrics.snapshot();
+		assertEquals(0, result.fieldLookups());
+		assertEquals(0, result.cacheMisses());
+		assertTrue(result.newInstanceCalls().isEmpty());
+	}
+
+	@Test
+	void snapshot_shouldCountFieldLookupsAndMisses() {
+		ReflectionUtil.getDeclaredField(TestChild.class, "parentValue");
+		ReflectionUtil.getDeclaredField(TestChild.class, "parentValue");
+		assertThrows(RuntimeException.class, () -> ReflectionUtil.getDeclaredField(TestChild.class, "missing"));
+
+		var result = ReflectionMetrics.snapshot();
+		assertEquals(3, result.fieldLookups());
+		assertEquals(1, result.fieldLookupMisses());
+		assertEquals(1, result.cacheHits());
+		assertEquals(2, result.cacheMisses());
+		// parentValue is found in the super class (2 classes), missing walks TestChild, TestParent and Object
+		assertEquals(5, result.hierarchyDepthWalked());
+		assertEquals(1.0 / 3, result.cacheHitRate(), 1e-9);
+	}
+
+	@Test
+	void snapshot_shouldCountAccessorLookupsOnce() {
+		ReflectionUtil.accessor(TestAccessed.class, "value");
+		ReflectionUtil.accessor(TestAccessed.class, "value");
+
+		var result = ReflectionMetrics.snapshot();
+		assertEquals(1, result.cacheHits());
+		assertEquals(1, result.cacheMisses());
+	}
+
+	@Test
+	void snapshot_shouldCountAnInaccessibleFieldOnce_whenItsAccessorIsCreated() {
+		ReflectionUtil.accessor(String.class, "value");
+
+		assertEquals(1, ReflectionMetrics.snapshot().accessibilityFailures());
+	}
+
+	@Test
+	void snapshot_shouldCountNewInstanceCallsPerClass() {
+		ReflectionUtil.newInstance(TestChild.class);
+		ReflectionUtil.newInstance(TestChild.class);
+		ReflectionUtil.newInstance(TestParent.class, 1);
+
+		var result = ReflectionMetrics.snapshot();
+		assertEquals(2L, result.newInstanceCalls().get(TestChild.class.getName()));
+		assertEquals(1L, result.newInstanceCalls().get(TestParent.class.getName()));
+	}
+
+	@Test
+	void reset_shouldClearTheRecordedValues() {
+		ReflectionUtil.newInstance(TestChild.class);
+
+		ReflectionMetrics.reset();
+
+		var result = ReflectionMetrics.snapshot();
+		assertEquals(0, result.cacheHits() + result.cacheMisses());
+		assertTrue(result.newInstanceCalls().isEmpty());
+	}
+
+	@Test
+	void enabledMetrics_shouldEmitJfrEvents() throws IOException {
+		Path file = Files.createTempFile("reflection-metrics", ".jfr");
+		try (var recording = new Recording()) {
+			recording.enable("eu.fogas.reflection.FieldLookup");
+			recording.enable("eu.fogas.reflection.Instantiation");
+			recording.start();
+			ReflectionUtil.getDeclaredField(TestRecorded.class, "value");
+			ReflectionUtil.newInstance(TestRecorded.class);
+			recording.stop();
+			recording.dump(file);
+
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("eu.fogas.reflection.FieldLookup")
+					&& e.getString("fieldName").equals("value") && e.getBoolean("found")));
+			assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("eu.fogas.reflection.Instantiation")
+					&& e.getClass("type").getName().equals(TestRecorded.class.getName())));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void isEnabled_shouldReflectEnableAndDisable() {
+		assertTrue(ReflectionMetrics.isEnabled());
+
+		ReflectionMetrics.disable();
+
+		assertFalse(ReflectionMetrics.isEnabled());
+	}
+
+	static class TestParent {
+		int parentValue;
+
+		TestParent() {
+		}
+
+		TestParent(int parentValue) {
+			this.parentValue = parentValue;
+		}
+	}
+
+	static class TestChild extends TestParent {
+		int childValue;
+	}
+
+	static class TestDisabled {
+		int value;
+	}
+
+	static class TestRecorded {
+		int value;
+	}
+
+	static class TestAccessed {
+		int value;
+	}
+}
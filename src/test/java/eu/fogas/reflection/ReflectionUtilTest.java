@@ -9,9 +9,14 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -22,6 +27,9 @@ import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -68,6 +76,127 @@ public class ReflectionUtilTest {
 		assertEquals(testClass.getName(), result);
 	}
 
+	@Test
+	void accessor_shouldReadAndWriteTheFieldValue() {
+		TestClass testClass = new TestClass();
+		FieldAccessor<TestClass, String> accessor = ReflectionUtil.accessor(TestClass.class, "parentName");
+
+		accessor.set(testClass, "parent");
+
+		assertEquals("parent", accessor.get(testClass));
+		assertEquals("parent", testClass.getParentName());
+	}
+
+	@Test
+	void accessor_shouldReturnTheSameInstance_whenCalledRepeatedly() {
+		var first = ReflectionUtil.accessor(TestClass.class, "name");
+
+		var result = ReflectionUtil.accessor(TestClass.class, "name");
+
+		assertSame(first, result);
+	}
+
+	@Test
+	void accessor_shouldThrowFieldNotFoundException_whenFieldIsNotPresent() {
+		assertThrows(FieldNotFoundException.class, () ->
+				ReflectionUtil.accessor(TestClass.class, "blah"));
+	}
+
+	@Test
+	void accessor_shouldThrowFieldValueCannotChangedException_whenFieldIsFinal() {
+		FieldAccessor<TestClass, String> accessor = ReflectionUtil.accessor(TestClass.class, "FINAL_STATIC_FIELD");
+
+		assertThrows(FieldValueCannotChangedException.class, () -> accessor.set(new TestClass(), "new value"));
+		assertEquals("originalValueOfFinalStaticField", accessor.get(null));
+	}
+
+	@Test
+	void accessor_shouldThrowIllegalArgumentException_whenValueHasWrongType() {
+		FieldAccessor<TestClass, Object> accessor = ReflectionUtil.accessor(TestClass.class, "name");
+
+		assertThrows(IllegalArgumentException.class, () -> accessor.set(new TestClass(), 1L));
+	}
+
+	@Test
+	void toMap_shouldReturnTheInstanceFieldValues() {
+		TestClass testClass = new TestClass();
+		testClass.setName("name");
+		testClass.parentName = "parent";
+
+		var result = ReflectionUtil.toMap(testClass);
+
+		var expected = new HashMap<String, Object>();
+		expected.put("name", "name");
+		expected.put("parentName", "parent");
+		expected.put("nonStaticField", null);
+		assertEquals(expected, result);
+	}
+
+	@Test
+	void fromMap_shouldSetTheFieldsPresentInTheMap() {
+		var values = Map.of("name", "name", "parentName", "parent", "unknown", "value");
+
+		var result = ReflectionUtil.fromMap(TestClass.class, values);
+
+		assertEquals("name", result.getName());
+		assertEquals("parent", result.getParentName());
+		assertNull(result.nonStaticField);
+	}
+
+	@Test
+	void fromMap_shouldRestoreTheObject_whenMapWasCreatedByToMap() {
+		TestClass testClass = new TestClass();
+		testClass.setName("name");
+		testClass.nonStaticField = "field";
+
+		var result = ReflectionUtil.fromMap(TestClass.class, ReflectionUtil.toMap(testClass));
+
+		assertEquals(ReflectionUtil.toMap(testClass), ReflectionUtil.toMap(result));
+	}
+
+	@Test
+	void copyProperties_shouldCopyTheFieldsWithMatchingNameAndType() {
+		var source = new TestCopySource();
+		source.id = 42;
+		source.name = "name";
+		source.count = 7L;
+		source.tag = "tag";
+		var target = new TestCopyTarget();
+
+		ReflectionUtil.copyProperties(source, target);
+
+		assertEquals(42, target.id);
+		assertEquals("name", target.name);
+		assertEquals(0, target.count);
+		assertNull(target.tag);
+		assertEquals("final", target.constant);
+	}
+
+	@Test
+	void copyProperties_shouldCopyInheritedFields() {
+		TestClass source = new TestClass();
+		source.setName("name");
+		source.parentName = "parent";
+		TestClass target = new TestClass();
+
+		ReflectionUtil.copyProperties(source, target);
+
+		assertEquals("name", target.getName());
+		assertEquals("parent", target.getParentName());
+	}
+
+	@Test
+	void copyProperties_shouldNotKeepAPluginClassFromUnloading() throws Exception {
+		WeakReference<Class<?>> pluginType = copyBetweenHostAndPlugin();
+
+		for (int i = 0; i < 20 && pluginType.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		assertNull(pluginType.get());
+	}
+
 	@Test
 	void getDeclaredField_shouldThrowFieldNotFoundException_whenFieldIsNotPresent() {
 		assertThrows(FieldNotFoundException.class, () ->
@@ -106,6 +235,26 @@ public class ReflectionUtilTest {
 		assertEquals(expected, result);
 	}
 
+	@Test
+	void getDeclaredField_shouldReturnTheSameFieldInstance_whenCalledRepeatedly() {
+		Field first = ReflectionUtil.getDeclaredField(TestClass.class, "parentName");
+
+		Field result = ReflectionUtil.getDeclaredField(TestClass.class, "parentName");
+
+		assertSame(first, result);
+	}
+
+	@Test
+	void getDeclaredField_shouldThrowFieldNotFoundException_whenMissingFieldIsLookedUpRepeatedly() {
+		assertThrows(FieldNotFoundException.class, () ->
+				ReflectionUtil.getDeclaredField(TestClass.class, "missing"));
+
+		var e = assertThrows(FieldNotFoundException.class, () ->
+				ReflectionUtil.getDeclaredField(TestClass.class, "missing"));
+
+		assertEquals("missing was not found in eu.fogas.reflection.ReflectionUtilTest.TestClass", e.getMessage());
+	}
+
 	@Test
 	void getDeclaredField_shouldReturnAllFieldsEvenFromParent() throws NoSuchFieldException {
 		var expected = Set.of("nonStaticField", "FINAL_STATIC_FIELD", "parentName", "name", "staticField");
@@ -118,6 +267,52 @@ public class ReflectionUtilTest {
 		assertEquals(expected, fieldNames);
 	}
 
+	@Test
+	void getAllFields_shouldReturnModifiableList() {
+		var result = ReflectionUtil.getAllFields(TestClass.class);
+
+		result.clear();
+
+		assertEquals(5, ReflectionUtil.getAllFields(TestClass.class).size());
+	}
+
+	@Test
+	void getFieldTable_shouldReturnTheSameTable_whenCalledRepeatedly() {
+		var table = ReflectionUtil.getFieldTable(TestClass.class);
+
+		var result = ReflectionUtil.getFieldTable(TestClass.class);
+
+		assertSame(table, result);
+	}
+
+	@Test
+	void getFieldTable_shouldReturnTheFieldsOfTheClassBeforeTheFieldsOfTheParent() {
+		var result = ReflectionUtil.getFieldTable(TestClass.class);
+
+		var fieldNames = result.getAllFields().stream()
+				.map(Field::getName)
+				.collect(Collectors.toList());
+		assertEquals(List.of("name", "staticField", "FINAL_STATIC_FIELD", "parentName", "nonStaticField"), fieldNames);
+		assertThrows(UnsupportedOperationException.class, () -> result.getAllFields().clear());
+	}
+
+	@Test
+	void getFieldTable_shouldFilterTheFields() {
+		var result = ReflectionUtil.getFieldTable(TestClass.class);
+
+		assertEquals(Set.of("name", "parentName", "nonStaticField"), fieldNames(result.getInstanceFields()));
+		assertEquals(Set.of("staticField", "FINAL_STATIC_FIELD"), fieldNames(result.getStaticFields()));
+		assertEquals(Set.of("name", "staticField", "parentName", "nonStaticField"),
+				fieldNames(result.getNonFinalFields()));
+	}
+
+	@Test
+	void getFieldTable_shouldReturnContainerFields() {
+		var result = ReflectionUtil.getFieldTable(TestTypesClass.class);
+
+		assertEquals(Set.of("set", "list", "map", "integers", "ints"), fieldNames(result.getContainerFields()));
+	}
+
 	@Test
 	void getDeclaredConstructors_shouldReturnDefaultConstructor_whenThereIsNoExplicitConstuctor() {
 		Constructor<?>[] result = ReflectionUtil.getDeclaredConstructors(TestClass.class);
@@ -151,6 +346,69 @@ public class ReflectionUtilTest {
 		assertEquals(0, result.getParameterCount());
 	}
 
+	@Test
+	void newInstance_shouldReturnNewInstance_whenDefaultConstructorExists() {
+		var result = ReflectionUtil.newInstance(ParentTestClass.class);
+
+		assertNotNull(result);
+	}
+
+	@Test
+	void newInstance_shouldThrowInitializationException_whenClassIsAbstract() {
+		var e = assertThrows(InitializationException.class, () ->
+				ReflectionUtil.newInstance(TestAbstractClass.class));
+
+		assertEquals("Could not create instance of eu.fogas.reflection.ReflectionUtilTest.TestAbstractClass because" +
+				" it is abstract", e.getMessage());
+	}
+
+	@Test
+	void newInstance_shouldThrowInitializationException_whenThereIsNoDefaultConstructor() {
+		var e = assertThrows(InitializationException.class, () ->
+				ReflectionUtil.newInstance(TestParam.class));
+
+		assertEquals("Could not create instance of eu.fogas.reflection.ReflectionUtilTest.TestParam because no" +
+				" default constructor was found", e.getMessage());
+	}
+
+	@Test
+	void newInstance_shouldThrowInitializationException_whenConstructorThrowsException() {
+		var e = assertThrows(InitializationException.class, () ->
+				ReflectionUtil.newInstance(TestFailingClass.class));
+
+		assertEquals("Could not create instance of eu.fogas.reflection.ReflectionUtilTest.TestFailingClass because" +
+				" failed", e.getMessage());
+	}
+
+	@Test
+	void instanceFactory_shouldReturnTheSameFactory_whenCalledRepeatedly() {
+		var factory = ReflectionUtil.instanceFactory(TestClass.class);
+
+		var result = ReflectionUtil.instanceFactory(TestClass.class);
+
+		assertSame(factory, result);
+	}
+
+	@Test
+	void instanceFactory_shouldCreateNewInstances() {
+		var factory = ReflectionUtil.instanceFactory(TestClass.class);
+
+		var first = factory.newInstance();
+		var second = factory.get();
+
+		assertNotNull(first);
+		assertNotSame(first, second);
+	}
+
+	@Test
+	void instanceFactory_shouldInvokeTheConstructorWithArguments() throws NoSuchMethodException {
+		var factory = ReflectionUtil.instanceFactory(TestParam.class.getDeclaredConstructor(String.class));
+
+		var result = factory.apply(new Object[]{"salala"});
+
+		assertEquals("salala", result.getParam());
+	}
+
 	@Test
 	void newInstance_shouldReturnNewInstanceWithInjectedParameters_whenFound() {
 		var param = "salala";
@@ -178,6 +436,77 @@ public class ReflectionUtilTest {
 				" suitable constructor was found", e.getMessage());
 	}
 
+	@Test
+	void newInstance_shouldReturnNewInstance_whenArgumentIsNull() {
+		var result = ReflectionUtil.newInstance(TestParam.class, (Object) null);
+
+		assertNull(result.getParam());
+	}
+
+	@Test
+	void newInstance_shouldThrowInitializationException_whenNullArgumentIsPassedToPrimitiveParameter() {
+		assertThrows(InitializationException.class, () ->
+				ReflectionUtil.newInstance(TestPrimitiveParam.class, (Object) null));
+	}
+
+	@Test
+	void newInstance_shouldReturnNewInstance_whenBoxedArgumentIsPassedToPrimitiveParameter() {
+		var result = ReflectionUtil.newInstance(TestPrimitiveParam.class, 42);
+
+		assertEquals(42, result.value);
+	}
+
+	@Test
+	void newInstance_shouldReturnNewInstances_whenCalledRepeatedlyWithDifferentArgumentTypes() {
+		var param = new TestInterfaceImpl();
+
+		var first = ReflectionUtil.newInstance(TestInterfaceParam.class, param);
+		var second = ReflectionUtil.newInstance(TestInterfaceParam.class, param);
+		var third = ReflectionUtil.newInstance(TestInterfaceParam.class, (Object) null);
+
+		assertNotSame(first, second);
+		assertEquals(param, second.getParam());
+		assertNull(third.getParam());
+	}
+
+	@Test
+	void newRecord_shouldCreateRecordWithCanonicalConstructor() {
+		var result = ReflectionUtil.newRecord(TestPointRecord.class, 1, 2, "label");
+
+		assertEquals(new TestPointRecord(1, 2, "label"), result);
+	}
+
+	@Test
+	void withComponent_shouldReturnCopyWithReplacedComponent() {
+		var record = new TestPointRecord(1, 2, "label");
+
+		var result = ReflectionUtil.withComponent(record, "y", 5);
+
+		assertEquals(new TestPointRecord(1, 5, "label"), result);
+		assertEquals(new TestPointRecord(1, 2, "label"), record);
+	}
+
+	@Test
+	void withComponent_shouldThrowFieldNotFoundException_whenComponentIsNotPresent() {
+		assertThrows(FieldNotFoundException.class, () ->
+				ReflectionUtil.withComponent(new TestPointRecord(1, 2, "label"), "z", 5));
+	}
+
+	@Test
+	void withComponent_shouldThrowIllegalArgumentException_whenValueHasWrongType() {
+		assertThrows(IllegalArgumentException.class, () ->
+				ReflectionUtil.withComponent(new TestPointRecord(1, 2, "label"), "label", 5));
+		assertThrows(IllegalArgumentException.class, () ->
+				ReflectionUtil.withComponent(new TestPointRecord(1, 2, "label"), "x", null));
+	}
+
+	@Test
+	void fromMap_shouldCreateRecord_whenTypeIsRecord() {
+		var result = ReflectionUtil.fromMap(TestPointRecord.class, Map.of("x", 3, "label", "label"));
+
+		assertEquals(new TestPointRecord(3, 0, "label"), result);
+	}
+
 	@Test
 	void isFinal_shouldReturnTrue_whenFieldIsFinal() throws NoSuchFieldException {
 		Field field = TestClass.class.getDeclaredField("FINAL_STATIC_FIELD");
@@ -284,6 +613,46 @@ public class ReflectionUtilTest {
 		assertFalse(result);
 	}
 
+	@Test
+	void enumValueOf_shouldReturnTheConstant_whenNameMatches() {
+		var result = ReflectionUtil.enumValueOf(TestColor.class, "GREEN");
+
+		assertEquals(TestColor.GREEN, result);
+	}
+
+	@Test
+	void enumValueOf_shouldThrowIllegalArgumentException_whenNameDoesNotMatch() {
+		var e = assertThrows(IllegalArgumentException.class, () ->
+				ReflectionUtil.enumValueOf(TestColor.class, "green"));
+
+		assertEquals("No enum constant eu.fogas.reflection.ReflectionUtilTest.TestColor.green", e.getMessage());
+	}
+
+	@Test
+	void enumValueOfIgnoreCase_shouldReturnTheConstant_whenNameMatchesIgnoringCase() {
+		assertEquals(TestColor.GREEN, ReflectionUtil.enumValueOfIgnoreCase(TestColor.class, "green"));
+		assertEquals(TestColor.DARK_BLUE, ReflectionUtil.enumValueOfIgnoreCase(TestColor.class, "Dark_Blue"));
+		assertThrows(IllegalArgumentException.class, () ->
+				ReflectionUtil.enumValueOfIgnoreCase(TestColor.class, "purple"));
+	}
+
+	@Test
+	void enumIndex_shouldIndexTheConstants() {
+		var result = ReflectionUtil.enumIndex(TestColor.class);
+
+		assertSame(result, ReflectionUtil.enumIndex(TestColor.class));
+		assertEquals(3, result.size());
+		assertEquals(TestColor.DARK_BLUE, result.get(2));
+		assertEquals(List.of(TestColor.values()), result.getConstants());
+		assertEquals(EnumSet.allOf(TestColor.class), result.getConstantSet());
+		assertNull(result.find("RED "));
+	}
+
+	@Test
+	void enumIndex_shouldThrowIllegalArgumentException_whenTypeIsNotEnum() {
+		assertThrows(IllegalArgumentException.class, () -> ReflectionUtil.enumIndex((Class) TestClass.class));
+	}
+
 	@Test
 	void isRecord_shouldReturnTrue_whenClassIsRecord() {
 		boolean result = ReflectionUtil.isRecord(TestRecord.class);
@@ -412,6 +781,90 @@ public class ReflectionUtilTest {
 		assertFalse(result);
 	}
 
+	@Test
+	void warmUp_shouldResolveFieldsAndConstructors_beforeTheFirstLookup() {
+		ReflectionUtil.warmUp(List.of(TestWarmUpClass.class, TestRecord.class, TestAbstractClass.class));
+		ReflectionMetrics.reset();
+		ReflectionMetrics.enable();
+		try {
+			var instance = ReflectionUtil.newInstance(TestWarmUpClass.class);
+			var withArgs = ReflectionUtil.newInstance(TestWarmUpClass.class, "name", 1);
+			ReflectionUtil.setFieldValue(instance, "name", "value");
+			ReflectionUtil.getDeclaredField(TestWarmUpClass.class, "count");
+
+			var result = ReflectionMetrics.snapshot();
+			assertEquals("value", instance.name);
+			assertEquals("name", withArgs.name);
+			assertEquals(0, result.cacheMisses());
+			assertEquals(4, result.cacheHits());
+		} finally {
+			ReflectionMetrics.disable();
+			ReflectionMetrics.reset();
+		}
+	}
+
+	@Test
+	void warmUp_shouldResolveConstructors_whenArgumentsAreSubTypesOfTheParameters() {
+		ReflectionUtil.warmUp(List.of(TestWarmUpClass.class));
+		ReflectionMetrics.reset();
+		ReflectionMetrics.enable();
+		try {
+			var result = ReflectionUtil.newInstance(TestWarmUpClass.class, new ArrayList<>(List.of("a", "b")));
+
+			assertEquals("a,b", result.name);
+			assertEquals(0, ReflectionMetrics.snapshot().cacheMisses());
+		} finally {
+			ReflectionMetrics.disable();
+			ReflectionMetrics.reset();
+		}
+	}
+
+	@Test
+	void warmUp_shouldReturnTheClassesOfThePackageAndOfItsSubPackages() {
+		var result = ReflectionUtil.warmUp("eu.fogas.reflection.exception");
+
+		assertTrue(result.contains(FieldNotFoundException.class));
+		assertTrue(result.contains(InitializationException.class));
+		assertFalse(result.contains(ReflectionUtil.class));
+	}
+
+	@Test
+	void warmUp_shouldSkipTheClass_whenItCannotBeResolved() throws ClassNotFoundException {
+		Class<?> broken = new PluginClassLoader(TestBrokenHolder.class, TestMissingType.class)
+				.loadClass(TestBrokenHolder.class.getName());
+
+		var result = ReflectionUtil.warmUp(List.of(TestWarmUpClass.class, broken, TestRecord.class));
+
+		assertEquals(List.of(TestWarmUpClass.class, TestRecord.class), result);
+	}
+
+	/**
+	 * Copies a host object into an object of a class defined by a child class loader and back, and returns the class
+	 * of the plugin object weakly referenced.
+	 */
+	private static WeakReference<Class<?>> copyBetweenHostAndPlugin() throws Exception {
+		Class<?> pluginType = new PluginClassLoader(TestCopySource.class).loadClass(TestCopySource.class.getName());
+		assertNotSame(TestCopySource.class, pluginType);
+		Constructor<?> constructor = pluginType.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		Object plugin = constructor.newInstance();
+		var host = new TestCopySource();
+		host.name = "host";
+
+		ReflectionUtil.copyProperties(host, plugin);
+		host.name = null;
+		ReflectionUtil.copyProperties(plugin, host);
+
+		assertEquals("host", host.name);
+		return new WeakReference<>(pluginType);
+	}
+
+	private static Set<String> fieldNames(List<Field> fields) {
+		return fields.stream()
+				.map(Field::getName)
+				.collect(Collectors.toSet());
+	}
+
 	@Getter
 	@NoArgsConstructor
 	@AllArgsConstructor
@@ -439,12 +892,90 @@ public class ReflectionUtilTest {
 		public abstract String getHello();
 	}
 
+	static class TestWarmUpClass {
+		private String name;
+		private int count;
+
+		TestWarmUpClass() {
+		}
+
+		TestWarmUpClass(String name, int count) {
+			this.name = name;
+			this.count = count;
+		}
+
+		TestWarmUpClass(List<String> names) {
+			this.name = String.join(",", names);
+		}
+	}
+
 	@Getter
 	@AllArgsConstructor
 	static class TestParam {
 		private String param;
 	}
 
+	/**
+	 * Defines its own copy of a class instead of delegating to the parent class loader.
+	 */
+	static class PluginClassLoader extends ClassLoader {
+		private final Class<?> type;
+		private final Set<String> hidden;
+
+		PluginClassLoader(Class<?> type, Class<?>... hidden) {
+			super(type.getClassLoader());
+			this.type = type;
+			this.hidden = Arrays.stream(hidden).map(Class::getName).collect(Collectors.toSet());
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (hidden.contains(name)) {
+				throw new ClassNotFoundException(name);
+			}
+			if (!name.equals(type.getName())) {
+				return super.loadClass(name, resolve);
+			}
+			try (InputStream in = type.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+				byte[] bytes = in.readAllBytes();
+				return defineClass(name, bytes, 0, bytes.length);
+			} catch (IOException e) {
+				throw new ClassNotFoundException(name, e);
+			}
+		}
+	}
+
+	static class TestMissingType {
+	}
+
+	static class TestBrokenHolder {
+		private TestMissingType missing;
+	}
+
+	static class TestCopySource {
+		private int id;
+		private String name;
+		private Long count;
+		private Object tag;
+		private String constant = "source";
+	}
+
+	static class TestCopyTarget {
+		private int id;
+		private CharSequence name;
+		private long count;
+		private String tag;
+		private final String constant = "final";
+	}
+
+	static class TestPrimitiveParam {
+		private final int value;
+
+		TestPrimitiveParam(int value) {
+			this.value = value;
+		}
+	}
+
 	@Getter
 	@AllArgsConstructor
 	static class TestInterfaceParam {
@@ -454,6 +985,12 @@ public class ReflectionUtilTest {
 	static final class TestFinalClass {
 	}
 
+	static class TestFailingClass {
+		TestFailingClass() {
+			throw new IllegalStateException("failed");
+		}
+	}
+
 	class TestNonStaticNonFinalInnerClass {
 	}
 
@@ -482,6 +1019,13 @@ public class ReflectionUtilTest {
 		FIRST
 	}
 
+	enum TestColor {
+		RED, GREEN, DARK_BLUE
+	}
+
 	record TestRecord(String name) {
 	}
+
+	record TestPointRecord(int x, int y, String label) {
+	}
 }
\ No newline at end of file